@@ -0,0 +1,21 @@
+package com.github.maharong.smartpos.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 수요 예측 설정({@code smartpos.forecast.*}).
+ *
+ * @param historyDays 모델을 맞출 과거 판매 일수(주간 계절성을 잡으려면 14일 이상)
+ * @param maxHorizonDays 예측할 수 있는 최대 일수
+ * @param intervalZ 예측 구간 폭(표준편차 배수, 1.96이면 약 95%)
+ * @param parallelism 상품별 모델 적합에 쓸 fork-join 풀 스레드 수(0이면 CPU 코어 수)
+ */
+@ConfigurationProperties("smartpos.forecast")
+public record ForecastProperties(
+        @DefaultValue("56") int historyDays,
+        @DefaultValue("28") int maxHorizonDays,
+        @DefaultValue("1.96") double intervalZ,
+        @DefaultValue("0") int parallelism
+) {
+}
@@ -0,0 +1,94 @@
+package com.github.maharong.smartpos.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.Set;
+
+/**
+ * 재고 차감/관리 관련 설정({@code smartpos.inventory.*}).
+ *
+ * @param lockStripes 상품 ID 기준 JVM 내부 락 스트라이프 개수(2의 거듭제곱으로 올림)
+ * @param optimisticRetries 낙관적 락 충돌 시 판매 트랜잭션 재시도 횟수
+ * @param pessimisticProductIds 비관적 락({@code SELECT ... FOR UPDATE})으로 배치를 조회할 인기 상품 ID 목록
+ * @param engine 인메모리 재고 엔진 설정
+ * @param dispose 만료 배치 일괄 폐기 설정
+ * @param audit 배치 점검 추천 점수 설정
+ * @param sweeper 자정 만료 배치 자동 폐기 설정
+ */
+@ConfigurationProperties("smartpos.inventory")
+public record InventoryProperties(
+        @DefaultValue("64") int lockStripes,
+        @DefaultValue("3") int optimisticRetries,
+        @DefaultValue Set<Long> pessimisticProductIds,
+        @DefaultValue Engine engine,
+        @DefaultValue Dispose dispose,
+        @DefaultValue Audit audit,
+        @DefaultValue Sweeper sweeper
+) {
+
+    /**
+     * 인메모리 재고 엔진 설정({@code smartpos.inventory.engine.*}).
+     *
+     * @param enabled 엔진 사용 여부(기본 false: 모든 재고 조회/차감을 DB로 처리)
+     * @param journalPath 판매 차감 내역을 DB 반영 전까지 보관하는 저널 파일 경로
+     * @param flushInterval 차감 내역을 DB에 반영하는 주기
+     * @param flushBatchSize 한 번에 DB에 반영할 최대 판매(차감 묶음) 수
+     * @param journalCompactionSize 저널 파일이 이 크기를 넘으면 DB 반영이 끝난 기록을 지우고 다시 쓴다
+     */
+    public record Engine(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("./data/inventory-journal.log") Path journalPath,
+            @DefaultValue("200ms") Duration flushInterval,
+            @DefaultValue("500") int flushBatchSize,
+            @DefaultValue("8MB") DataSize journalCompactionSize
+    ) {
+    }
+
+    /**
+     * 만료 배치 일괄 폐기 설정({@code smartpos.inventory.dispose.*}).
+     *
+     * @param productRangeSize 한 트랜잭션에서 처리할 상품 수(유통기한 날짜별로 만료 배치가 있는 상품을 이 개수씩 나누어 처리)
+     */
+    public record Dispose(
+            @DefaultValue("500") int productRangeSize
+    ) {
+    }
+
+    /**
+     * 배치 점검 추천 점수 가중치({@code smartpos.inventory.audit.*}).
+     *
+     * @param expiredWeight 유통기한 만료 배치 점수
+     * @param expiringSoonWeight 유통기한 임박 배치 최대 점수(남은 일수만큼 깎이며 0 미만이 되지 않음)
+     * @param neverCheckedWeight 점검 기록이 없는 배치 점수
+     * @param staleCheckWeight 마지막 점검 후 오래 지난 배치 점수
+     */
+    public record Audit(
+            @DefaultValue("100") int expiredWeight,
+            @DefaultValue("50") int expiringSoonWeight,
+            @DefaultValue("40") int neverCheckedWeight,
+            @DefaultValue("20") int staleCheckWeight
+    ) {
+    }
+
+    /**
+     * 자정 만료 배치 자동 폐기 설정({@code smartpos.inventory.sweeper.*}).
+     * <p>
+     * 실행 시각은 {@code smartpos.inventory.sweeper.cron}으로 정한다({@code -}이면 실행하지 않음).
+     * </p>
+     *
+     * @param chunkSize 한 트랜잭션에서 폐기할 상품 수(같은 유통기한 날짜 안에서 상품 ID 순으로 나눔)
+     * @param chunkPause 트랜잭션 사이 쉬는 시간(판매 트랜잭션과 DB 자원을 나눠 쓰도록 속도를 낮춤)
+     * @param offPeakEnd 이 시각이 지나면 남은 구간은 다음 실행으로 미루고 중단
+     */
+    public record Sweeper(
+            @DefaultValue("200") int chunkSize,
+            @DefaultValue("100ms") Duration chunkPause,
+            @DefaultValue("06:00") LocalTime offPeakEnd
+    ) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.maharong.smartpos.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 판매 속도 기반 발주 추천 설정({@code smartpos.reorder.*}).
+ *
+ * @param lookbackDays 일평균 판매량(판매 속도)을 구할 과거 판매 일수
+ * @param leadTimeDays 발주 후 입고까지 걸리는 일수
+ * @param coverageDays 입고 후 재고로 버틸 목표 일수
+ */
+@ConfigurationProperties("smartpos.reorder")
+public record ReorderProperties(
+        @DefaultValue("28") int lookbackDays,
+        @DefaultValue("2") int leadTimeDays,
+        @DefaultValue("7") int coverageDays
+) {
+}
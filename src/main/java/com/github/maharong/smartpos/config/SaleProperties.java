@@ -0,0 +1,21 @@
+package com.github.maharong.smartpos.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 판매 관련 설정({@code smartpos.sale.*}).
+ *
+ * @param idempotencyCacheSize 최근 멱등 키 → 영수증 응답을 보관하는 메모리 캐시 크기(LRU)
+ * @param idempotencyKeyRetention 멱등 키를 DB에 보관하는 기간(지나면 정기 작업으로 삭제)
+ * @param batchChunkSize 일괄 판매 등록 시 한 트랜잭션에서 저장할 영수증 수
+ */
+@ConfigurationProperties("smartpos.sale")
+public record SaleProperties(
+        @DefaultValue("10000") int idempotencyCacheSize,
+        @DefaultValue("7d") Duration idempotencyKeyRetention,
+        @DefaultValue("200") int batchChunkSize
+) {
+}
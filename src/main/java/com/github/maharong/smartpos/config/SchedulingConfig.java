@@ -0,0 +1,12 @@
+package com.github.maharong.smartpos.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 정기 작업({@code @Scheduled})을 활성화하는 설정.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
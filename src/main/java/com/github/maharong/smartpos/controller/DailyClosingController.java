@@ -0,0 +1,60 @@
+package com.github.maharong.smartpos.controller;
+
+import com.github.maharong.smartpos.dto.DailyClosingReconcileResponse;
+import com.github.maharong.smartpos.dto.DailyClosingResponse;
+import com.github.maharong.smartpos.service.DailyClosingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * 영업일 마감(Z 리포트) API 컨트롤러.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/reports/closing")
+public class DailyClosingController {
+
+    private final DailyClosingService dailyClosingService;
+
+    /**
+     * 영업일의 마감 리포트(판매/환불/순매출, 결제 수단별)를 조회한다.
+     *
+     * @param businessDate 영업일
+     * @return 마감 리포트
+     */
+    @GetMapping("/{businessDate}")
+    public DailyClosingResponse getReport(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate businessDate
+    ) {
+        return dailyClosingService.getReport(businessDate);
+    }
+
+    /**
+     * 영업일을 마감한다.
+     *
+     * @param businessDate 영업일
+     * @return 마감 리포트
+     */
+    @PostMapping("/{businessDate}/close")
+    public DailyClosingResponse close(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate businessDate
+    ) {
+        return dailyClosingService.close(businessDate);
+    }
+
+    /**
+     * 영업일 누적값을 원본 판매와 대사하고, 다르면 원본 값으로 보정한다.
+     *
+     * @param businessDate 영업일
+     * @return 대사 결과
+     */
+    @PostMapping("/{businessDate}/reconcile")
+    public DailyClosingReconcileResponse reconcile(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate businessDate
+    ) {
+        return dailyClosingService.reconcile(businessDate);
+    }
+}
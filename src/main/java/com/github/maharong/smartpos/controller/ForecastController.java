@@ -0,0 +1,49 @@
+package com.github.maharong.smartpos.controller;
+
+import com.github.maharong.smartpos.dto.DemandForecastResponse;
+import com.github.maharong.smartpos.dto.ForecastRefreshResponse;
+import com.github.maharong.smartpos.service.DemandForecastService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * 수요 예측 API 컨트롤러.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/forecasts")
+public class ForecastController {
+
+    private final DemandForecastService demandForecastService;
+
+    /**
+     * 상품의 앞으로의 일자별 예상 수요와 예측 구간을 조회한다.
+     *
+     * @param productId 상품 ID
+     * @param days 예측 일수(기본 7)
+     * @return 일자별 예상 수요
+     */
+    @GetMapping("/products/{productId}")
+    public DemandForecastResponse getForecast(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "7") int days
+    ) {
+        return demandForecastService.getForecast(productId, days);
+    }
+
+    /**
+     * 기준일 전날까지의 판매로 예측을 갱신한다(계열이 바뀐 상품만 다시 맞춤).
+     *
+     * @param date 예측 기준일(생략 시 오늘)
+     * @return 갱신 결과
+     */
+    @PostMapping("/refresh")
+    public ForecastRefreshResponse refresh(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return demandForecastService.refresh((date == null) ? LocalDate.now() : date);
+    }
+}
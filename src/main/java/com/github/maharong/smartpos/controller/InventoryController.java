@@ -2,7 +2,9 @@ package com.github.maharong.smartpos.controller;
 
 import com.github.maharong.smartpos.dto.*;
 import com.github.maharong.smartpos.enums.ProductStatus;
+import com.github.maharong.smartpos.service.AvailableStockService;
 import com.github.maharong.smartpos.service.InventoryService;
+import com.github.maharong.smartpos.service.ReorderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -30,6 +32,8 @@ import java.util.List;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final AvailableStockService availableStockService;
+    private final ReorderService reorderService;
 
     /**
      * 입고 처리(배치 생성)를 수행한다.
@@ -66,6 +70,17 @@ public class InventoryController {
         return inventoryService.getBatches(productId);
     }
 
+    /**
+     * 특정 배치(로트)에서 차감된 판매 목록을 조회한다(회수/추적용).
+     *
+     * @param batchId 배치 ID
+     * @return 판매 목록(판매 시각 오름차순)
+     */
+    @GetMapping("/batches/{batchId}/sales")
+    public List<BatchSaleResponse> getBatchSales(@PathVariable Long batchId) {
+        return inventoryService.getBatchSales(batchId);
+    }
+
     /**
      * 특정 상품의 재고 요약을 조회한다.
      * <p>
@@ -81,22 +96,35 @@ public class InventoryController {
     }
 
     /**
-     * 유통기한 임박/만료 배치를 조회한다.
+     * 유통기한 임박/만료 배치를 한 페이지 조회한다(수량이 남은 배치만, 유통기한이 가까운 순).
      * <p>
      * {@code date} 파라미터가 없으면 오늘 날짜를 기준으로 조회한다.
+     * 다음 페이지는 응답의 {@code nextCursorExpiryDate}, {@code nextCursorId}를 그대로 넘겨 조회한다.
      * </p>
      *
-     * @param date 유통기한 비교 기준일(선택)
-     * @return 유통기한 임박/만료 배치 목록
+     * @param date 유통기한 비교 기준일(선택, 이 날짜까지 포함)
+     * @param from 유통기한 하한(선택, 포함)
+     * @param cursorExpiryDate 직전 페이지 커서(유통기한)
+     * @param cursorId 직전 페이지 커서(배치 ID)
+     * @param size 페이지 크기(기본 100, 최대 500)
+     * @return 유통기한 임박/만료 배치 페이지
      */
     @GetMapping("/expiring")
-    public List<ExpiringBatchResponse> getExpiringBatches(
+    public ExpiringBatchPageResponse getExpiringBatches(
             @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-            LocalDate date
+            LocalDate date,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate from,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate cursorExpiryDate,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "100") int size
     ) {
         LocalDate baseDate = (date == null) ? LocalDate.now() : date;
-        return inventoryService.getExpiringBatches(baseDate);
+        return inventoryService.getExpiringBatches(from, baseDate, cursorExpiryDate, cursorId, size);
     }
 
     /**
@@ -136,6 +164,36 @@ public class InventoryController {
         return inventoryService.getAllSummaries(status);
     }
 
+    /**
+     * 상품별 가용 재고(판매 가능 재고 + 진행 중인 발주의 입고 예정 수량)와 재고 소진 예상 일수를 조회한다.
+     * <p>
+     * status 파라미터가 없으면 ACTIVE 기준으로 조회한다.
+     * </p>
+     *
+     * @param status 상품 상태(선택)
+     * @param date 기준일(선택, 전날까지의 판매로 판매 속도를 계산하며 없으면 오늘)
+     * @return 상품별 가용 재고 목록
+     */
+    @GetMapping("/availability")
+    public List<ProductAvailabilityResponse> getAvailability(
+            @RequestParam(required = false) ProductStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return reorderService.getAvailability(
+                (status == null) ? ProductStatus.ACTIVE : status,
+                (date == null) ? LocalDate.now() : date);
+    }
+
+    /**
+     * 상품별 판매 가능 재고 수량을 배치 합계와 비교하여 어긋난 값을 보정한다.
+     *
+     * @return 보정한 상품 목록
+     */
+    @PostMapping("/stock-counter/reconcile")
+    public List<StockDriftResponse> reconcileStockCounter() {
+        return availableStockService.reconcile();
+    }
+
     /**
      * 점검 추천 배치 목록을 조회한다.
      *
@@ -1,13 +1,20 @@
 package com.github.maharong.smartpos.controller;
 
+import com.github.maharong.smartpos.dto.ProductChangesResponse;
 import com.github.maharong.smartpos.dto.ProductCreateRequest;
 import com.github.maharong.smartpos.dto.ProductResponse;
+import com.github.maharong.smartpos.dto.ProductSnapshotResponse;
 import com.github.maharong.smartpos.dto.ProductUpdateRequest;
 import com.github.maharong.smartpos.enums.ProductStatus;
+import com.github.maharong.smartpos.service.ProductCatalogService;
 import com.github.maharong.smartpos.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -28,6 +35,7 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductCatalogService productCatalogService;
 
     /**
      * 상품을 등록한다.
@@ -62,6 +70,57 @@ public class ProductController {
         return productService.getByBarcode(barcode);
     }
 
+    /**
+     * 단말 카탈로그 변경분을 조회한다.
+     * <p>
+     * 기준 버전({@code since}) 이후에 등록/수정/상태 변경된 상품을 변경 버전 순으로 반환한다.
+     * 단종 상품도 {@code tombstone=true}로 포함되므로 단말은 받은 행으로 카탈로그를 덮어쓰거나 지우면 된다.
+     * </p>
+     *
+     * @param since 단말이 받은 마지막 변경 버전(스냅샷 버전 또는 직전 응답의 {@code nextSince})
+     * @param size 페이지 크기(기본 500, 최대 1000)
+     * @return 변경분
+     */
+    @GetMapping("/changes")
+    public ProductChangesResponse getChanges(
+            @RequestParam long since,
+            @RequestParam(defaultValue = "500") int size
+    ) {
+        return productCatalogService.getChanges(since, size);
+    }
+
+    /**
+     * 단말 카탈로그 전체 스냅샷을 조회한다.
+     * <p>
+     * 미리 압축해 둔 JSON을 그대로 내려주며, 버전을 ETag로 사용한다.
+     * {@code If-None-Match}가 현재 버전과 같으면 본문 없이 304를 반환한다.
+     * </p>
+     *
+     * @param acceptEncoding 클라이언트가 받을 수 있는 인코딩(gzip을 받지 못하면 압축을 풀어 보낸다)
+     * @param request ETag 비교용 요청
+     * @return 전체 스냅샷({@link ProductSnapshotResponse} JSON)
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<byte[]> getSnapshot(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request
+    ) {
+        ProductCatalogService.CatalogSnapshot snapshot = productCatalogService.getSnapshot();
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(snapshot.etag())
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) {
+            return response.body(snapshot.jsonBody());
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzipBody());
+    }
+
     /**
      * 상품 목록을 조회한다.
      * <p>
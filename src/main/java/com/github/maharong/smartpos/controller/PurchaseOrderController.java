@@ -0,0 +1,110 @@
+package com.github.maharong.smartpos.controller;
+
+import com.github.maharong.smartpos.dto.*;
+import com.github.maharong.smartpos.enums.PurchaseOrderStatus;
+import com.github.maharong.smartpos.service.PurchaseOrderService;
+import com.github.maharong.smartpos.service.ReorderService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 발주 API 컨트롤러.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/purchase-orders")
+public class PurchaseOrderController {
+
+    private final ReorderService reorderService;
+    private final PurchaseOrderService purchaseOrderService;
+
+    /**
+     * 발주 목록을 최신순으로 조회한다(키셋 페이지).
+     *
+     * <p>다음 페이지는 응답의 {@code nextCursorOrderedAt}, {@code nextCursorId}를 그대로 넘겨 조회한다.</p>
+     *
+     * @param from 조회 시작일(포함, 선택)
+     * @param to 조회 종료일(포함, 선택)
+     * @param status 발주 상태(선택)
+     * @param cursorOrderedAt 직전 페이지 커서(발주 시각)
+     * @param cursorId 직전 페이지 커서(발주 ID)
+     * @param size 페이지 크기(기본 50, 최대 500)
+     * @return 발주 목록 페이지
+     */
+    @GetMapping
+    public PurchaseOrderPageResponse list(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) PurchaseOrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorOrderedAt,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return purchaseOrderService.getPurchaseOrders(
+                (from == null) ? null : from.atStartOfDay(),
+                (to == null) ? null : to.plusDays(1).atStartOfDay(),
+                status, cursorOrderedAt, cursorId, size);
+    }
+
+    /**
+     * 발주 상세(라인과 상품 포함)를 조회한다.
+     *
+     * @param purchaseOrderId 발주 ID
+     * @return 발주 상세
+     */
+    @GetMapping("/{purchaseOrderId}")
+    public PurchaseOrderDetailResponse get(@PathVariable Long purchaseOrderId) {
+        return purchaseOrderService.getPurchaseOrder(purchaseOrderId);
+    }
+
+    /**
+     * 판매 속도 기반 발주 추천 목록을 조회한다.
+     *
+     * @param date 기준일(생략 시 오늘)
+     * @return 발주 추천 목록
+     */
+    @GetMapping("/reorder-suggestions")
+    public List<ReorderSuggestionResponse> getReorderSuggestions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return reorderService.getSuggestions((date == null) ? LocalDate.now() : date);
+    }
+
+    /**
+     * 발주 추천 내역으로 발주 요청 상태의 발주서 초안을 만든다.
+     *
+     * @param date 기준일(생략 시 오늘)
+     * @return 발주서 초안(발주할 상품이 없으면 204)
+     */
+    @PostMapping("/reorder")
+    public ResponseEntity<PurchaseOrderDraftResponse> createReorderDraft(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+    ) {
+        return reorderService.createDraft((date == null) ? LocalDate.now() : date)
+                .map(draft -> ResponseEntity.status(HttpStatus.CREATED).body(draft))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * 발주 전체를 입고 처리한다(라인별 입고 배치 생성 후 발주를 입고 완료로 변경).
+     *
+     * @param purchaseOrderId 발주 ID
+     * @param request 입고일과 라인별 유통기한
+     * @return 입고 결과
+     */
+    @PostMapping("/{purchaseOrderId}/receive")
+    public PurchaseOrderReceiveResponse receive(
+            @PathVariable Long purchaseOrderId,
+            @Valid @RequestBody PurchaseOrderReceiveRequest request
+    ) {
+        return purchaseOrderService.receive(purchaseOrderId, request);
+    }
+}
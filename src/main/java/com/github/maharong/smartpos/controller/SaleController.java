@@ -1,15 +1,33 @@
 package com.github.maharong.smartpos.controller;
 
+import com.github.maharong.smartpos.config.SaleProperties;
+import com.github.maharong.smartpos.dto.SaleBatchResultResponse;
 import com.github.maharong.smartpos.dto.SaleCreateRequest;
+import com.github.maharong.smartpos.dto.SalePageResponse;
 import com.github.maharong.smartpos.dto.SaleResponse;
-import com.github.maharong.smartpos.entity.Sale;
-import com.github.maharong.smartpos.entity.SaleItem;
-import com.github.maharong.smartpos.repository.SaleItemRepository;
+import com.github.maharong.smartpos.enums.SaleExportFormat;
+import com.github.maharong.smartpos.enums.SaleStatus;
+import com.github.maharong.smartpos.service.SaleHistoryService;
 import com.github.maharong.smartpos.service.SaleService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -21,7 +39,9 @@ import java.util.List;
 public class SaleController {
 
     private final SaleService saleService;
-    private final SaleItemRepository saleItemRepository;
+    private final SaleHistoryService saleHistoryService;
+    private final SaleProperties saleProperties;
+    private final JsonMapper jsonMapper;
 
     /**
      * 판매 1건(영수증 1장)을 생성한다.
@@ -34,13 +54,21 @@ public class SaleController {
      *   <li>총액 및 결제 금액 반영</li>
      * </ul>
      *
+     * <p>{@code Idempotency-Key} 헤더를 보내면, 같은 키로 재시도한 요청은 판매를 다시 만들지 않고
+     * 처음 생성된 영수증을 그대로 응답한다. 같은 키로 내용(결제 수단/금액, 판매 라인)이 다른 요청은 409로 거절한다.</p>
+     *
+     * @param idempotencyKey 멱등 키(선택)
      * @param req 판매 생성 요청 DTO
      * @return 생성된 판매 응답 DTO
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public SaleResponse create(@RequestBody SaleCreateRequest req) {
-        Sale sale = saleService.createSale(
+    public SaleResponse create(
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestBody SaleCreateRequest req
+    ) {
+        return saleService.createSale(
+                idempotencyKey,
                 req.paymentMethod(),
                 req.cashAmount(),
                 req.cardAmount(),
@@ -49,9 +77,131 @@ public class SaleController {
                         .map(l -> new SaleService.CreateSaleLine(l.productId(), l.quantity()))
                         .toList()
         );
+    }
+
+    /**
+     * 오프라인 단말이 보관했던 판매를 일괄 등록한다.
+     *
+     * <p>요청 본문은 한 줄에 {@link SaleCreateRequest} 하나씩인 NDJSON({@code application/x-ndjson})이며,
+     * 본문을 끝까지 읽어 두지 않고 {@code smartpos.sale.batch-chunk-size}건씩 읽는 대로 한 트랜잭션으로 저장한다.
+     * 각 줄의 {@code soldAt}은 원래 판매 시각, {@code idempotencyKey}는 재전송 중복 방지 키로 사용한다.</p>
+     *
+     * <p>응답은 요청 줄(빈 줄 제외) 순서와 같은 순서의 영수증별 결과 목록이다.
+     * 한 영수증의 실패(형식 오류, 재고 부족 등)는 다른 영수증 저장에 영향을 주지 않는다.</p>
+     *
+     * @param body NDJSON 요청 본문
+     * @return 영수증별 처리 결과 목록
+     * @throws IOException 요청 본문을 읽지 못한 경우
+     */
+    @PostMapping(value = "/batch", consumes = {"application/x-ndjson", MediaType.APPLICATION_JSON_VALUE})
+    public List<SaleBatchResultResponse> createBatch(InputStream body) throws IOException {
+        int chunkSize = Math.max(1, saleProperties.batchChunkSize());
+
+        List<SaleBatchResultResponse> results = new ArrayList<>();
+        List<SaleCreateRequest> chunk = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+
+                int position = results.size();
+                results.add(null);
+                try {
+                    chunk.add(jsonMapper.readValue(line, SaleCreateRequest.class));
+                    positions.add(position);
+                } catch (JacksonException e) {
+                    results.set(position, SaleBatchResultResponse.failed("요청 형식이 올바르지 않습니다. " + e.getOriginalMessage()));
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    flushBatchChunk(chunk, positions, results);
+                }
+            }
+        }
+        flushBatchChunk(chunk, positions, results);
+        return results;
+    }
+
+    private void flushBatchChunk(
+            List<SaleCreateRequest> chunk,
+            List<Integer> positions,
+            List<SaleBatchResultResponse> results
+    ) {
+        if (chunk.isEmpty()) return;
+
+        List<SaleBatchResultResponse> chunkResults = saleService.createSaleBatch(chunk);
+        for (int i = 0; i < chunkResults.size(); i++) {
+            results.set(positions.get(i), chunkResults.get(i));
+        }
+        chunk.clear();
+        positions.clear();
+    }
+
+    /**
+     * 판매 이력을 최신순으로 조회한다(키셋 페이지네이션).
+     *
+     * <p>첫 페이지는 커서 없이 조회하고, 다음 페이지는 응답의 {@code nextCursorSoldAt}/{@code nextCursorId}를
+     * {@code cursorSoldAt}/{@code cursorId}로 넘겨 조회한다.</p>
+     *
+     * @param from 조회 시작일(포함, 선택)
+     * @param to 조회 종료일(포함, 선택)
+     * @param status 판매 상태(선택)
+     * @param cursorSoldAt 페이지 커서 - 판매 시각(선택)
+     * @param cursorId 페이지 커서 - 판매 ID(선택)
+     * @param size 페이지 크기(기본 50, 최대 500)
+     * @return 판매 이력 페이지
+     */
+    @GetMapping
+    public SalePageResponse list(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) SaleStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cursorSoldAt,
+            @RequestParam(required = false) Long cursorId,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return saleHistoryService.getSales(startOf(from), endOf(to), status, cursorSoldAt, cursorId, size);
+    }
+
+    /**
+     * 판매 이력을 CSV 또는 NDJSON으로 내보낸다.
+     *
+     * <p>응답 본문을 스트리밍으로 쓰므로, 월말처럼 판매 건수가 많은 기간도 서버 메모리에 모으지 않는다.</p>
+     *
+     * @param from 조회 시작일(포함, 선택)
+     * @param to 조회 종료일(포함, 선택)
+     * @param status 판매 상태(선택)
+     * @param format 출력 형식(기본 CSV)
+     * @return 스트리밍 응답
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) SaleStatus status,
+            @RequestParam(defaultValue = "CSV") SaleExportFormat format
+    ) {
+        MediaType contentType = (format == SaleExportFormat.CSV)
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+        String filename = "sales." + format.name().toLowerCase();
+
+        StreamingResponseBody body = out ->
+                saleHistoryService.exportSales(startOf(from), endOf(to), status, format, out);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    private static LocalDateTime startOf(LocalDate from) {
+        return (from == null) ? null : from.atStartOfDay();
+    }
 
-        List<SaleItem> items = saleItemRepository.findBySaleId(sale.getId());
-        return SaleResponse.from(sale, items);
+    private static LocalDateTime endOf(LocalDate to) {
+        return (to == null) ? null : to.plusDays(1).atStartOfDay();
     }
 
     /**
@@ -62,21 +212,21 @@ public class SaleController {
      */
     @GetMapping("/{saleId}")
     public SaleResponse get(@PathVariable Long saleId) {
-        Sale sale = saleService.getSale(saleId);
-        List<SaleItem> items = saleItemRepository.findBySaleId(saleId);
-        return SaleResponse.from(sale, items);
+        return saleService.getSale(saleId);
     }
 
     /**
      * 판매를 환불 처리한다.
      *
-     * <p>정책: 환불 상품은 재입고하지 않고 폐기 처리한다. 따라서 재고는 복구하지 않는다.</p>
+     * <p>기본 정책은 환불 상품을 재입고하지 않고 폐기하는 것이다. {@code restock=true}면
+     * 판매가 차감했던 배치에 같은 수량을 되돌린다.</p>
      *
      * @param saleId 판매 ID
+     * @param restock 차감했던 배치로 재입고할지 여부(기본 false)
      */
     @PatchMapping("/{saleId}/refund")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void refund(@PathVariable Long saleId) {
-        saleService.refundSale(saleId);
+    public void refund(@PathVariable Long saleId, @RequestParam(defaultValue = "false") boolean restock) {
+        saleService.refundSale(saleId, restock);
     }
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+package com.github.maharong.smartpos.controller;
+
+import com.github.maharong.smartpos.dto.PaymentSalesRollupResponse;
+import com.github.maharong.smartpos.dto.SalesRollupResponse;
+import com.github.maharong.smartpos.enums.SalesRollupGranularity;
+import com.github.maharong.smartpos.service.SalesReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 판매 집계 리포트 API 컨트롤러.
+ * <p>
+ * 판매/환불 시 증분 갱신되는 집계 테이블을 조회하므로, 원본 판매를 스캔하지 않는다.
+ * </p>
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/reports/sales")
+public class SalesReportController {
+
+    private final SalesReportService salesReportService;
+
+    /**
+     * 상품의 기간 판매 집계를 조회한다.
+     *
+     * @param productId 상품 ID
+     * @param from 시작일(포함)
+     * @param to 종료일(포함)
+     * @param granularity 집계 단위(기본 일별)
+     * @return 구간별 판매 집계 목록
+     */
+    @GetMapping("/products/{productId}")
+    public List<SalesRollupResponse> getProductSales(
+            @PathVariable Long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAILY") SalesRollupGranularity granularity
+    ) {
+        return salesReportService.getProductSales(productId, from, to, granularity);
+    }
+
+    /**
+     * 기간의 일자별·결제 수단별 판매 집계를 조회한다.
+     *
+     * @param from 시작일(포함)
+     * @param to 종료일(포함)
+     * @return 일자·결제 수단별 판매 집계 목록
+     */
+    @GetMapping("/payments")
+    public List<PaymentSalesRollupResponse> getPaymentSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return salesReportService.getPaymentSales(from, to);
+    }
+
+    /**
+     * 기간의 집계를 원본 판매에서 다시 계산한다(집계 도입 전 판매 채우기/복구용).
+     *
+     * @param from 시작일(포함)
+     * @param to 종료일(포함)
+     */
+    @PostMapping("/rebuild")
+    public void rebuild(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        salesReportService.rebuild(from, to);
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.maharong.smartpos.dto;
+
+import com.github.maharong.smartpos.enums.SaleStatus;
+import com.github.maharong.smartpos.repository.SaleItemAllocationRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 배치(로트)에서 차감된 판매 응답 DTO.
+ *
+ * @param saleId 판매 ID
+ * @param soldAt 판매 시각
+ * @param status 판매 상태
+ * @param saleItemId 판매 라인 ID
+ * @param quantity 이 배치에서 차감한 수량
+ */
+public record BatchSaleResponse(
+        Long saleId,
+        LocalDateTime soldAt,
+        SaleStatus status,
+        Long saleItemId,
+        int quantity
+) {
+    public static BatchSaleResponse from(SaleItemAllocationRepository.BatchSaleProjection row) {
+        return new BatchSaleResponse(row.getSaleId(), row.getSoldAt(), row.getStatus(), row.getSaleItemId(), row.getQuantity());
+    }
+}
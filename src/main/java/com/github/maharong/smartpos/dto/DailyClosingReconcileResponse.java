@@ -0,0 +1,19 @@
+package com.github.maharong.smartpos.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 영업일 마감 대사 결과 응답 DTO.
+ *
+ * @param businessDate 영업일
+ * @param matched 누적값과 원본 판매 합계가 일치했는지 여부
+ * @param recorded 대사 전 누적값 기준 리포트
+ * @param actual 원본 판매에서 다시 합산한 리포트(불일치 시 이 값으로 보정됨)
+ */
+public record DailyClosingReconcileResponse(
+        LocalDate businessDate,
+        boolean matched,
+        DailyClosingResponse recorded,
+        DailyClosingResponse actual
+) {
+}
@@ -0,0 +1,43 @@
+package com.github.maharong.smartpos.dto;
+
+import com.github.maharong.smartpos.service.DailyClosingCounters;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 영업일 마감(Z 리포트) 응답 DTO.
+ *
+ * @param businessDate 영업일
+ * @param saleCount 판매 영수증 수
+ * @param refundCount 환불 영수증 수
+ * @param grossSales 결제 수단별 판매 금액(환불 전)
+ * @param refunds 결제 수단별 환불 금액(환불 처리일 기준)
+ * @param netSales 결제 수단별 순매출(판매 - 환불)
+ * @param closedAt 마감 처리 시각(마감 전이면 null)
+ */
+public record DailyClosingResponse(
+        LocalDate businessDate,
+        long saleCount,
+        long refundCount,
+        PaymentAmountsResponse grossSales,
+        PaymentAmountsResponse refunds,
+        PaymentAmountsResponse netSales,
+        LocalDateTime closedAt
+) {
+    public static DailyClosingResponse of(LocalDate businessDate, DailyClosingCounters.Totals totals, LocalDateTime closedAt) {
+        return new DailyClosingResponse(
+                businessDate,
+                totals.saleCount(),
+                totals.refundCount(),
+                PaymentAmountsResponse.of(totals.saleCashAmount(), totals.saleCardAmount(), totals.salePointAmount()),
+                PaymentAmountsResponse.of(totals.refundCashAmount(), totals.refundCardAmount(), totals.refundPointAmount()),
+                PaymentAmountsResponse.of(
+                        totals.saleCashAmount() - totals.refundCashAmount(),
+                        totals.saleCardAmount() - totals.refundCardAmount(),
+                        totals.salePointAmount() - totals.refundPointAmount()
+                ),
+                closedAt
+        );
+    }
+}
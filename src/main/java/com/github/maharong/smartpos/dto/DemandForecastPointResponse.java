@@ -0,0 +1,19 @@
+package com.github.maharong.smartpos.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 일자별 예상 수요 응답 DTO.
+ *
+ * @param date 예측 일자
+ * @param expected 예상 판매량
+ * @param lower 예측 구간 하한(0 이상)
+ * @param upper 예측 구간 상한
+ */
+public record DemandForecastPointResponse(
+        LocalDate date,
+        double expected,
+        double lower,
+        double upper
+) {
+}
@@ -0,0 +1,20 @@
+package com.github.maharong.smartpos.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 상품 수요 예측 응답 DTO.
+ *
+ * @param productId 상품 ID
+ * @param baseDate 예측 기준일(이 날짜부터 예측, 전날까지의 판매로 모델을 맞춤)
+ * @param totalExpected 예측 기간 예상 판매량 합계
+ * @param days 일자별 예상 수요
+ */
+public record DemandForecastResponse(
+        Long productId,
+        LocalDate baseDate,
+        double totalExpected,
+        List<DemandForecastPointResponse> days
+) {
+}
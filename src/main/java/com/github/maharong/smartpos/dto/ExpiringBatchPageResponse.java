@@ -0,0 +1,22 @@
+package com.github.maharong.smartpos.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 유통기한 임박 배치 페이지 응답 DTO.
+ *
+ * <p>다음 페이지는 {@code nextCursorExpiryDate}, {@code nextCursorId}를 커서 파라미터로 그대로 넘겨 조회한다.</p>
+ *
+ * @param batches 배치 목록(유통기한이 가까운 순)
+ * @param hasNext 다음 페이지 존재 여부
+ * @param nextCursorExpiryDate 다음 페이지 커서(마지막 행의 유통기한), 다음 페이지가 없으면 null
+ * @param nextCursorId 다음 페이지 커서(마지막 행의 배치 ID), 다음 페이지가 없으면 null
+ */
+public record ExpiringBatchPageResponse(
+        List<ExpiringBatchResponse> batches,
+        boolean hasNext,
+        LocalDate nextCursorExpiryDate,
+        Long nextCursorId
+) {
+}
@@ -1,6 +1,9 @@
 package com.github.maharong.smartpos.dto;
 
+import com.github.maharong.smartpos.repository.InventoryBatchRepository;
+
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 
 public record ExpiringBatchResponse(
         Long batchId,
@@ -10,4 +13,14 @@ public record ExpiringBatchResponse(
         LocalDate expiryDate,
         long daysToExpiry
 ) {
+    public static ExpiringBatchResponse from(InventoryBatchRepository.ExpiringBatchProjection row, LocalDate today) {
+        return new ExpiringBatchResponse(
+                row.getBatchId(),
+                row.getProductId(),
+                row.getProductName(),
+                row.getQuantity(),
+                row.getExpiryDate(),
+                ChronoUnit.DAYS.between(today, row.getExpiryDate())
+        );
+    }
 }
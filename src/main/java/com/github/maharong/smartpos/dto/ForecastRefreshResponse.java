@@ -0,0 +1,21 @@
+package com.github.maharong.smartpos.dto;
+
+import java.time.LocalDate;
+
+/**
+ * 수요 예측 갱신 결과 응답 DTO.
+ *
+ * @param baseDate 예측 기준일
+ * @param productCount 기간에 판매가 있어 모델을 가진 상품 수
+ * @param refittedCount 계열이 바뀌어(또는 처음이라) 계수부터 다시 맞춘 상품 수
+ * @param advancedCount 과거 판매가 그대로여서 새 날짜의 판매량으로 상태만 전진시킨 상품 수
+ * @param elapsedMillis 소요 시간(밀리초)
+ */
+public record ForecastRefreshResponse(
+        LocalDate baseDate,
+        int productCount,
+        int refittedCount,
+        int advancedCount,
+        long elapsedMillis
+) {
+}
@@ -0,0 +1,20 @@
+package com.github.maharong.smartpos.dto;
+
+/**
+ * 결제 수단별 금액 응답 DTO.
+ *
+ * @param cashAmount 현금 금액
+ * @param cardAmount 카드 금액
+ * @param pointAmount 포인트 금액
+ * @param totalAmount 합계
+ */
+public record PaymentAmountsResponse(
+        long cashAmount,
+        long cardAmount,
+        long pointAmount,
+        long totalAmount
+) {
+    public static PaymentAmountsResponse of(long cashAmount, long cardAmount, long pointAmount) {
+        return new PaymentAmountsResponse(cashAmount, cardAmount, pointAmount, cashAmount + cardAmount + pointAmount);
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.maharong.smartpos.dto;
+
+import com.github.maharong.smartpos.entity.PaymentDailySales;
+import com.github.maharong.smartpos.enums.PaymentMethod;
+
+import java.time.LocalDate;
+
+/**
+ * 일자별·결제 수단별 판매 집계 응답 DTO.
+ *
+ * @param salesDate 집계 일자
+ * @param paymentMethod 결제 수단
+ * @param quantity 판매 수량 합계
+ * @param revenue 판매 금액 합계
+ * @param receiptCount 영수증 수
+ */
+public record PaymentSalesRollupResponse(
+        LocalDate salesDate,
+        PaymentMethod paymentMethod,
+        long quantity,
+        long revenue,
+        long receiptCount
+) {
+    public static PaymentSalesRollupResponse from(PaymentDailySales row) {
+        return new PaymentSalesRollupResponse(
+                row.getSalesDate(),
+                row.getPaymentMethod(),
+                row.getQuantity(),
+                row.getRevenue(),
+                row.getReceiptCount()
+        );
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.maharong.smartpos.dto;
+
+import com.github.maharong.smartpos.repository.ProductRepository;
+
+/**
+ * 상품 가용 재고 응답 DTO(보유 재고 + 입고 예정 수량).
+ *
+ * @param productId 상품 ID
+ * @param productName 상품명
+ * @param availableStock 판매 가능 재고(낱개)
+ * @param inboundQuantity 진행 중인 발주(요청/주문)의 입고 예정 수량(낱개)
+ * @param dailyVelocity 최근 일평균 판매량(낱개)
+ * @param daysOfSupply (판매 가능 재고 + 입고 예정 수량)으로 버틸 수 있는 일수(판매가 없으면 null)
+ */
+public record ProductAvailabilityResponse(
+        Long productId,
+        String productName,
+        int availableStock,
+        long inboundQuantity,
+        double dailyVelocity,
+        Double daysOfSupply
+) {
+    public static ProductAvailabilityResponse from(ProductRepository.AvailabilityProjection row, int lookbackDays) {
+        double dailyVelocity = (double) row.getSoldQuantity() / lookbackDays;
+        Double daysOfSupply = (row.getSoldQuantity() > 0)
+                ? (row.getAvailableStock() + row.getInboundQuantity()) / dailyVelocity
+                : null;
+        return new ProductAvailabilityResponse(
+                row.getProductId(),
+                row.getProductName(),
+                row.getAvailableStock(),
+                row.getInboundQuantity(),
+                dailyVelocity,
+                daysOfSupply
+        );
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.maharong.smartpos.dto;
+
+import com.github.maharong.smartpos.entity.Product;
+import com.github.maharong.smartpos.enums.ProductStatus;
+
+/**
+ * 단말 카탈로그 동기화용 상품 응답 DTO.
+ *
+ * @param id 상품 ID
+ * @param name 상품명
+ * @param price 가격
+ * @param barcode 바코드
+ * @param unitsPerPackage 발주 단위당 낱개 개수
+ * @param status 상품 상태
+ * @param version 상품의 마지막 변경 버전
+ * @param tombstone 단종되어 단말 카탈로그에서 지워야 하는 상품인지 여부
+ */
+public record ProductChangeResponse(
+        Long id,
+        String name,
+        int price,
+        String barcode,
+        int unitsPerPackage,
+        ProductStatus status,
+        long version,
+        boolean tombstone
+) {
+    public static ProductChangeResponse from(Product product) {
+        return new ProductChangeResponse(
+                product.getId(),
+                product.getName(),
+                product.getPrice(),
+                product.getBarcode(),
+                product.getUnitsPerPackage(),
+                product.getStatus(),
+                product.getChangeVersion(),
+                product.getStatus() == ProductStatus.DISCONTINUED
+        );
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.maharong.smartpos.dto;
+
+import java.util.List;
+
+/**
+ * 카탈로그 변경분 응답 DTO.
+ *
+ * <p>다음 조회는 {@code nextSince}를 {@code since} 파라미터로 그대로 넘긴다.
+ * 변경이 없으면 {@code changes}가 비어 있고 {@code nextSince}는 요청한 값과 같다.</p>
+ *
+ * @param changes 변경된 상품 목록(변경 버전 오름차순, 단종 상품 포함)
+ * @param hasNext 이어서 받을 변경이 더 있는지 여부
+ * @param nextSince 다음 조회 기준 버전(받은 마지막 변경 버전)
+ */
+public record ProductChangesResponse(
+        List<ProductChangeResponse> changes,
+        boolean hasNext,
+        long nextSince
+) {
+}
@@ -0,0 +1,17 @@
+package com.github.maharong.smartpos.dto;
+
+import java.util.List;
+
+/**
+ * 카탈로그 전체 스냅샷 응답 DTO.
+ *
+ * <p>이후 변경분은 {@code version}을 {@code since} 파라미터로 넘겨 조회한다.</p>
+ *
+ * @param version 스냅샷에 반영된 마지막 변경 버전
+ * @param products 전체 상품 목록(상품 ID 오름차순)
+ */
+public record ProductSnapshotResponse(
+        long version,
+        List<ProductChangeResponse> products
+) {
+}
@@ -0,0 +1,24 @@
+package com.github.maharong.smartpos.dto;
+
+import com.github.maharong.smartpos.enums.PurchaseOrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 발주 상세 응답 DTO.
+ *
+ * @param purchaseOrderId 발주 ID
+ * @param orderedAt 발주 생성 시각
+ * @param status 발주 상태
+ * @param totalPrice 총 발주 금액(라인 합계)
+ * @param items 발주 라인 목록(라인 ID순)
+ */
+public record PurchaseOrderDetailResponse(
+        Long purchaseOrderId,
+        LocalDateTime orderedAt,
+        PurchaseOrderStatus status,
+        long totalPrice,
+        List<PurchaseOrderLineResponse> items
+) {
+}
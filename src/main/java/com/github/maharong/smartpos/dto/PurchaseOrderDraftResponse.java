@@ -0,0 +1,24 @@
+package com.github.maharong.smartpos.dto;
+
+import com.github.maharong.smartpos.enums.PurchaseOrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 발주 추천으로 만든 발주서 초안 응답 DTO.
+ *
+ * @param purchaseOrderId 발주 ID
+ * @param orderedAt 발주 생성 시각
+ * @param status 발주 상태(발주 요청)
+ * @param totalPrice 총 발주 금액
+ * @param items 발주 라인(추천 내역)
+ */
+public record PurchaseOrderDraftResponse(
+        long purchaseOrderId,
+        LocalDateTime orderedAt,
+        PurchaseOrderStatus status,
+        long totalPrice,
+        List<ReorderSuggestionResponse> items
+) {
+}
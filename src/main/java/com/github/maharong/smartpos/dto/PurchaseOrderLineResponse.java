@@ -0,0 +1,39 @@
+package com.github.maharong.smartpos.dto;
+
+import com.github.maharong.smartpos.entity.PurchaseOrderItem;
+
+/**
+ * 발주 라인 응답 DTO.
+ *
+ * @param purchaseOrderItemId 발주 라인 ID
+ * @param productId 상품 ID
+ * @param productName 상품명
+ * @param barcode 바코드
+ * @param unitsPerPackage 박스당 낱개 개수
+ * @param packageQuantity 발주 수량(박스)
+ * @param unitPrice 박스 단가
+ * @param lineTotal 라인 금액(박스 수량 × 박스 단가)
+ */
+public record PurchaseOrderLineResponse(
+        long purchaseOrderItemId,
+        Long productId,
+        String productName,
+        String barcode,
+        int unitsPerPackage,
+        int packageQuantity,
+        int unitPrice,
+        long lineTotal
+) {
+    public static PurchaseOrderLineResponse from(PurchaseOrderItem item) {
+        return new PurchaseOrderLineResponse(
+                item.getId(),
+                item.getProduct().getId(),
+                item.getProduct().getName(),
+                item.getProduct().getBarcode(),
+                item.getProduct().getUnitsPerPackage(),
+                item.getPackageQuantity(),
+                item.getUnitPrice(),
+                item.getLineTotal()
+        );
+    }
+}
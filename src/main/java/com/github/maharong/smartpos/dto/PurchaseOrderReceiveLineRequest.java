@@ -0,0 +1,17 @@
+package com.github.maharong.smartpos.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * 발주 입고 라인 요청 DTO.
+ *
+ * @param purchaseOrderItemId 발주 라인 ID
+ * @param expiryDate 입고 배치의 유통기한
+ */
+public record PurchaseOrderReceiveLineRequest(
+        @NotNull Long purchaseOrderItemId,
+        @NotNull LocalDate expiryDate
+) {
+}
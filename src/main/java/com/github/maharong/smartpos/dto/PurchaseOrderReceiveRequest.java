@@ -0,0 +1,19 @@
+package com.github.maharong.smartpos.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 발주 입고 요청 DTO.
+ *
+ * @param receivedDate 입고일(없으면 오늘)
+ * @param lines 발주 라인별 유통기한(발주의 모든 라인을 한 번씩)
+ */
+public record PurchaseOrderReceiveRequest(
+        LocalDate receivedDate,
+        @NotEmpty @Valid List<PurchaseOrderReceiveLineRequest> lines
+) {
+}
@@ -0,0 +1,24 @@
+package com.github.maharong.smartpos.dto;
+
+import com.github.maharong.smartpos.enums.PurchaseOrderStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 발주 입고 결과 응답 DTO.
+ *
+ * @param purchaseOrderId 발주 ID
+ * @param status 발주 상태(입고 완료)
+ * @param receivedDate 입고일
+ * @param totalQuantity 입고 수량 합계(낱개)
+ * @param batches 생성된 배치 목록(발주 라인 순)
+ */
+public record PurchaseOrderReceiveResponse(
+        long purchaseOrderId,
+        PurchaseOrderStatus status,
+        LocalDate receivedDate,
+        long totalQuantity,
+        List<InventoryBatchResponse> batches
+) {
+}
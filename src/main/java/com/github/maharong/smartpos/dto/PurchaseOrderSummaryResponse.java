@@ -0,0 +1,44 @@
+package com.github.maharong.smartpos.dto;
+
+import com.github.maharong.smartpos.enums.PurchaseOrderStatus;
+import com.github.maharong.smartpos.repository.PurchaseOrderItemRepository;
+import com.github.maharong.smartpos.repository.PurchaseOrderRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 발주 목록 응답 DTO.
+ *
+ * @param purchaseOrderId 발주 ID
+ * @param orderedAt 발주 생성 시각
+ * @param status 발주 상태
+ * @param lineCount 발주 라인 수
+ * @param totalPrice 총 발주 금액(라인 합계)
+ */
+public record PurchaseOrderSummaryResponse(
+        Long purchaseOrderId,
+        LocalDateTime orderedAt,
+        PurchaseOrderStatus status,
+        long lineCount,
+        long totalPrice
+) {
+    /**
+     * 발주 키와 라인 집계로 응답을 만든다.
+     *
+     * @param order 발주 키
+     * @param lines 발주의 라인 집계(라인이 없는 발주는 null)
+     * @return 발주 목록 응답 DTO
+     */
+    public static PurchaseOrderSummaryResponse of(
+            PurchaseOrderRepository.PurchaseOrderKeyProjection order,
+            PurchaseOrderItemRepository.PurchaseOrderLineTotalProjection lines
+    ) {
+        return new PurchaseOrderSummaryResponse(
+                order.getPurchaseOrderId(),
+                order.getOrderedAt(),
+                order.getStatus(),
+                lines == null ? 0 : lines.getLineCount(),
+                lines == null ? 0 : lines.getTotalPrice()
+        );
+    }
+}
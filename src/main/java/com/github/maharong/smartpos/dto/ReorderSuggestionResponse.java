@@ -0,0 +1,25 @@
+package com.github.maharong.smartpos.dto;
+
+/**
+ * 판매 속도 기반 발주 추천 라인 응답 DTO.
+ *
+ * @param productId 상품 ID
+ * @param productName 상품명
+ * @param availableStock 현재 판매 가능 재고(낱개)
+ * @param inboundQuantity 진행 중인 발주의 입고 예정 수량(낱개)
+ * @param dailyVelocity 최근 일평균 판매량(낱개)
+ * @param targetStock 입고 소요 일수와 목표 재고 일수 동안 필요한 재고(낱개)
+ * @param packageQuantity 추천 발주 수량(박스)
+ * @param unitPrice 박스 단가
+ */
+public record ReorderSuggestionResponse(
+        Long productId,
+        String productName,
+        int availableStock,
+        long inboundQuantity,
+        double dailyVelocity,
+        long targetStock,
+        int packageQuantity,
+        int unitPrice
+) {
+}
@@ -0,0 +1,28 @@
+package com.github.maharong.smartpos.dto;
+
+import com.github.maharong.smartpos.enums.SaleBatchResultStatus;
+
+/**
+ * 일괄 판매 등록의 영수증별 결과 DTO.
+ *
+ * @param status 처리 결과
+ * @param saleId 저장된(또는 이미 저장되어 있던) 판매 ID, 실패 시 null
+ * @param message 실패 사유, 성공 시 null
+ */
+public record SaleBatchResultResponse(
+        SaleBatchResultStatus status,
+        Long saleId,
+        String message
+) {
+    public static SaleBatchResultResponse created(Long saleId) {
+        return new SaleBatchResultResponse(SaleBatchResultStatus.CREATED, saleId, null);
+    }
+
+    public static SaleBatchResultResponse duplicate(Long saleId) {
+        return new SaleBatchResultResponse(SaleBatchResultStatus.DUPLICATE, saleId, null);
+    }
+
+    public static SaleBatchResultResponse failed(String message) {
+        return new SaleBatchResultResponse(SaleBatchResultStatus.FAILED, null, message);
+    }
+}
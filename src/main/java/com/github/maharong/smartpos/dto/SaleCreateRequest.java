@@ -2,6 +2,7 @@ package com.github.maharong.smartpos.dto;
 
 import com.github.maharong.smartpos.enums.PaymentMethod;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -12,12 +13,16 @@ import java.util.List;
  * @param cardAmount 카드 결제 금액
  * @param pointAmount 포인트 사용 금액
  * @param lines 판매 라인 목록
+ * @param soldAt 원래 판매 시각(선택, 일괄 등록에서만 사용하며 없으면 등록 시각)
+ * @param idempotencyKey 멱등 키(선택, 일괄 등록에서만 사용하며 단건 등록은 {@code Idempotency-Key} 헤더 사용)
  */
 public record SaleCreateRequest(
         PaymentMethod paymentMethod,
         long cashAmount,
         long cardAmount,
         long pointAmount,
-        List<SaleCreateLineRequest> lines
+        List<SaleCreateLineRequest> lines,
+        LocalDateTime soldAt,
+        String idempotencyKey
 ) {
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.github.maharong.smartpos.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 판매 이력 페이지 응답 DTO.
+ *
+ * <p>다음 페이지는 {@code nextCursorSoldAt}, {@code nextCursorId}를 커서 파라미터로 그대로 넘겨 조회한다.</p>
+ *
+ * @param sales 판매 이력 목록(최신순)
+ * @param hasNext 다음 페이지 존재 여부
+ * @param nextCursorSoldAt 다음 페이지 커서(마지막 행의 판매 시각), 다음 페이지가 없으면 null
+ * @param nextCursorId 다음 페이지 커서(마지막 행의 판매 ID), 다음 페이지가 없으면 null
+ */
+public record SalePageResponse(
+        List<SaleSummaryResponse> sales,
+        boolean hasNext,
+        LocalDateTime nextCursorSoldAt,
+        Long nextCursorId
+) {
+}
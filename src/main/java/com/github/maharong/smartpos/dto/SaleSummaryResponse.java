@@ -0,0 +1,42 @@
+package com.github.maharong.smartpos.dto;
+
+import com.github.maharong.smartpos.enums.PaymentMethod;
+import com.github.maharong.smartpos.repository.SaleRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 판매 이력(목록) 응답 DTO.
+ *
+ * @param saleId 판매 ID
+ * @param soldAt 판매 시각
+ * @param status 판매 상태
+ * @param paymentMethod 결제 수단
+ * @param totalPrice 총액
+ * @param cashAmount 현금 결제 금액
+ * @param cardAmount 카드 결제 금액
+ * @param pointAmount 포인트 사용 금액
+ */
+public record SaleSummaryResponse(
+        Long saleId,
+        LocalDateTime soldAt,
+        String status,
+        PaymentMethod paymentMethod,
+        long totalPrice,
+        long cashAmount,
+        long cardAmount,
+        long pointAmount
+) {
+    public static SaleSummaryResponse from(SaleRepository.SaleSummaryProjection row) {
+        return new SaleSummaryResponse(
+                row.getSaleId(),
+                row.getSoldAt(),
+                row.getStatus().name(),
+                row.getPaymentMethod(),
+                row.getTotalPrice(),
+                row.getCashAmount(),
+                row.getCardAmount(),
+                row.getPointAmount()
+        );
+    }
+}
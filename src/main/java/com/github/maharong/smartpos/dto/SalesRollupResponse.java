@@ -0,0 +1,29 @@
+package com.github.maharong.smartpos.dto;
+
+import com.github.maharong.smartpos.repository.ProductHourlySalesRepository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 상품의 구간별(시간대/일) 판매 집계 응답 DTO.
+ *
+ * @param periodStart 구간 시작 시각(일별 집계는 해당 일 0시)
+ * @param quantity 판매 수량 합계
+ * @param revenue 판매 금액 합계
+ * @param receiptCount 상품이 포함된 영수증 수
+ */
+public record SalesRollupResponse(
+        LocalDateTime periodStart,
+        long quantity,
+        long revenue,
+        long receiptCount
+) {
+    public static SalesRollupResponse from(ProductHourlySalesRepository.HourlySalesProjection row) {
+        return new SalesRollupResponse(row.getSalesHour(), row.getQuantity(), row.getRevenue(), row.getReceiptCount());
+    }
+
+    public static SalesRollupResponse from(ProductHourlySalesRepository.DailySalesProjection row) {
+        return new SalesRollupResponse(
+                row.getSalesDate().atStartOfDay(), row.getQuantity(), row.getRevenue(), row.getReceiptCount());
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.maharong.smartpos.dto;
+
+/**
+ * 판매 가능 재고 수량 불일치(보정) 응답 DTO.
+ *
+ * @param productId 상품 ID
+ * @param recordedStock 상품에 기록되어 있던 판매 가능 재고 수량
+ * @param actualStock 배치 합계로 다시 계산한 판매 가능 재고 수량
+ */
+public record StockDriftResponse(
+        Long productId,
+        int recordedStock,
+        long actualStock
+) {
+}
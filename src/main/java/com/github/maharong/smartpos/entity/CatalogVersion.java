@@ -0,0 +1,37 @@
+package com.github.maharong.smartpos.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 상품 카탈로그의 마지막 변경 버전을 기록하는 엔티티.
+ * <p>
+ * 상품이 변경될 때마다 같은 트랜잭션에서 {@link #currentVersion}을 1 올리고 그 값을
+ * 상품의 변경 버전({@link Product#getChangeVersion()})으로 기록한다. 이 행의 락이 커밋까지 유지되므로
+ * 상품 변경 트랜잭션은 한 번에 하나씩 커밋되고, 변경 버전은 커밋 순서대로 증가한다.
+ * 따라서 단말이 받은 마지막 버전 이후만 조회해도 변경이 누락되지 않는다.
+ * </p>
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+public class CatalogVersion {
+
+    /**
+     * 카탈로그 버전은 한 행만 사용한다.
+     */
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    /**
+     * 마지막으로 발급한 변경 버전.
+     */
+    @Column(nullable = false)
+    private long currentVersion;
+}
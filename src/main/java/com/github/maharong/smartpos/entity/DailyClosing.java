@@ -0,0 +1,86 @@
+package com.github.maharong.smartpos.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 영업일 마감(Z 리포트) 집계 엔티티.
+ * <p>
+ * 판매는 판매 시각의 일자, 환불은 환불 처리 시각의 일자에 결제 수단별 금액으로 누적한다.
+ * 누적은 {@code DailyClosingCounters}가 메모리에 모은 증분을 주기적으로 upsert 해서 반영한다.
+ * </p>
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+public class DailyClosing {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, updatable = false)
+    private LocalDate businessDate; // 영업일
+
+    @Column(nullable = false)
+    private long saleCount; // 판매 영수증 수
+
+    @Column(nullable = false)
+    private long saleCashAmount; // 판매 현금 금액
+
+    @Column(nullable = false)
+    private long saleCardAmount; // 판매 카드 금액
+
+    @Column(nullable = false)
+    private long salePointAmount; // 판매 포인트 금액
+
+    @Column(nullable = false)
+    private long refundCount; // 환불 영수증 수
+
+    @Column(nullable = false)
+    private long refundCashAmount; // 환불 현금 금액
+
+    @Column(nullable = false)
+    private long refundCardAmount; // 환불 카드 금액
+
+    @Column(nullable = false)
+    private long refundPointAmount; // 환불 포인트 금액
+
+    private LocalDateTime closedAt; // 마감 처리 시각(마감 전이면 null)
+
+    public DailyClosing(LocalDate businessDate) {
+        this.businessDate = businessDate;
+    }
+
+    /**
+     * 마감 처리한다. 이미 마감된 경우 처음 마감 시각을 유지한다.
+     *
+     * @param closedAt 마감 처리 시각
+     */
+    public void close(LocalDateTime closedAt) {
+        if (this.closedAt == null) {
+            this.closedAt = closedAt;
+        }
+    }
+
+    /**
+     * 누적 값을 원본 판매에서 다시 계산한 값으로 덮어쓴다.
+     */
+    public void overwrite(
+            long saleCount, long saleCashAmount, long saleCardAmount, long salePointAmount,
+            long refundCount, long refundCashAmount, long refundCardAmount, long refundPointAmount) {
+        this.saleCount = saleCount;
+        this.saleCashAmount = saleCashAmount;
+        this.saleCardAmount = saleCardAmount;
+        this.salePointAmount = salePointAmount;
+        this.refundCount = refundCount;
+        this.refundCashAmount = refundCashAmount;
+        this.refundCardAmount = refundCardAmount;
+        this.refundPointAmount = refundPointAmount;
+    }
+}
@@ -5,6 +5,7 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -19,10 +20,23 @@ import java.time.LocalDateTime;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
+@Table(indexes = {
+        // 상품별 FEFO 조회(product_id = ? order by expiry_date)
+        @Index(name = "idx_inventory_batch_product_expiry", columnList = "product_id, expiry_date"),
+        // 유통기한 기준 폐기/점검 대상 조회(expiry_date <= ? and quantity > 0)
+        @Index(name = "idx_inventory_batch_expiry_quantity", columnList = "expiry_date, quantity"),
+        // 만료 폐기 대상 상품 키셋 조회(expiry_date = ? and product_id > ? order by product_id)
+        @Index(name = "idx_inventory_batch_expiry_product", columnList = "expiry_date, product_id"),
+        // 유통기한 임박 배치 키셋 페이지 조회(order by expiry_date, id)
+        @Index(name = "idx_inventory_batch_expiry_id", columnList = "expiry_date, id"),
+        // 오래 미점검 배치 조회
+        @Index(name = "idx_inventory_batch_last_checked", columnList = "last_checked_at")
+})
 public class InventoryBatch {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventoryBatchIdGenerator")
+    @SequenceGenerator(name = "inventoryBatchIdGenerator", sequenceName = "inventory_batch_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -62,6 +76,17 @@ public class InventoryBatch {
     @Column
     private LocalDateTime lastCheckedAt;
 
+    /**
+     * 낙관적 락 버전.
+     * <p>
+     * 여러 단말이 같은 배치를 동시에 차감할 때 갱신 유실(lost update)을 막기 위해 사용한다.
+     * </p>
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     /**
      * 배치를 생성한다.
      *
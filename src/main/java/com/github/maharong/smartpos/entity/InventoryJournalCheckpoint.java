@@ -0,0 +1,36 @@
+package com.github.maharong.smartpos.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 인메모리 재고 엔진의 저널 반영 위치를 기록하는 엔티티.
+ * <p>
+ * 저널의 차감 묶음은 커밋 순서대로 일련번호를 받으며, DB에 반영된 마지막 일련번호를
+ * 배치 수량 갱신과 같은 트랜잭션에서 {@link #lastSeq}에 기록한다.
+ * 재시작 시 이 값보다 큰 일련번호만 다시 반영하므로 같은 차감이 두 번 적용되지 않는다.
+ * </p>
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+public class InventoryJournalCheckpoint {
+
+    /**
+     * 체크포인트는 한 행만 사용한다.
+     */
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    /**
+     * DB에 반영이 끝난 마지막 저널 일련번호.
+     */
+    @Column(nullable = false)
+    private long lastSeq;
+}
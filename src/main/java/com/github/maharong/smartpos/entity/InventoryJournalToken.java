@@ -0,0 +1,28 @@
+package com.github.maharong.smartpos.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 인메모리 재고 엔진의 저널 토큰 중 DB에 커밋되었으나 아직 반영되지 않은 토큰을 기록하는 엔티티.
+ * <p>
+ * 판매 트랜잭션이 커밋 직전 저널에 차감 묶음을 기록하면서, 같은 트랜잭션에서 이 테이블에 토큰을 넣는다.
+ * 차감 묶음을 DB 배치 수량에 반영하는 트랜잭션에서 토큰을 지우므로, 남아있는 토큰은
+ * "판매는 커밋되었지만 차감은 아직 반영되지 않은" 묶음을 뜻한다.
+ * 재시작 시 커밋/취소 기록이 없는 묶음은 이 테이블에 토큰이 있을 때만 다시 반영한다.
+ * </p>
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+public class InventoryJournalToken {
+
+    /**
+     * 저널 토큰.
+     */
+    @Id
+    private Long token;
+}
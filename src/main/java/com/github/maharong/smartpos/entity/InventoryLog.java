@@ -25,10 +25,17 @@ import java.time.LocalDateTime;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
+@Table(indexes = {
+        // 상품별 로그 조회(최신순)
+        @Index(name = "idx_inventory_log_product_occurred", columnList = "product_id, occurred_at"),
+        // 상품 + 사유별 로그 조회(최신순)
+        @Index(name = "idx_inventory_log_product_type_occurred", columnList = "product_id, type, occurred_at")
+})
 public class InventoryLog {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventoryLogIdGenerator")
+    @SequenceGenerator(name = "inventoryLogIdGenerator", sequenceName = "inventory_log_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -105,4 +112,14 @@ public class InventoryLog {
         this.note = note;
         this.occurredAt = occurredAt;
     }
+
+    /**
+     * 발생 시각이 지정되지 않았다면 저장 시점의 시각으로 채운다.
+     */
+    @PrePersist
+    void fillOccurredAt() {
+        if (this.occurredAt == null) {
+            this.occurredAt = LocalDateTime.now();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.github.maharong.smartpos.entity;
+
+import com.github.maharong.smartpos.enums.PaymentMethod;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 일자별·결제 수단별 판매 집계(롤업) 엔티티.
+ * <p>
+ * 판매/환불 트랜잭션에서 증분(+/-)으로 갱신되며, 환불된 판매는 빠진 순매출 기준이다.
+ * 행 생성/갱신은 {@code SalesRollupRecorder}의 upsert로만 한다.
+ * </p>
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "uk_payment_daily_sales", columnNames = {"sales_date", "payment_method"}))
+public class PaymentDailySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDate salesDate; // 집계 일자
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 20)
+    private PaymentMethod paymentMethod; // 결제 수단
+
+    @Column(nullable = false)
+    private long quantity; // 판매 수량 합계
+
+    @Column(nullable = false)
+    private long revenue; // 판매 금액 합계
+
+    @Column(nullable = false)
+    private long receiptCount; // 영수증 수
+}
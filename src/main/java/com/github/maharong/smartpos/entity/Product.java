@@ -6,6 +6,7 @@ import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * 상품 정보를 담는 엔티티.
@@ -17,6 +18,10 @@ import lombok.NoArgsConstructor;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
+@Table(indexes = {
+        // 단말 카탈로그 변경분 조회(change_version > ? order by change_version)
+        @Index(name = "idx_product_change_version", columnList = "change_version")
+})
 public class Product {
 
     @Id
@@ -54,6 +59,29 @@ public class Product {
     @Column(nullable = false)
     private ProductStatus status = ProductStatus.ACTIVE;
 
+    /**
+     * 판매 가능 재고 수량(수량이 남아있고 만료되지 않은 배치 수량의 합).
+     * <p>
+     * 재고 요약 조회를 배치 합산 없이 처리하기 위해 유지하는 비정규화 값이다.
+     * 입고/출고/폐기 시 같은 트랜잭션에서 원자적 UPDATE 문으로만 갱신하며,
+     * 엔티티 변경 감지로 덮어쓰지 않도록 {@code updatable = false}로 둔다.
+     * </p>
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private int availableStock;
+
+    /**
+     * 마지막 변경 버전({@link CatalogVersion}에서 발급, 커밋 순서대로 증가).
+     * <p>
+     * 단말은 받은 마지막 버전 이후로 바뀐 상품만 조회해 카탈로그를 맞춘다.
+     * 버전 도입 전부터 있던 상품은 0이다.
+     * </p>
+     */
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long changeVersion;
+
     /**
      * 상품을 생성한다.
      * <p>
@@ -116,4 +144,13 @@ public class Product {
     public void pause() {
         this.status = ProductStatus.PAUSED;
     }
+
+    /**
+     * 상품이 변경되었음을 기록한다.
+     *
+     * @param changeVersion 발급받은 변경 버전
+     */
+    public void markChanged(long changeVersion) {
+        this.changeVersion = changeVersion;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.github.maharong.smartpos.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 상품별·일자별 판매 집계(롤업) 엔티티.
+ * <p>
+ * 판매/환불 트랜잭션에서 증분(+/-)으로 갱신되며, 환불된 판매는 빠진 순매출 기준이다.
+ * 상품별 기간 판매량(발주 추천의 판매 속도, 수요 예측 계열 등)을 시간대 행 없이 일 단위로 읽기 위해 둔다.
+ * 행 생성/갱신은 {@code SalesRollupRecorder}의 upsert로만 한다.
+ * </p>
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_product_daily_sales", columnNames = {"product_id", "sales_date"}),
+        indexes = {
+                // 기간 전체 상품 조회(sales_date between ? and ?, 수요 예측 계열 적재)
+                @Index(name = "idx_product_daily_sales_date", columnList = "sales_date, product_id")
+        })
+public class ProductDailySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false, updatable = false)
+    private Product product;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDate salesDate; // 집계 일자
+
+    @Column(nullable = false)
+    private long quantity; // 판매 수량 합계
+
+    @Column(nullable = false)
+    private long revenue; // 판매 금액 합계
+
+    @Column(nullable = false)
+    private long receiptCount; // 상품이 포함된 영수증 수
+}
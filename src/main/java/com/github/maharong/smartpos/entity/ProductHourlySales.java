@@ -0,0 +1,47 @@
+package com.github.maharong.smartpos.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 상품별·시간대별 판매 집계(롤업) 엔티티.
+ * <p>
+ * 판매/환불 트랜잭션에서 증분(+/-)으로 갱신되며, 환불된 판매는 빠진 순매출 기준이다.
+ * 행 생성/갱신은 {@code SalesRollupRecorder}의 upsert로만 한다.
+ * </p>
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(
+        name = "uk_product_hourly_sales", columnNames = {"product_id", "sales_hour"}))
+public class ProductHourlySales {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false, updatable = false)
+    private Product product;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime salesHour; // 집계 시간대(정시로 절삭한 판매 시각)
+
+    @Column(nullable = false, updatable = false)
+    private LocalDate salesDate; // 집계 일자(일별 합산용)
+
+    @Column(nullable = false)
+    private long quantity; // 판매 수량 합계
+
+    @Column(nullable = false)
+    private long revenue; // 판매 금액 합계
+
+    @Column(nullable = false)
+    private long receiptCount; // 상품이 포함된 영수증 수
+}
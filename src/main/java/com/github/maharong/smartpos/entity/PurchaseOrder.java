@@ -13,6 +13,10 @@ import java.time.LocalDateTime;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
+@Table(indexes = {
+        // 발주 목록 키셋 페이지 조회(order by ordered_at desc, id desc)
+        @Index(name = "idx_purchase_order_ordered_at_id", columnList = "ordered_at, id")
+})
 public class PurchaseOrder {
 
     @Id
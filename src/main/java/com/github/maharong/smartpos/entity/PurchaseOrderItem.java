@@ -14,7 +14,8 @@ import lombok.*;
 public class PurchaseOrderItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "purchaseOrderItemIdGenerator")
+    @SequenceGenerator(name = "purchaseOrderItemIdGenerator", sequenceName = "purchase_order_item_seq", allocationSize = 50)
     private long id; // 발주 라인 고유 ID
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -14,10 +14,15 @@ import java.time.LocalDateTime;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_sale_sold_at", columnList = "sold_at, id"),
+        @Index(name = "idx_sale_refunded_at", columnList = "refunded_at")
+})
 public class Sale {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saleIdGenerator")
+    @SequenceGenerator(name = "saleIdGenerator", sequenceName = "sale_seq", allocationSize = 50)
     private Long id; // 판매 고유 ID (영수증 번호 느낌)
 
     @Column(nullable = false)
@@ -43,6 +48,8 @@ public class Sale {
     @Column(nullable = false)
     private long pointAmount; // 포인트 사용 금액
 
+    private LocalDateTime refundedAt; // 환불 처리 시각(환불된 경우)
+
     @Builder
     public Sale(LocalDateTime soldAt, long totalPrice, PaymentMethod paymentMethod, SaleStatus status) {
         this.soldAt = soldAt;
@@ -58,6 +65,16 @@ public class Sale {
         this.status = newStatus;
     }
 
+    /**
+     * 판매를 환불 상태로 바꾸고 환불 시각을 기록한다.
+     *
+     * @param refundedAt 환불 처리 시각
+     */
+    public void refund(LocalDateTime refundedAt) {
+        this.status = SaleStatus.REFUNDED;
+        this.refundedAt = refundedAt;
+    }
+
     /**
      * 총 결제 금액을 변경한다.
      *
@@ -0,0 +1,65 @@
+package com.github.maharong.smartpos.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 판매 생성 요청의 멱등 키(Idempotency-Key)와 생성된 판매를 연결하는 엔티티.
+ * <p>
+ * 단말이 응답을 받지 못해 같은 키로 판매 생성을 다시 요청하면, 새 판매를 만들지 않고
+ * 이 기록의 판매를 그대로 응답한다. 판매와 같은 트랜잭션에서 저장하며,
+ * 키의 유니크 제약으로 다른 노드의 동시 재시도도 한 건만 커밋되게 한다.
+ * </p>
+ *
+ * <p>요청 내용의 지문({@link #requestHash})을 함께 저장하여, 같은 키로 내용이 다른 요청이 오면
+ * 처음 영수증을 돌려주지 않고 거절한다.</p>
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(indexes = @Index(name = "idx_sale_idempotency_key_created", columnList = "created_at"))
+public class SaleIdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saleIdempotencyKeyIdGenerator")
+    @SequenceGenerator(name = "saleIdempotencyKeyIdGenerator", sequenceName = "sale_idempotency_key_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * 단말이 보낸 멱등 키.
+     */
+    @Column(nullable = false, unique = true, length = 100, updatable = false)
+    private String idempotencyKey;
+
+    /**
+     * 이 키로 생성된 판매 ID.
+     */
+    @Column(nullable = false, updatable = false)
+    private Long saleId;
+
+    /**
+     * 요청 내용(결제 수단/금액, 판매 라인)의 SHA-256 지문(16진수).
+     * 지문 도입 전에 기록된 키는 비어있으며, 이 경우 내용을 비교하지 않는다.
+     */
+    @Column(length = 64, updatable = false)
+    private String requestHash;
+
+    /**
+     * 키 기록 시각.
+     */
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Builder
+    public SaleIdempotencyKey(String idempotencyKey, Long saleId, String requestHash, LocalDateTime createdAt) {
+        this.idempotencyKey = idempotencyKey;
+        this.saleId = saleId;
+        this.requestHash = requestHash;
+        this.createdAt = createdAt;
+    }
+}
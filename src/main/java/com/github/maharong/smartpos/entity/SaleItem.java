@@ -10,10 +10,12 @@ import lombok.*;
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
+@Table(indexes = @Index(name = "idx_sale_item_sale", columnList = "sale_id"))
 public class SaleItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saleItemIdGenerator")
+    @SequenceGenerator(name = "saleItemIdGenerator", sequenceName = "sale_item_seq", allocationSize = 50)
     private Long id; // 판매 라인 고유 ID
 
     /**
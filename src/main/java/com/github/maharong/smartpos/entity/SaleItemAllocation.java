@@ -0,0 +1,47 @@
+package com.github.maharong.smartpos.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 판매 라인이 차감한 재고 배치와 수량(FEFO 할당 내역)을 나타내는 엔티티.
+ * <p>
+ * 판매 라인 1개가 여러 배치에 걸쳐 차감되면 배치마다 1행씩 남는다.
+ * 환불 시 정확히 같은 배치로 재입고하거나, 특정 배치(로트)를 판매한 영수증을 찾는 데 쓴다.
+ * </p>
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_sale_item_allocation_item", columnList = "sale_item_id"),
+        @Index(name = "idx_sale_item_allocation_batch", columnList = "batch_id")
+})
+public class SaleItemAllocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "saleItemAllocationIdGenerator")
+    @SequenceGenerator(name = "saleItemAllocationIdGenerator", sequenceName = "sale_item_allocation_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sale_item_id", nullable = false, updatable = false)
+    private SaleItem saleItem; // 판매 라인
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "batch_id", nullable = false, updatable = false)
+    private InventoryBatch batch; // 차감된 배치
+
+    @Column(nullable = false, updatable = false)
+    private int quantity; // 이 배치에서 차감한 수량
+
+    @Builder
+    public SaleItemAllocation(SaleItem saleItem, InventoryBatch batch, int quantity) {
+        this.saleItem = saleItem;
+        this.batch = batch;
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.maharong.smartpos.enums;
+
+public enum SaleBatchResultStatus {
+    CREATED,   // 새로 저장됨
+    DUPLICATE, // 같은 멱등 키로 이미 저장된 판매가 있음
+    FAILED     // 저장하지 못함(재고 부족, 요청 오류 등)
+}
@@ -0,0 +1,6 @@
+package com.github.maharong.smartpos.enums;
+
+public enum SaleExportFormat {
+    CSV,   // 쉼표 구분 텍스트(헤더 포함)
+    NDJSON // 한 줄에 JSON 객체 하나
+}
@@ -0,0 +1,6 @@
+package com.github.maharong.smartpos.enums;
+
+public enum SalesRollupGranularity {
+    HOURLY, // 시간대별
+    DAILY   // 일별
+}
@@ -0,0 +1,16 @@
+package com.github.maharong.smartpos.event;
+
+import com.github.maharong.smartpos.dto.ProductResponse;
+
+/**
+ * 상품이 등록/수정/상태 변경되었음을 알리는 이벤트.
+ * <p>
+ * 상품 정보를 메모리에 들고 있는 구성요소(재고 엔진 등)가 커밋 이후 자신의 사본을 갱신할 수 있도록,
+ * 변경 시점의 상품 스냅샷을 함께 전달한다.
+ * </p>
+ *
+ * @param product 변경 이후의 상품 스냅샷
+ * @param changeVersion 이 변경에 발급된 카탈로그 변경 버전
+ */
+public record ProductChangedEvent(ProductResponse product, long changeVersion) {
+}
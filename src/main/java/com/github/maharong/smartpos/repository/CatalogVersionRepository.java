@@ -0,0 +1,46 @@
+package com.github.maharong.smartpos.repository;
+
+import com.github.maharong.smartpos.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
+
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Long> {
+
+    /**
+     * 카탈로그 버전을 1 올린다(행이 없으면 1로 만든다).
+     * <p>
+     * 갱신한 행은 트랜잭션이 끝날 때까지 잠겨 다른 상품 변경 트랜잭션이 기다린다.
+     * </p>
+     *
+     * @return 갱신된 행 수
+     */
+    @Modifying
+    @Query(value = """
+            insert into catalog_version (id, current_version)
+            values (1, 1)
+            on duplicate key update current_version = current_version + 1
+            """, nativeQuery = true)
+    int increment();
+
+    /**
+     * 현재 카탈로그 버전을 조회한다.
+     *
+     * @return 마지막으로 발급한 변경 버전
+     */
+    @Query("select v.currentVersion from CatalogVersion v where v.id = 1")
+    long findCurrentVersion();
+
+    /**
+     * 커밋된 카탈로그 버전을 조회한다(잠금 없이 기본 키로 한 행 조회).
+     * <p>
+     * 어느 노드에서 변경했든 커밋된 마지막 버전을 돌려주므로, 노드별 캐시가 최신인지 확인할 때 사용한다.
+     * </p>
+     *
+     * @return 마지막으로 커밋된 변경 버전(상품 변경이 한 번도 없었으면 빈 값)
+     */
+    @Query("select v.currentVersion from CatalogVersion v where v.id = 1")
+    Optional<Long> findCommittedVersion();
+}
@@ -0,0 +1,34 @@
+package com.github.maharong.smartpos.repository;
+
+import com.github.maharong.smartpos.entity.DailyClosing;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface DailyClosingRepository extends JpaRepository<DailyClosing, Long> {
+
+    Optional<DailyClosing> findByBusinessDate(LocalDate businessDate);
+
+    /**
+     * 영업일 행의 마감 시각만 기록한다(이미 마감된 경우 처음 마감 시각 유지).
+     * <p>
+     * 누적 컬럼은 건드리지 않으므로, 다른 노드가 같은 시점에 커밋하는 증분 반영이 덮어써지지 않는다.
+     * </p>
+     *
+     * @param businessDate 영업일
+     * @param closedAt 마감 처리 시각
+     * @return 갱신된 행 수(영업일 행이 없으면 0)
+     */
+    @Modifying
+    @Query("""
+        update DailyClosing c
+        set c.closedAt = coalesce(c.closedAt, :closedAt)
+        where c.businessDate = :businessDate
+        """)
+    int closeBusinessDate(@Param("businessDate") LocalDate businessDate, @Param("closedAt") LocalDateTime closedAt);
+}
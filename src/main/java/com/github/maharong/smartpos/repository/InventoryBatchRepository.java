@@ -3,23 +3,340 @@ package com.github.maharong.smartpos.repository;
 import com.github.maharong.smartpos.entity.InventoryBatch;
 import com.github.maharong.smartpos.entity.Product;
 import com.github.maharong.smartpos.enums.ProductStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public interface InventoryBatchRepository extends JpaRepository<InventoryBatch, Long> {
     // FEFO(유통기한 빠른 순) 출고를 위한 배치 조회
     List<InventoryBatch> findByProductOrderByExpiryDateAsc(Product product);
 
-    // 유통기한 임박 배치 조회 (<= date)
-    List<InventoryBatch> findByExpiryDateLessThanEqual(LocalDate date);
+    /**
+     * 유통기한 임박 배치 조회용 프로젝션.
+     */
+    interface ExpiringBatchProjection {
+        Long getBatchId();
+
+        Long getProductId();
+
+        String getProductName();
+
+        int getQuantity();
+
+        LocalDate getExpiryDate();
+    }
+
+    /**
+     * 수량이 남은 유통기한 임박/만료 배치를 상품명과 함께 유통기한 → 배치 ID 순으로 조회한다.
+     *
+     * <p>상품은 조인으로 함께 읽어 배치마다 상품을 지연 로딩하지 않는다.
+     * 직전 페이지 마지막 행의 {@code (expiryDate, id)}를 커서로 받는 키셋 방식이며,
+     * 하한/커서 값이 null이면 해당 조건을 적용하지 않는다.</p>
+     *
+     * @param from 유통기한 하한(포함)
+     * @param to 유통기한 상한(포함)
+     * @param cursorExpiryDate 직전 페이지 마지막 행의 유통기한
+     * @param cursorId 직전 페이지 마지막 행의 배치 ID
+     * @param limit 최대 조회 행 수
+     * @return 유통기한 임박 배치 목록
+     */
+    @Query("""
+        select b.id as batchId,
+               p.id as productId,
+               p.name as productName,
+               b.quantity as quantity,
+               b.expiryDate as expiryDate
+        from InventoryBatch b
+        join b.product p
+        where b.quantity > 0
+          and b.expiryDate <= :to
+          and (:from is null or b.expiryDate >= :from)
+          and (:cursorExpiryDate is null
+               or b.expiryDate > :cursorExpiryDate
+               or (b.expiryDate = :cursorExpiryDate and b.id > :cursorId))
+        order by b.expiryDate asc, b.id asc
+        """)
+    List<ExpiringBatchProjection> findExpiringBatches(
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            @Param("cursorExpiryDate") LocalDate cursorExpiryDate,
+            @Param("cursorId") Long cursorId,
+            Limit limit
+    );
+
+    /**
+     * 여러 상품의 판매 가능 배치를 한 번에 조회한다.
+     *
+     * <p>수량이 남아있고({@code quantity > 0}) 기준일에 만료되지 않은({@code expiryDate >= baseDate})
+     * 배치만 반환하며, 상품 ID → 유통기한 → 배치 ID 순으로 정렬하여 상품별 FEFO 순회를 한 번에 할 수 있게 한다.</p>
+     *
+     * @param productIds 조회할 상품 ID 목록
+     * @param baseDate 만료 여부 판단 기준일
+     * @return 상품별 FEFO 순서로 정렬된 판매 가능 배치 목록
+     */
+    @Query("""
+        select b
+        from InventoryBatch b
+        where b.product.id in :productIds
+          and b.quantity > 0
+          and b.expiryDate >= :baseDate
+        order by b.product.id asc, b.expiryDate asc, b.id asc
+        """)
+    List<InventoryBatch> findSellableBatches(
+            @Param("productIds") Collection<Long> productIds,
+            @Param("baseDate") LocalDate baseDate
+    );
 
-    // 유통기한이 기준일보다 "이전"(expired) 이고, 수량이 남아있는 배치
-    List<InventoryBatch> findByExpiryDateBeforeAndQuantityGreaterThan(LocalDate baseDate, int quantity);
+    /**
+     * 여러 상품의 판매 가능 배치를 비관적 락으로 조회한다.
+     *
+     * <p>{@link #findSellableBatches(Collection, LocalDate)}와 조건/정렬이 같지만
+     * {@code SELECT ... FOR UPDATE}로 조회하여, 다른 트랜잭션이 잠근 배치는 최대 3초까지 기다린다.
+     * 잠긴 배치를 건너뛰면 FEFO 순서가 깨지고 실제 재고가 있는데도 재고 부족으로 판정될 수 있으므로 건너뛰지 않는다.
+     * 같은 노드의 같은 상품 차감은 상품 락 스트라이프가 이미 직렬화하므로, 대기는 다른 노드와 겹칠 때만 생긴다.
+     * 동시 판매가 몰리는 인기 상품에 사용한다.</p>
+     *
+     * @param productIds 조회할 상품 ID 목록
+     * @param baseDate 만료 여부 판단 기준일
+     * @return 상품별 FEFO 순서로 정렬된 판매 가능 배치 목록
+     * @throws org.springframework.dao.PessimisticLockingFailureException 대기 시간 안에 락을 얻지 못한 경우
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000"))
+    @Query("""
+        select b
+        from InventoryBatch b
+        where b.product.id in :productIds
+          and b.quantity > 0
+          and b.expiryDate >= :baseDate
+        order by b.product.id asc, b.expiryDate asc, b.id asc
+        """)
+    List<InventoryBatch> findSellableBatchesForUpdate(
+            @Param("productIds") Collection<Long> productIds,
+            @Param("baseDate") LocalDate baseDate
+    );
+
+    /**
+     * 배치 수량 적재용 프로젝션.
+     */
+    interface BatchStockProjection {
+        Long getBatchId();
+
+        Long getProductId();
+
+        LocalDate getExpiryDate();
+
+        int getQuantity();
+    }
+
+    /**
+     * 수량이 남아있는 모든 배치의 수량 정보를 조회한다.
+     *
+     * <p>엔티티를 영속성 컨텍스트에 올리지 않고, 인메모리 재고 엔진 적재에 필요한 값만 가져온다.</p>
+     *
+     * @return 수량이 남아있는 배치 목록
+     */
+    @Query("""
+        select
+            b.id as batchId,
+            b.product.id as productId,
+            b.expiryDate as expiryDate,
+            b.quantity as quantity
+        from InventoryBatch b
+        where b.quantity > 0
+        """)
+    List<BatchStockProjection> findAllBatchStocks();
+
+    /**
+     * 기준일 이전에 만료되고 수량이 남아있는 배치의 유통기한 날짜 목록을 조회한다.
+     *
+     * @param baseDate 만료 판단 기준일(이 날짜 이전이 만료)
+     * @return 유통기한 오름차순의 날짜 목록
+     */
+    @Query("""
+        select distinct b.expiryDate
+        from InventoryBatch b
+        where b.expiryDate < :baseDate
+          and b.quantity > 0
+        order by b.expiryDate asc
+        """)
+    List<LocalDate> findExpiredDates(@Param("baseDate") LocalDate baseDate);
+
+    /**
+     * 유통기한 날짜 1개에서 수량이 남은 배치가 있는 상품 ID를 키셋({@code (expiry_date, product_id)})으로 조회한다.
+     * <p>
+     * 상품 ID가 드문드문 있어도 실제로 배치가 있는 상품만 읽으므로, 폐기 구간이 빈 범위를 훑지 않는다.
+     * </p>
+     *
+     * @param expiryDate 유통기한
+     * @param afterProductId 이전 페이지의 마지막 상품 ID(이 값보다 큰 ID만 조회, 처음이면 0)
+     * @param limit 최대 조회 개수
+     * @return 상품 ID 오름차순 목록
+     */
+    @Query("""
+        select distinct b.product.id
+        from InventoryBatch b
+        where b.expiryDate = :expiryDate
+          and b.product.id > :afterProductId
+          and b.quantity > 0
+        order by b.product.id asc
+        """)
+    List<Long> findExpiredProductIds(
+            @Param("expiryDate") LocalDate expiryDate,
+            @Param("afterProductId") Long afterProductId,
+            Limit limit
+    );
+
+    /**
+     * 폐기 구간(유통기한 날짜 + 상품 ID 범위)의 수량이 남은 배치 버전을 올린다.
+     * <p>
+     * 이후 폐기 로그 기록/수량 정리가 끝날 때까지 대상 행을 잠그고, 같은 배치를 읽어둔
+     * 판매 트랜잭션이 낙관적 락 충돌로 다시 시도하게 한다.
+     * </p>
+     *
+     * @return 대상 배치 수
+     */
+    @Modifying
+    @Query("""
+        update InventoryBatch b
+        set b.version = b.version + 1
+        where b.expiryDate = :expiryDate
+          and b.quantity > 0
+          and b.product.id between :fromProductId and :toProductId
+        """)
+    int lockDisposalChunk(
+            @Param("expiryDate") LocalDate expiryDate,
+            @Param("fromProductId") Long fromProductId,
+            @Param("toProductId") Long toProductId
+    );
+
+    /**
+     * 폐기 구간의 남은 수량 합계를 조회한다.
+     */
+    @Query("""
+        select coalesce(sum(b.quantity), 0)
+        from InventoryBatch b
+        where b.expiryDate = :expiryDate
+          and b.quantity > 0
+          and b.product.id between :fromProductId and :toProductId
+        """)
+    long sumDisposalChunkQuantity(
+            @Param("expiryDate") LocalDate expiryDate,
+            @Param("fromProductId") Long fromProductId,
+            @Param("toProductId") Long toProductId
+    );
+
+    /**
+     * 폐기 구간 배치의 수량을 0으로 만든다.
+     *
+     * @return 갱신된 배치 수
+     */
+    @Modifying
+    @Query("""
+        update InventoryBatch b
+        set b.quantity = 0
+        where b.expiryDate = :expiryDate
+          and b.quantity > 0
+          and b.product.id between :fromProductId and :toProductId
+        """)
+    int clearDisposalChunk(
+            @Param("expiryDate") LocalDate expiryDate,
+            @Param("fromProductId") Long fromProductId,
+            @Param("toProductId") Long toProductId
+    );
+
+    /**
+     * 유통기한 달력 적재용 프로젝션(유통기한 날짜별 상품).
+     */
+    interface ExpiryBucketProjection {
+        LocalDate getExpiryDate();
+
+        Long getProductId();
+    }
+
+    /**
+     * 유통기한 달력에 올릴 (유통기한 날짜, 상품) 목록을 조회한다.
+     *
+     * <p>아직 만료되지 않은 배치는 수량과 관계없이(환불 재입고로 다시 채워질 수 있으므로),
+     * 이미 만료된 배치는 수량이 남은 것만 대상으로 한다. 두 조건을 {@code OR}로 묶으면
+     * 인덱스를 쓰지 못하므로 조건별 쿼리를 각각 조회한 뒤 합친다. 두 결과는 서로 겹치지 않는다.</p>
+     *
+     * @param today 만료 판단 기준일
+     * @return 유통기한 날짜별 상품 목록
+     */
+    default List<ExpiryBucketProjection> findExpiryBuckets(LocalDate today) {
+        List<ExpiryBucketProjection> buckets = new ArrayList<>(findExpiryBucketsFrom(today));
+        buckets.addAll(findExpiredBucketsBefore(today));
+        return buckets;
+    }
+
+    /**
+     * 유통기한이 기준일 이후(포함)인 배치의 (유통기한 날짜, 상품) 목록을 조회한다.
+     */
+    @Query("""
+        select distinct
+            b.expiryDate as expiryDate,
+            b.product.id as productId
+        from InventoryBatch b
+        where b.expiryDate >= :today
+        """)
+    List<ExpiryBucketProjection> findExpiryBucketsFrom(@Param("today") LocalDate today);
+
+    /**
+     * 기준일 이전에 만료되고 수량이 남아있는 배치의 (유통기한 날짜, 상품) 목록을 조회한다.
+     */
+    @Query("""
+        select distinct
+            b.expiryDate as expiryDate,
+            b.product.id as productId
+        from InventoryBatch b
+        where b.expiryDate < :today
+          and b.quantity > 0
+        """)
+    List<ExpiryBucketProjection> findExpiredBucketsBefore(@Param("today") LocalDate today);
+
+    /**
+     * 판매 1건이 차감한 배치 중 아직 만료되지 않은 배치에 할당 수량만큼 다시 더한다(환불 재입고).
+     * <p>
+     * 판매 라인의 배치 할당({@code SaleItemAllocation})을 기준으로 한 번의 갱신으로 처리하며,
+     * 동시 판매 차감과의 충돌을 감지하도록 버전을 올린다.
+     * 이미 만료된(폐기되었을 수 있는) 배치는 되살리지 않는다.
+     * </p>
+     *
+     * @param saleId 판매 ID
+     * @param today 만료 판단 기준일(이 날짜 이전이 만료)
+     * @return 갱신된 배치 수
+     */
+    @Modifying
+    @Query("""
+        update InventoryBatch b
+        set b.quantity = b.quantity + (
+                select sum(a.quantity)
+                from SaleItemAllocation a
+                where a.batch = b
+                  and a.saleItem.sale.id = :saleId
+            ),
+            b.version = b.version + 1
+        where b.expiryDate >= :today
+          and b.id in (
+            select a.batch.id
+            from SaleItemAllocation a
+            where a.saleItem.sale.id = :saleId
+        )
+        """)
+    int restockSaleAllocations(@Param("saleId") Long saleId, @Param("today") LocalDate today);
 
     /**
      * 재고 현황(전체 상품 요약)을 조회하기 위한 프로젝션.
@@ -63,51 +380,140 @@ public interface InventoryBatchRepository extends JpaRepository<InventoryBatch,
     );
 
     /**
-     * 유통기한 기준으로 점검 추천 후보 배치를 조회한다.
-     *
-     * <p>기준일({@code cutoff})까지(포함) 유통기한이 도달한 배치를 대상으로 하며,
-     * 수량이 남아있는 배치({@code quantity > 0})만 반환한다.</p>
+     * 점검 추천 후보 조회용 프로젝션.
+     */
+    interface AuditCandidateProjection {
+        Long getBatchId();
+
+        Long getProductId();
+
+        String getProductName();
+
+        LocalDate getExpiryDate();
+
+        int getQuantity();
+
+        LocalDateTime getLastCheckedAt();
+
+        long getScore();
+    }
+
+    /**
+     * 유통기한 기준 점검 추천 후보 중 점수가 높은 배치를 조회한다.
      *
-     * <p>배치 목록 조회 시 N+1 조회를 방지하기 위해 {@code product}를 fetch join 한다.</p>
+     * <p>기준일({@code expiryCutoff})까지(포함) 유통기한이 도달하고 수량이 남아있는 배치를 대상으로,
+     * 점수를 SQL에서 계산해 점수 내림차순 → 유통기한 → 배치 ID 순으로 {@code limit}개만 반환한다.</p>
+     * <ul>
+     *   <li>만료({@code expiryDate < baseDate}): {@code expiredWeight}</li>
+     *   <li>임박: {@code max(0, expiringSoonWeight - 남은 일수)}</li>
+     *   <li>점검 기록 없음: {@code neverCheckedWeight}, 마지막 점검이 {@code staleBefore} 이전: {@code staleCheckWeight}</li>
+     * </ul>
      *
-     * @param cutoff 조회 기준 유통기한(포함)
-     * @return 유통기한 오름차순으로 정렬된 점검 후보 배치 목록
+     * @param baseDate 만료/남은 일수 계산 기준일
+     * @param expiryCutoff 조회 기준 유통기한(포함)
+     * @param staleBefore 오래 미점검 판단 기준 시각(미포함)
+     * @param expiredWeight 만료 가중치
+     * @param expiringSoonWeight 임박 가중치
+     * @param neverCheckedWeight 점검 기록 없음 가중치
+     * @param staleCheckWeight 오래 미점검 가중치
+     * @param limit 최대 조회 행 수
+     * @return 점수 내림차순으로 정렬된 점검 후보 목록
      */
     @Query("""
-        select b
+        select b.id as batchId,
+               p.id as productId,
+               p.name as productName,
+               b.expiryDate as expiryDate,
+               b.quantity as quantity,
+               b.lastCheckedAt as lastCheckedAt,
+               case when b.expiryDate < :baseDate then :expiredWeight
+                    when :expiringSoonWeight - (b.expiryDate - :baseDate) by day > 0
+                        then :expiringSoonWeight - (b.expiryDate - :baseDate) by day
+                    else 0 end
+               + case when b.lastCheckedAt is null then :neverCheckedWeight
+                      when b.lastCheckedAt < :staleBefore then :staleCheckWeight
+                      else 0 end as score
         from InventoryBatch b
-        join fetch b.product
+        join b.product p
         where b.quantity > 0
-          and b.expiryDate <= :cutoff
-        order by b.expiryDate asc
+          and b.expiryDate <= :expiryCutoff
+        order by score desc, b.expiryDate asc, b.id asc
         """)
-    List<InventoryBatch> findAuditCandidatesByExpiry(
-            @Param("cutoff") LocalDate cutoff
+    List<AuditCandidateProjection> findTopAuditCandidatesByExpiry(
+            @Param("baseDate") LocalDate baseDate,
+            @Param("expiryCutoff") LocalDate expiryCutoff,
+            @Param("staleBefore") LocalDateTime staleBefore,
+            @Param("expiredWeight") int expiredWeight,
+            @Param("expiringSoonWeight") int expiringSoonWeight,
+            @Param("neverCheckedWeight") int neverCheckedWeight,
+            @Param("staleCheckWeight") int staleCheckWeight,
+            Limit limit
     );
 
     /**
-     * 마지막 점검일 기준으로 점검 추천 후보 배치를 조회한다.
+     * 유통기한 기준 후보가 아니면서({@code expiryDate > expiryCutoff}) 점검 기록이 없고
+     * 수량이 남아있는 배치를 유통기한 → 배치 ID 순으로 {@code limit}개 조회한다.
      *
-     * <p>다음 조건에 해당하는 배치를 대상으로 하며, 수량이 남아있는 배치({@code quantity > 0})만 반환한다.</p>
-     * <ul>
-     *   <li>점검 기록이 없는 배치({@code lastCheckedAt is null})</li>
-     *   <li>마지막 점검일이 기준 시각({@code cutoff}) 이전(또는 동일)인 배치</li>
-     * </ul>
+     * <p>해당 배치의 점수는 모두 {@code neverCheckedWeight}로 같다.</p>
      *
-     * <p>배치 목록 조회 시 N+1 조회를 방지하기 위해 {@code product}를 fetch join 한다.</p>
+     * @param expiryCutoff 유통기한 기준 후보의 기준 유통기한
+     * @param neverCheckedWeight 점검 기록 없음 가중치
+     * @param limit 최대 조회 행 수
+     * @return 점검 기록이 없는 후보 목록
+     */
+    @Query("""
+        select b.id as batchId,
+               p.id as productId,
+               p.name as productName,
+               b.expiryDate as expiryDate,
+               b.quantity as quantity,
+               b.lastCheckedAt as lastCheckedAt,
+               :neverCheckedWeight as score
+        from InventoryBatch b
+        join b.product p
+        where b.lastCheckedAt is null
+          and b.expiryDate > :expiryCutoff
+          and b.quantity > 0
+        order by b.expiryDate asc, b.id asc
+        """)
+    List<AuditCandidateProjection> findTopAuditCandidatesNeverChecked(
+            @Param("expiryCutoff") LocalDate expiryCutoff,
+            @Param("neverCheckedWeight") int neverCheckedWeight,
+            Limit limit
+    );
+
+    /**
+     * 유통기한 기준 후보가 아니면서({@code expiryDate > expiryCutoff}) 마지막 점검이 기준 시각 이전이고
+     * 수량이 남아있는 배치를 유통기한 → 배치 ID 순으로 {@code limit}개 조회한다.
+     *
+     * <p>해당 배치의 점수는 모두 {@code staleCheckWeight}로 같다.</p>
      *
-     * @param cutoff 오래 미점검 여부 판단 기준 시각(포함)
-     * @return 점검 후보 배치 목록
+     * @param expiryCutoff 유통기한 기준 후보의 기준 유통기한
+     * @param staleBefore 오래 미점검 판단 기준 시각(미포함)
+     * @param staleCheckWeight 오래 미점검 가중치
+     * @param limit 최대 조회 행 수
+     * @return 오래 미점검 후보 목록
      */
     @Query("""
-        select b
+        select b.id as batchId,
+               p.id as productId,
+               p.name as productName,
+               b.expiryDate as expiryDate,
+               b.quantity as quantity,
+               b.lastCheckedAt as lastCheckedAt,
+               :staleCheckWeight as score
         from InventoryBatch b
-        join fetch b.product
-        where b.quantity > 0
-          and (b.lastCheckedAt is null or b.lastCheckedAt <= :cutoff)
+        join b.product p
+        where b.lastCheckedAt < :staleBefore
+          and b.expiryDate > :expiryCutoff
+          and b.quantity > 0
+        order by b.expiryDate asc, b.id asc
         """)
-    List<InventoryBatch> findAuditCandidatesByStaleCheck(
-            @Param("cutoff") LocalDateTime cutoff
+    List<AuditCandidateProjection> findTopAuditCandidatesCheckedBefore(
+            @Param("expiryCutoff") LocalDate expiryCutoff,
+            @Param("staleBefore") LocalDateTime staleBefore,
+            @Param("staleCheckWeight") int staleCheckWeight,
+            Limit limit
     );
 
 }
@@ -4,7 +4,12 @@ import com.github.maharong.smartpos.entity.InventoryLog;
 import com.github.maharong.smartpos.entity.Product;
 import com.github.maharong.smartpos.enums.InventoryConsumeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface InventoryLogRepository extends JpaRepository<InventoryLog, Long> {
@@ -16,4 +21,55 @@ public interface InventoryLogRepository extends JpaRepository<InventoryLog, Long
             Product product,
             InventoryConsumeType type
     );
+
+    /**
+     * 환불된 판매가 차감했던 배치 중 이미 만료된 배치의 할당 수량을 로그로 한 문장에 기록한다.
+     * <p>
+     * 환불 재입고 시 만료 배치는 되살리지 않으므로, 돌아온 수량을 폐기로 남기는 데 사용한다.
+     * </p>
+     *
+     * @return 기록된 로그 수
+     */
+    @Modifying
+    @Query("""
+        insert into InventoryLog (product, batch, type, quantity, note, occurredAt)
+        select b.product, b, :type, a.quantity, :note, :occurredAt
+        from SaleItemAllocation a
+        join a.batch b
+        where a.saleItem.sale.id = :saleId
+          and b.expiryDate < :today
+        """)
+    int insertExpiredRestockLogs(
+            @Param("saleId") Long saleId,
+            @Param("today") LocalDate today,
+            @Param("type") InventoryConsumeType type,
+            @Param("note") String note,
+            @Param("occurredAt") LocalDateTime occurredAt
+    );
+
+    /**
+     * 폐기 구간(유통기한 날짜 + 상품 ID 범위)의 수량이 남은 배치마다 로그를 한 문장으로 기록한다.
+     * <p>
+     * 배치의 현재 수량을 그대로 로그 수량으로 남기므로, 배치 수량을 0으로 만들기 전에 호출해야 한다.
+     * </p>
+     *
+     * @return 기록된 로그 수
+     */
+    @Modifying
+    @Query("""
+        insert into InventoryLog (product, batch, type, quantity, note, occurredAt)
+        select b.product, b, :type, b.quantity, :note, :occurredAt
+        from InventoryBatch b
+        where b.expiryDate = :expiryDate
+          and b.quantity > 0
+          and b.product.id between :fromProductId and :toProductId
+        """)
+    int insertDisposalLogs(
+            @Param("expiryDate") LocalDate expiryDate,
+            @Param("fromProductId") Long fromProductId,
+            @Param("toProductId") Long toProductId,
+            @Param("type") InventoryConsumeType type,
+            @Param("note") String note,
+            @Param("occurredAt") LocalDateTime occurredAt
+    );
 }
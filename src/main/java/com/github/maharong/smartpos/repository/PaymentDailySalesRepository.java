@@ -0,0 +1,37 @@
+package com.github.maharong.smartpos.repository;
+
+import com.github.maharong.smartpos.entity.PaymentDailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PaymentDailySalesRepository extends JpaRepository<PaymentDailySales, Long> {
+
+    /**
+     * 기간의 일자별·결제 수단별 판매 집계를 조회한다.
+     *
+     * @param from 시작일(포함)
+     * @param to 종료일(포함)
+     * @return 일자, 결제 수단 순 집계 목록
+     */
+    @Query("""
+        select d
+        from PaymentDailySales d
+        where d.salesDate between :from and :to
+        order by d.salesDate asc, d.paymentMethod asc
+        """)
+    List<PaymentDailySales> findDailySales(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * 기간의 일자별 집계를 삭제한다(재계산용).
+     *
+     * @return 삭제된 행 수
+     */
+    @Modifying
+    @Query("delete from PaymentDailySales d where d.salesDate between :from and :to")
+    int deleteBySalesDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,21 @@
+package com.github.maharong.smartpos.repository;
+
+import com.github.maharong.smartpos.entity.ProductDailySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+
+public interface ProductDailySalesRepository extends JpaRepository<ProductDailySales, Long> {
+
+    /**
+     * 기간의 일자별 집계를 삭제한다(재계산용).
+     *
+     * @return 삭제된 행 수
+     */
+    @Modifying
+    @Query("delete from ProductDailySales d where d.salesDate between :from and :to")
+    int deleteBySalesDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
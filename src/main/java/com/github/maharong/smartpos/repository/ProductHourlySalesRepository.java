@@ -0,0 +1,96 @@
+package com.github.maharong.smartpos.repository;
+
+import com.github.maharong.smartpos.entity.ProductHourlySales;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ProductHourlySalesRepository extends JpaRepository<ProductHourlySales, Long> {
+
+    /**
+     * 시간대별 판매 집계 조회용 Projection.
+     */
+    interface HourlySalesProjection {
+        LocalDateTime getSalesHour();
+        long getQuantity();
+        long getRevenue();
+        long getReceiptCount();
+    }
+
+    /**
+     * 일별 판매 집계 조회용 Projection.
+     */
+    interface DailySalesProjection {
+        LocalDate getSalesDate();
+        long getQuantity();
+        long getRevenue();
+        long getReceiptCount();
+    }
+
+    /**
+     * 상품의 시간대별 판매 집계를 조회한다.
+     *
+     * <p>유니크 키 {@code (product_id, sales_hour)}의 범위 조회로 처리한다.</p>
+     *
+     * @param productId 상품 ID
+     * @param from 시작 시각(포함)
+     * @param to 종료 시각(미포함)
+     * @return 시간대 오름차순 집계 목록
+     */
+    @Query("""
+        select h.salesHour as salesHour,
+               h.quantity as quantity,
+               h.revenue as revenue,
+               h.receiptCount as receiptCount
+        from ProductHourlySales h
+        where h.product.id = :productId
+          and h.salesHour >= :from
+          and h.salesHour < :to
+        order by h.salesHour asc
+        """)
+    List<HourlySalesProjection> findHourlySales(
+            @Param("productId") Long productId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    /**
+     * 상품의 일별 판매 집계를 조회한다(시간대 집계를 일자로 합산).
+     *
+     * @param productId 상품 ID
+     * @param from 시작 시각(포함)
+     * @param to 종료 시각(미포함)
+     * @return 일자 오름차순 집계 목록
+     */
+    @Query("""
+        select h.salesDate as salesDate,
+               sum(h.quantity) as quantity,
+               sum(h.revenue) as revenue,
+               sum(h.receiptCount) as receiptCount
+        from ProductHourlySales h
+        where h.product.id = :productId
+          and h.salesHour >= :from
+          and h.salesHour < :to
+        group by h.salesDate
+        order by h.salesDate asc
+        """)
+    List<DailySalesProjection> findDailySales(
+            @Param("productId") Long productId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to
+    );
+
+    /**
+     * 기간의 시간대 집계를 삭제한다(재계산용).
+     *
+     * @return 삭제된 행 수
+     */
+    @Modifying
+    @Query("delete from ProductHourlySales h where h.salesDate between :from and :to")
+    int deleteBySalesDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -2,8 +2,15 @@ package com.github.maharong.smartpos.repository;
 
 import com.github.maharong.smartpos.entity.Product;
 import com.github.maharong.smartpos.enums.ProductStatus;
+import com.github.maharong.smartpos.enums.PurchaseOrderStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +18,229 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Optional<Product> findByBarcode(String barcode); // 바코드 조회
     boolean existsByBarcode(String barcode); // 바코드로 조회해서 존재하는 상품인지 여부
     List<Product> findAllByStatus(ProductStatus status); // 상품 상태별 조회(판매/단종)
+    List<Product> findAllByStatusOrderByNameAsc(ProductStatus status); // 상품 상태별 조회(이름순)
+    List<Product> findAllByOrderByIdAsc(); // 전체 상품 조회(ID순)
+
+    /**
+     * 변경 버전이 기준 버전보다 큰 상품을 변경 버전 순으로 조회한다(단말 카탈로그 변경분).
+     *
+     * @param since 기준 버전(미포함)
+     * @param limit 최대 조회 행 수
+     * @return 변경 버전 오름차순의 상품 목록
+     */
+    List<Product> findByChangeVersionGreaterThanOrderByChangeVersionAsc(long since, Limit limit);
+
+    /**
+     * 상품의 판매 가능 재고 수량을 원자적으로 증감한다.
+     *
+     * @param productId 상품 ID
+     * @param delta 증감량(차감은 음수)
+     * @return 갱신된 행 수
+     */
+    @Modifying
+    @Query("update Product p set p.availableStock = p.availableStock + :delta where p.id = :productId")
+    int adjustAvailableStock(@Param("productId") Long productId, @Param("delta") int delta);
+
+    /**
+     * 특정 날짜에 유통기한이 끝난 배치가 남은 상품의 판매 가능 재고를 배치 합계로 다시 계산한다.
+     * <p>
+     * 자정이 지나 만료된 배치(유통기한 = 전날)를 판매 가능 재고에서 제외할 때 사용한다.
+     * 차감이 아니라 다시 계산하므로 같은 날짜로 여러 번(여러 노드에서) 실행해도 결과가 같다.
+     * </p>
+     *
+     * @param expiryDate 만료된 배치의 유통기한
+     * @param today 만료 여부 판단 기준일
+     * @return 갱신된 상품 수
+     */
+    @Modifying
+    @Query("""
+            update Product p
+            set p.availableStock = (
+                select coalesce(sum(b.quantity), 0)
+                from InventoryBatch b
+                where b.product = p and b.quantity > 0 and b.expiryDate >= :today
+            )
+            where exists (
+                select 1
+                from InventoryBatch b
+                where b.product = p
+                  and b.quantity > 0
+                  and b.expiryDate = :expiryDate
+            )
+            """)
+    int recalculateExpiredStock(@Param("expiryDate") LocalDate expiryDate, @Param("today") LocalDate today);
+
+    /**
+     * 판매 1건이 차감한 배치 중 아직 판매 가능한 배치의 할당 수량을 판매 가능 재고에 다시 더한다(환불 재입고).
+     *
+     * @param saleId 판매 ID
+     * @param today 만료 여부 판단 기준일
+     * @return 갱신된 상품 수
+     */
+    @Modifying
+    @Query("""
+            update Product p
+            set p.availableStock = p.availableStock + (
+                select coalesce(sum(a.quantity), 0)
+                from SaleItemAllocation a
+                where a.batch.product = p
+                  and a.batch.expiryDate >= :today
+                  and a.saleItem.sale.id = :saleId
+            )
+            where p.id in (
+                select a.saleItem.product.id
+                from SaleItemAllocation a
+                where a.saleItem.sale.id = :saleId
+            )
+            """)
+    int restoreSaleAvailableStock(@Param("saleId") Long saleId, @Param("today") LocalDate today);
+
+    /**
+     * 폐기 구간(유통기한 날짜 + 상품 ID 범위)의 배치 수량을 판매 가능 재고에서 뺀다.
+     * <p>
+     * 아직 만료되지 않은(판매 가능 재고에 포함된) 배치를 폐기할 때, 배치 수량을 0으로 만들기 전에 호출한다.
+     * </p>
+     *
+     * @return 갱신된 상품 수
+     */
+    @Modifying
+    @Query("""
+            update Product p
+            set p.availableStock = p.availableStock - (
+                select coalesce(sum(b.quantity), 0)
+                from InventoryBatch b
+                where b.product = p
+                  and b.quantity > 0
+                  and b.expiryDate = :expiryDate
+            )
+            where p.id between :fromProductId and :toProductId
+              and exists (
+                select 1
+                from InventoryBatch b
+                where b.product = p
+                  and b.quantity > 0
+                  and b.expiryDate = :expiryDate
+            )
+            """)
+    int subtractDisposedStock(
+            @Param("expiryDate") LocalDate expiryDate,
+            @Param("fromProductId") Long fromProductId,
+            @Param("toProductId") Long toProductId
+    );
+
+    /**
+     * 판매 가능 재고 수량 불일치 조회용 프로젝션.
+     */
+    interface StockDriftProjection {
+        Long getProductId();
+
+        int getAvailableStock();
+
+        Long getActualStock();
+    }
+
+    /**
+     * 판매 가능 재고 수량이 배치 합계와 다른 상품을 조회한다.
+     *
+     * @param today 만료 여부 판단 기준일
+     * @return 불일치 상품 목록(기록된 값, 배치 합계)
+     */
+    @Query("""
+            select
+                p.id as productId,
+                p.availableStock as availableStock,
+                (select coalesce(sum(b.quantity), 0)
+                 from InventoryBatch b
+                 where b.product = p and b.quantity > 0 and b.expiryDate >= :today) as actualStock
+            from Product p
+            where p.availableStock <> (
+                select coalesce(sum(b.quantity), 0)
+                from InventoryBatch b
+                where b.product = p and b.quantity > 0 and b.expiryDate >= :today
+            )
+            """)
+    List<StockDriftProjection> findStockDrifts(@Param("today") LocalDate today);
+
+    /**
+     * 판매 가능 재고 수량을 배치 합계로 다시 계산한다.
+     * <p>
+     * 합계 계산과 갱신을 한 문장으로 처리하므로, 조회와 갱신 사이에 다른 차감이 끼어들어도 값이 어긋나지 않는다.
+     * </p>
+     *
+     * @param productIds 다시 계산할 상품 ID 목록
+     * @param today 만료 여부 판단 기준일
+     * @return 갱신된 행 수
+     */
+    @Modifying
+    @Query("""
+            update Product p
+            set p.availableStock = (
+                select coalesce(sum(b.quantity), 0)
+                from InventoryBatch b
+                where b.product = p and b.quantity > 0 and b.expiryDate >= :today
+            )
+            where p.id in :productIds
+            """)
+    int recalculateAvailableStock(
+            @Param("productIds") Collection<Long> productIds,
+            @Param("today") LocalDate today
+    );
+
+    /**
+     * 상품별 가용 재고 프로젝션(판매 가능 재고, 입고 예정 수량, 기간 판매량).
+     */
+    interface AvailabilityProjection {
+        Long getProductId();
+
+        String getProductName();
+
+        int getPrice();
+
+        int getUnitsPerPackage();
+
+        int getAvailableStock();
+
+        long getInboundQuantity();
+
+        long getSoldQuantity();
+    }
+
+    /**
+     * 상품별 판매 가능 재고, 진행 중인 발주의 입고 예정 수량(박스 × 박스당 낱개), 기간 판매량을 한 번에 조회한다.
+     * <p>
+     * 입고 예정 수량은 진행 중 상태 발주의 라인을 상품별로 묶어 합산하고, 판매량은 상품별 일자 집계에서 읽는다.
+     * 발주 라인이 없는 상품도 입고 예정 0으로 포함한다.
+     * </p>
+     *
+     * @param status 상품 상태
+     * @param openStatuses 입고 예정으로 볼 발주 상태
+     * @param salesFrom 판매량 집계 시작일(포함)
+     * @param salesTo 판매량 집계 종료일(포함)
+     * @return 상품 ID순 가용 재고 목록
+     */
+    @Query("""
+            select
+                p.id as productId,
+                p.name as productName,
+                p.price as price,
+                p.unitsPerPackage as unitsPerPackage,
+                p.availableStock as availableStock,
+                coalesce(sum(cast(i.packageQuantity as Long) * p.unitsPerPackage), 0) as inboundQuantity,
+                (select coalesce(sum(d.quantity), 0)
+                 from ProductDailySales d
+                 where d.product = p and d.salesDate between :salesFrom and :salesTo) as soldQuantity
+            from Product p
+            left join PurchaseOrderItem i
+                on i.product = p
+               and i.purchaseOrder.id in (select o.id from PurchaseOrder o where o.status in :openStatuses)
+            where p.status = :status
+            group by p.id, p.name, p.price, p.unitsPerPackage, p.availableStock
+            order by p.id
+            """)
+    List<AvailabilityProjection> findAvailability(
+            @Param("status") ProductStatus status,
+            @Param("openStatuses") Collection<PurchaseOrderStatus> openStatuses,
+            @Param("salesFrom") LocalDate salesFrom,
+            @Param("salesTo") LocalDate salesTo
+    );
 }
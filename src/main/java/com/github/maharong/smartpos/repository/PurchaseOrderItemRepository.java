@@ -2,11 +2,63 @@ package com.github.maharong.smartpos.repository;
 
 import com.github.maharong.smartpos.entity.Product;
 import com.github.maharong.smartpos.entity.PurchaseOrderItem;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface PurchaseOrderItemRepository extends JpaRepository<PurchaseOrderItem, Long> {
 
+    /**
+     * 상품의 발주 라인을 발주와 함께 조회한다.
+     *
+     * @param product 상품
+     * @return 발주 라인 목록(발주 포함)
+     */
+    @EntityGraph(attributePaths = "purchaseOrder")
     List<PurchaseOrderItem> findByProduct(Product product);
+
+    /**
+     * 발주 라인을 상품과 함께 한 번에 조회한다.
+     *
+     * @param purchaseOrderId 발주 ID
+     * @return 라인 ID순 발주 라인 목록(상품 포함)
+     */
+    @EntityGraph(attributePaths = "product")
+    List<PurchaseOrderItem> findByPurchaseOrderIdOrderByIdAsc(Long purchaseOrderId);
+
+    /**
+     * 발주별 라인 집계 프로젝션.
+     */
+    interface PurchaseOrderLineTotalProjection {
+        Long getPurchaseOrderId();
+
+        long getLineCount();
+
+        long getTotalPrice();
+    }
+
+    /**
+     * 주어진 발주들의 라인 수와 총액(박스 수량 × 박스 단가 합계)을 SQL에서 집계한다.
+     * <p>
+     * 발주 목록 한 페이지의 발주 ID만 받으므로 라인 테이블은 해당 발주의 라인만 읽는다.
+     * 라인이 없는 발주는 결과에 포함되지 않는다.
+     * </p>
+     *
+     * @param purchaseOrderIds 발주 ID 목록
+     * @return 발주별 라인 집계
+     */
+    @Query("""
+        select
+            i.purchaseOrder.id as purchaseOrderId,
+            count(i.id) as lineCount,
+            sum(cast(i.packageQuantity as Long) * i.unitPrice) as totalPrice
+        from PurchaseOrderItem i
+        where i.purchaseOrder.id in :purchaseOrderIds
+        group by i.purchaseOrder.id
+        """)
+    List<PurchaseOrderLineTotalProjection> findLineTotals(@Param("purchaseOrderIds") Collection<Long> purchaseOrderIds);
 }
@@ -2,11 +2,111 @@ package com.github.maharong.smartpos.repository;
 
 import com.github.maharong.smartpos.entity.PurchaseOrder;
 import com.github.maharong.smartpos.enums.PurchaseOrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface PurchaseOrderRepository extends JpaRepository<PurchaseOrder, Long> {
 
-    List<PurchaseOrder> findByStatus(PurchaseOrderStatus status);
+    /**
+     * 발주를 쓰기 락을 잡고 조회한다(입고 등 상태 전이의 동시 처리 방지용).
+     *
+     * @param id 발주 ID
+     * @return 발주
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from PurchaseOrder o where o.id = :id")
+    Optional<PurchaseOrder> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * 발주 목록 조회용 프로젝션(라인 수와 총액은 라인에서 집계).
+     */
+    interface PurchaseOrderSummaryProjection {
+        Long getPurchaseOrderId();
+
+        LocalDateTime getOrderedAt();
+
+        PurchaseOrderStatus getStatus();
+
+        long getLineCount();
+
+        long getTotalPrice();
+    }
+
+    /**
+     * 발주 목록 페이지의 발주 키(라인 집계 전).
+     */
+    interface PurchaseOrderKeyProjection {
+        Long getPurchaseOrderId();
+
+        LocalDateTime getOrderedAt();
+
+        PurchaseOrderStatus getStatus();
+    }
+
+    /**
+     * 발주 목록을 최신순(발주 시각 → ID 내림차순)으로 한 페이지 조회한다.
+     *
+     * <p>발주 테이블만 {@code (ordered_at, id)} 인덱스 순서로 읽어 페이지 크기만큼에서 멈춘다.
+     * 라인 수와 총액은 고른 발주 ID로 {@link PurchaseOrderItemRepository#findLineTotals}에서 따로 집계한다.
+     * 직전 페이지 마지막 행의 {@code (orderedAt, id)}를 커서로 받는 키셋 방식이며,
+     * 필터/커서 값이 null이면 해당 조건을 적용하지 않는다.</p>
+     *
+     * @param from 발주 시각 하한(포함)
+     * @param to 발주 시각 상한(미포함)
+     * @param status 발주 상태
+     * @param cursorOrderedAt 직전 페이지 마지막 행의 발주 시각
+     * @param cursorId 직전 페이지 마지막 행의 발주 ID
+     * @param limit 최대 조회 행 수
+     * @return 발주 목록
+     */
+    @Query("""
+        select
+            o.id as purchaseOrderId,
+            o.orderedAt as orderedAt,
+            o.status as status
+        from PurchaseOrder o
+        where (:from is null or o.orderedAt >= :from)
+          and (:to is null or o.orderedAt < :to)
+          and (:status is null or o.status = :status)
+          and (:cursorOrderedAt is null
+               or o.orderedAt < :cursorOrderedAt
+               or (o.orderedAt = :cursorOrderedAt and o.id < :cursorId))
+        order by o.orderedAt desc, o.id desc
+        """)
+    List<PurchaseOrderKeyProjection> findPurchaseOrderPage(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("status") PurchaseOrderStatus status,
+            @Param("cursorOrderedAt") LocalDateTime cursorOrderedAt,
+            @Param("cursorId") Long cursorId,
+            Limit limit
+    );
+
+    /**
+     * 발주 1건의 요약(라인 수, SQL로 계산한 총액)을 조회한다.
+     *
+     * @param id 발주 ID
+     * @return 발주 요약
+     */
+    @Query("""
+        select
+            o.id as purchaseOrderId,
+            o.orderedAt as orderedAt,
+            o.status as status,
+            count(i.id) as lineCount,
+            coalesce(sum(cast(i.packageQuantity as Long) * i.unitPrice), 0) as totalPrice
+        from PurchaseOrder o
+        left join PurchaseOrderItem i on i.purchaseOrder = o
+        where o.id = :id
+        group by o.id, o.orderedAt, o.status
+        """)
+    Optional<PurchaseOrderSummaryProjection> findPurchaseOrderSummary(@Param("id") Long id);
 }
@@ -0,0 +1,29 @@
+package com.github.maharong.smartpos.repository;
+
+import com.github.maharong.smartpos.entity.SaleIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface SaleIdempotencyKeyRepository extends JpaRepository<SaleIdempotencyKey, Long> {
+
+    Optional<SaleIdempotencyKey> findByIdempotencyKey(String idempotencyKey);
+
+    List<SaleIdempotencyKey> findAllByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+
+    /**
+     * 기준 시각 이전에 기록된 멱등 키를 삭제한다.
+     *
+     * @param cutoff 삭제 기준 시각(미포함)
+     * @return 삭제된 행 수
+     */
+    @Modifying
+    @Query("delete from SaleIdempotencyKey k where k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,82 @@
+package com.github.maharong.smartpos.repository;
+
+import com.github.maharong.smartpos.entity.SaleItemAllocation;
+import com.github.maharong.smartpos.enums.SaleStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SaleItemAllocationRepository extends JpaRepository<SaleItemAllocation, Long> {
+
+    /**
+     * 배치별 판매 내역 조회용 프로젝션.
+     */
+    interface BatchSaleProjection {
+        Long getSaleId();
+
+        LocalDateTime getSoldAt();
+
+        SaleStatus getStatus();
+
+        Long getSaleItemId();
+
+        int getQuantity();
+    }
+
+    /**
+     * 판매의 배치 할당 조회용 프로젝션.
+     */
+    interface SaleAllocationProjection {
+        Long getBatchId();
+
+        Long getProductId();
+
+        LocalDate getExpiryDate();
+
+        int getQuantity();
+    }
+
+    /**
+     * 특정 배치(로트)에서 차감된 판매 목록을 조회한다(회수/추적용).
+     *
+     * <p>할당의 배치 인덱스로 찾고, 판매 라인/판매는 PK로 조인한다.</p>
+     *
+     * @param batchId 배치 ID
+     * @return 판매 시각 오름차순 판매 목록
+     */
+    @Query("""
+        select s.id as saleId,
+               s.soldAt as soldAt,
+               s.status as status,
+               i.id as saleItemId,
+               a.quantity as quantity
+        from SaleItemAllocation a
+        join a.saleItem i
+        join i.sale s
+        where a.batch.id = :batchId
+        order by s.soldAt asc, s.id asc
+        """)
+    List<BatchSaleProjection> findSalesByBatchId(@Param("batchId") Long batchId);
+
+    /**
+     * 판매 1건의 배치 할당을 조회한다.
+     *
+     * @param saleId 판매 ID
+     * @return 배치 할당 목록
+     */
+    @Query("""
+        select b.id as batchId,
+               b.product.id as productId,
+               b.expiryDate as expiryDate,
+               a.quantity as quantity
+        from SaleItemAllocation a
+        join a.batch b
+        where a.saleItem.sale.id = :saleId
+        order by b.id asc
+        """)
+    List<SaleAllocationProjection> findAllocationsBySaleId(@Param("saleId") Long saleId);
+}
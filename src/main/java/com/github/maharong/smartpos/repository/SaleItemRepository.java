@@ -2,8 +2,13 @@ package com.github.maharong.smartpos.repository;
 
 import com.github.maharong.smartpos.entity.Product;
 import com.github.maharong.smartpos.entity.SaleItem;
+import com.github.maharong.smartpos.enums.PaymentMethod;
+import com.github.maharong.smartpos.enums.SaleStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
@@ -17,4 +22,98 @@ public interface SaleItemRepository extends JpaRepository<SaleItem, Long> {
      * @return 해당 판매의 판매 라인 목록
      */
     List<SaleItem> findBySaleId(Long saleId);
-}
\ No newline at end of file
+
+    /**
+     * 영수증 조회용으로 판매 라인을 판매/상품과 함께 조회한다.
+     *
+     * <p>응답 변환 시 판매와 상품을 지연 로딩하지 않도록 {@code sale}, {@code product}를 fetch join 한다.</p>
+     *
+     * @param saleId 판매 ID
+     * @return 라인 ID 순으로 정렬된 판매 라인 목록
+     */
+    @Query("""
+        select i
+        from SaleItem i
+        join fetch i.sale
+        join fetch i.product
+        where i.sale.id = :saleId
+        order by i.id asc
+        """)
+    List<SaleItem> findReceiptLines(@Param("saleId") Long saleId);
+
+    /**
+     * 원본 판매 기준 상품·시간대 집계 조회용 Projection(집계 재계산용).
+     */
+    interface ProductHourRollupProjection {
+        Long getProductId();
+        int getHour();
+        long getQuantity();
+        long getRevenue();
+        long getReceiptCount();
+    }
+
+    /**
+     * 원본 판매 기준 결제 수단 집계 조회용 Projection(집계 재계산용).
+     */
+    interface PaymentRollupProjection {
+        PaymentMethod getPaymentMethod();
+        long getQuantity();
+        long getRevenue();
+        long getReceiptCount();
+    }
+
+    /**
+     * 기간 내 판매를 상품·시간(0~23시)별로 집계한다.
+     *
+     * <p>기간은 하루 이내로 주어야 시간대가 겹치지 않는다.</p>
+     *
+     * @param from 시작 시각(포함)
+     * @param to 종료 시각(미포함)
+     * @param status 집계할 판매 상태
+     * @return 상품·시간별 집계 목록
+     */
+    @Query("""
+        select i.product.id as productId,
+               extract(hour from s.soldAt) as hour,
+               sum(i.quantity) as quantity,
+               sum(i.quantity * i.unitPrice) as revenue,
+               count(distinct s.id) as receiptCount
+        from SaleItem i
+        join i.sale s
+        where s.soldAt >= :from
+          and s.soldAt < :to
+          and s.status = :status
+        group by i.product.id, extract(hour from s.soldAt)
+        """)
+    List<ProductHourRollupProjection> aggregateByProductHour(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("status") SaleStatus status
+    );
+
+    /**
+     * 기간 내 판매를 결제 수단별로 집계한다.
+     *
+     * @param from 시작 시각(포함)
+     * @param to 종료 시각(미포함)
+     * @param status 집계할 판매 상태
+     * @return 결제 수단별 집계 목록
+     */
+    @Query("""
+        select s.paymentMethod as paymentMethod,
+               sum(i.quantity) as quantity,
+               sum(i.quantity * i.unitPrice) as revenue,
+               count(distinct s.id) as receiptCount
+        from SaleItem i
+        join i.sale s
+        where s.soldAt >= :from
+          and s.soldAt < :to
+          and s.status = :status
+        group by s.paymentMethod
+        """)
+    List<PaymentRollupProjection> aggregateByPaymentMethod(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("status") SaleStatus status
+    );
+}
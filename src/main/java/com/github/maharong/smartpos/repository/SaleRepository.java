@@ -1,12 +1,189 @@
 package com.github.maharong.smartpos.repository;
 
 import com.github.maharong.smartpos.entity.Sale;
+import com.github.maharong.smartpos.enums.PaymentMethod;
+import com.github.maharong.smartpos.enums.SaleStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SaleRepository extends JpaRepository<Sale, Long> {
 
-    List<Sale> findBySoldAtBetween(LocalDateTime start, LocalDateTime end);
+    /**
+     * 판매를 쓰기 락을 잡고 조회한다(환불 등 상태 전이의 동시 처리 방지용).
+     *
+     * @param id 판매 ID
+     * @return 판매
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from Sale s where s.id = :id")
+    Optional<Sale> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * 판매 이력 조회용 프로젝션.
+     */
+    interface SaleSummaryProjection {
+        Long getSaleId();
+
+        LocalDateTime getSoldAt();
+
+        SaleStatus getStatus();
+
+        PaymentMethod getPaymentMethod();
+
+        long getTotalPrice();
+
+        long getCashAmount();
+
+        long getCardAmount();
+
+        long getPointAmount();
+    }
+
+    /**
+     * 판매 이력을 최신순(판매 시각 → ID 내림차순)으로 한 페이지 조회한다.
+     *
+     * <p>OFFSET 대신 직전 페이지 마지막 행의 {@code (soldAt, id)}를 커서로 받아 그 다음 행부터 읽는 키셋 방식이므로,
+     * 뒤쪽 페이지도 앞쪽 페이지와 같은 비용으로 조회된다. 필터/커서 값이 null이면 해당 조건을 적용하지 않는다.</p>
+     *
+     * @param from 판매 시각 하한(포함)
+     * @param to 판매 시각 상한(미포함)
+     * @param status 판매 상태
+     * @param cursorSoldAt 직전 페이지 마지막 행의 판매 시각
+     * @param cursorId 직전 페이지 마지막 행의 판매 ID
+     * @param limit 최대 조회 행 수
+     * @return 판매 이력 목록
+     */
+    @Query("""
+        select
+            s.id as saleId,
+            s.soldAt as soldAt,
+            s.status as status,
+            s.paymentMethod as paymentMethod,
+            s.totalPrice as totalPrice,
+            s.cashAmount as cashAmount,
+            s.cardAmount as cardAmount,
+            s.pointAmount as pointAmount
+        from Sale s
+        where (:from is null or s.soldAt >= :from)
+          and (:to is null or s.soldAt < :to)
+          and (:status is null or s.status = :status)
+          and (:cursorSoldAt is null
+               or s.soldAt < :cursorSoldAt
+               or (s.soldAt = :cursorSoldAt and s.id < :cursorId))
+        order by s.soldAt desc, s.id desc
+        """)
+    List<SaleSummaryProjection> findSaleHistory(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("status") SaleStatus status,
+            @Param("cursorSoldAt") LocalDateTime cursorSoldAt,
+            @Param("cursorId") Long cursorId,
+            Limit limit
+    );
+
+    /**
+     * 내보내기용으로 판매 이력을 판매 시각 → ID 오름차순으로 스트리밍 조회한다.
+     *
+     * <p>엔티티가 아닌 프로젝션을 JDBC fetch size 단위로 읽어오므로, 조회 범위가 커도 힙에 결과 전체가 쌓이지 않는다.
+     * 호출자는 트랜잭션 안에서 스트림을 소비하고 닫아야 한다.
+     * (MySQL은 JDBC URL에 {@code useCursorFetch=true}가 있어야 fetch size 단위로 읽는다.)</p>
+     *
+     * @param from 판매 시각 하한(포함)
+     * @param to 판매 시각 상한(미포함)
+     * @param status 판매 상태
+     * @return 판매 이력 스트림
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        select
+            s.id as saleId,
+            s.soldAt as soldAt,
+            s.status as status,
+            s.paymentMethod as paymentMethod,
+            s.totalPrice as totalPrice,
+            s.cashAmount as cashAmount,
+            s.cardAmount as cardAmount,
+            s.pointAmount as pointAmount
+        from Sale s
+        where (:from is null or s.soldAt >= :from)
+          and (:to is null or s.soldAt < :to)
+          and (:status is null or s.status = :status)
+        order by s.soldAt asc, s.id asc
+        """)
+    Stream<SaleSummaryProjection> streamSaleHistory(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("status") SaleStatus status
+    );
+
+    /**
+     * 결제 수단별 금액 합계 조회용 프로젝션.
+     */
+    interface PaymentTotalsProjection {
+        long getReceiptCount();
+
+        long getCashAmount();
+
+        long getCardAmount();
+
+        long getPointAmount();
+    }
+
+    /**
+     * 기간 내 판매 시각의 판매를 결제 수단별로 합산한다(마감 대사용).
+     *
+     * @param from 판매 시각 하한(포함)
+     * @param to 판매 시각 상한(미포함)
+     * @param statuses 합산할 판매 상태
+     * @return 영수증 수와 결제 수단별 금액 합계
+     */
+    @Query("""
+        select count(s) as receiptCount,
+               coalesce(sum(s.cashAmount), 0) as cashAmount,
+               coalesce(sum(s.cardAmount), 0) as cardAmount,
+               coalesce(sum(s.pointAmount), 0) as pointAmount
+        from Sale s
+        where s.soldAt >= :from
+          and s.soldAt < :to
+          and s.status in :statuses
+        """)
+    PaymentTotalsProjection sumSoldBetween(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("statuses") Collection<SaleStatus> statuses
+    );
+
+    /**
+     * 기간 내 환불 시각의 환불을 결제 수단별로 합산한다(마감 대사용).
+     *
+     * @param from 환불 시각 하한(포함)
+     * @param to 환불 시각 상한(미포함)
+     * @return 영수증 수와 결제 수단별 금액 합계
+     */
+    @Query("""
+        select count(s) as receiptCount,
+               coalesce(sum(s.cashAmount), 0) as cashAmount,
+               coalesce(sum(s.cardAmount), 0) as cardAmount,
+               coalesce(sum(s.pointAmount), 0) as pointAmount
+        from Sale s
+        where s.refundedAt >= :from
+          and s.refundedAt < :to
+        """)
+    PaymentTotalsProjection sumRefundedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
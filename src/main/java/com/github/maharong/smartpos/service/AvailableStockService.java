@@ -0,0 +1,78 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.StockDriftResponse;
+import com.github.maharong.smartpos.entity.Product;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 상품의 판매 가능 재고 수량({@link Product#getAvailableStock()})을 날짜 변화와 불일치로부터 유지하는 서비스.
+ * <p>
+ * 입고/출고/폐기에 따른 증감은 {@link InventoryService}가 같은 트랜잭션에서 처리하고,
+ * 이 서비스는 시간이 지나면서 생기는 변화(자정 만료)와 누적 오차를 정리한다.
+ * </p>
+ *
+ * <ul>
+ *   <li>자정 직후: 전날 유통기한이 끝난 배치가 있는 상품을 배치 합계로 다시 계산해 만료 수량을 뺀다.</li>
+ *   <li>정기 보정: 배치 합계와 다른 상품을 찾아 배치 합계로 다시 계산한다. 기동 시에도 한 번 수행한다.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class AvailableStockService {
+
+    private final ProductRepository productRepository;
+
+    /**
+     * 전날 유통기한이 끝난 배치를 판매 가능 재고에서 제외한다.
+     * <p>
+     * 해당 상품을 배치 합계로 다시 계산하므로, 여러 노드에서 동시에 돌거나 다시 실행해도 두 번 빠지지 않는다.
+     * </p>
+     */
+    @Scheduled(cron = "${smartpos.inventory.stock-counter.expiry-cron:5 0 0 * * *}")
+    public void rollExpiredStock() {
+        LocalDate today = LocalDate.now();
+        LocalDate expiredOn = today.minusDays(1);
+        int updated = productRepository.recalculateExpiredStock(expiredOn, today);
+        log.info("만료 배치 판매 가능 재고 반영 완료: expiryDate={}, 상품 {}개", expiredOn, updated);
+    }
+
+    /**
+     * 판매 가능 재고 수량을 배치 합계와 비교하여 어긋난 상품을 보정한다.
+     *
+     * @return 보정한 상품 목록(보정 전 기록 값과 배치 합계)
+     */
+    @Scheduled(cron = "${smartpos.inventory.stock-counter.reconcile-cron:0 30 3 * * *}")
+    public List<StockDriftResponse> reconcile() {
+        LocalDate today = LocalDate.now();
+        List<StockDriftResponse> drifts = productRepository.findStockDrifts(today).stream()
+                .map(row -> new StockDriftResponse(row.getProductId(), row.getAvailableStock(), row.getActualStock()))
+                .toList();
+
+        if (!drifts.isEmpty()) {
+            productRepository.recalculateAvailableStock(
+                    drifts.stream().map(StockDriftResponse::productId).toList(), today);
+            log.warn("판매 가능 재고 불일치 {}건을 보정했습니다. {}", drifts.size(), drifts);
+        }
+        return drifts;
+    }
+
+    /**
+     * 기동 시 한 번 보정하여, 기록 값이 없던 기존 데이터나 중단 중에 지난 자정 만료를 반영한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+}
@@ -0,0 +1,281 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.entity.Sale;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 영업일 마감(Z 리포트)용 실시간 결제 수단별 누적 카운터.
+ * <p>
+ * 판매/환불이 커밋되면 해당 영업일의 {@link LongAdder}에 금액을 더한다(셀 분산으로 스레드 간 경합 없음).
+ * 모인 증분은 주기적으로 꺼내(sumThenReset) 영업일 행({@code daily_closing})에 한 번의 upsert로 더한다.
+ * 리포트는 {@link #read(LocalDate, Supplier)}로 영업일 행과 반영 전 증분을 합쳐 읽으므로 항상 최신이다.
+ * </p>
+ * <p>
+ * 프로세스가 비정상 종료되면 반영 전 증분(최대 반영 주기만큼)이 유실될 수 있으며,
+ * 마감 리포트 대사({@code DailyClosingService#reconcile})로 원본 판매에서 복구한다.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DailyClosingCounters implements DisposableBean {
+
+    private static final String UPSERT_DAILY_CLOSING = """
+            insert into daily_closing (business_date,
+                sale_count, sale_cash_amount, sale_card_amount, sale_point_amount,
+                refund_count, refund_cash_amount, refund_card_amount, refund_point_amount)
+            values (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            on duplicate key update
+                sale_count = sale_count + values(sale_count),
+                sale_cash_amount = sale_cash_amount + values(sale_cash_amount),
+                sale_card_amount = sale_card_amount + values(sale_card_amount),
+                sale_point_amount = sale_point_amount + values(sale_point_amount),
+                refund_count = refund_count + values(refund_count),
+                refund_cash_amount = refund_cash_amount + values(refund_cash_amount),
+                refund_card_amount = refund_card_amount + values(refund_card_amount),
+                refund_point_amount = refund_point_amount + values(refund_point_amount)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 영업일별 반영 전 증분. 영업일당 항목 1개만 생기므로 제거하지 않는다.
+     */
+    private final Map<LocalDate, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 판매 1건을 판매 일자에 더한다(커밋 후 반영).
+     *
+     * @param sale 판매
+     */
+    public void recordSale(Sale sale) {
+        LocalDate businessDate = sale.getSoldAt().toLocalDate();
+        long cash = sale.getCashAmount();
+        long card = sale.getCardAmount();
+        long point = sale.getPointAmount();
+        afterCommit(() -> countersOf(businessDate).addSale(cash, card, point));
+    }
+
+    /**
+     * 환불 1건을 환불 일자에 더한다(커밋 후 반영).
+     *
+     * @param sale 환불된 판매({@code refundedAt}이 설정되어 있어야 한다)
+     */
+    public void recordRefund(Sale sale) {
+        LocalDate businessDate = sale.getRefundedAt().toLocalDate();
+        long cash = sale.getCashAmount();
+        long card = sale.getCardAmount();
+        long point = sale.getPointAmount();
+        afterCommit(() -> countersOf(businessDate).addRefund(cash, card, point));
+    }
+
+    /**
+     * 영업일 행의 누적값에 반영 전 증분을 더해 현재 누적값을 읽는다.
+     * <p>
+     * 반영({@link #flush()})과 같은 락 안에서 읽으므로, 증분이 행으로 옮겨지는 도중에 읽어 누락되거나
+     * 두 번 더해지지 않는다.
+     * </p>
+     *
+     * @param businessDate 영업일
+     * @param persisted 영업일 행의 누적값을 읽는 함수
+     * @return 현재 누적값
+     */
+    public synchronized Totals read(LocalDate businessDate, Supplier<Totals> persisted) {
+        Counters pending = counters.get(businessDate);
+        Totals totals = persisted.get();
+        return pending == null ? totals : totals.plus(Totals.of(pending.sum()));
+    }
+
+    /**
+     * 반영 전 증분을 모두 반영한 뒤, 다음 반영이 끼어들지 않게 락을 잡은 채로 작업을 실행한다.
+     * <p>
+     * 영업일 행을 직접 고치는 작업(마감/대사)이 주기 반영과 엇갈려 증분을 덮어쓰지 않도록 한다.
+     * </p>
+     *
+     * @param action 실행할 작업(자체 트랜잭션에서 커밋까지 마쳐야 한다)
+     * @return 작업 결과
+     */
+    public synchronized <T> T flushThen(Supplier<T> action) {
+        flush();
+        return action.get();
+    }
+
+    /**
+     * 반영 전 증분을 영업일 행에 upsert 한다.
+     * <p>
+     * 꺼내는 동안 더해진 증분은 다음 반영에 포함된다. DB 반영에 실패하면 꺼낸 증분을 되돌려 놓는다.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${smartpos.closing.flush-interval:1s}")
+    public synchronized void flush() {
+        List<LocalDate> dates = new ArrayList<>();
+        List<long[]> drained = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+        counters.forEach((businessDate, pending) -> {
+            long[] values = pending.sumThenReset();
+            if (!isZero(values)) {
+                dates.add(businessDate);
+                drained.add(values);
+                rows.add(toRow(businessDate, values));
+            }
+        });
+        if (rows.isEmpty()) return;
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_DAILY_CLOSING, rows);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < dates.size(); i++) {
+                countersOf(dates.get(i)).add(drained.get(i));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 종료 시 남은 증분을 반영한다.
+     */
+    @Override
+    public void destroy() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("마감 카운터 증분을 반영하지 못했습니다. 마감 대사로 복구해야 합니다.", e);
+        }
+    }
+
+    private Counters countersOf(LocalDate businessDate) {
+        return counters.computeIfAbsent(businessDate, date -> new Counters());
+    }
+
+    private static Object[] toRow(LocalDate businessDate, long[] values) {
+        Object[] row = new Object[Counters.SIZE + 1];
+        row[0] = businessDate;
+        for (int i = 0; i < Counters.SIZE; i++) {
+            row[i + 1] = values[i];
+        }
+        return row;
+    }
+
+    private static boolean isZero(long[] values) {
+        for (long value : values) {
+            if (value != 0L) return false;
+        }
+        return true;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 영업일 누적값.
+     *
+     * @param saleCount 판매 영수증 수
+     * @param saleCashAmount 판매 현금 금액
+     * @param saleCardAmount 판매 카드 금액
+     * @param salePointAmount 판매 포인트 금액
+     * @param refundCount 환불 영수증 수
+     * @param refundCashAmount 환불 현금 금액
+     * @param refundCardAmount 환불 카드 금액
+     * @param refundPointAmount 환불 포인트 금액
+     */
+    public record Totals(
+            long saleCount, long saleCashAmount, long saleCardAmount, long salePointAmount,
+            long refundCount, long refundCashAmount, long refundCardAmount, long refundPointAmount
+    ) {
+        public static final Totals ZERO = new Totals(0, 0, 0, 0, 0, 0, 0, 0);
+
+        static Totals of(long[] values) {
+            return new Totals(values[0], values[1], values[2], values[3], values[4], values[5], values[6], values[7]);
+        }
+
+        Totals plus(Totals other) {
+            return new Totals(
+                    saleCount + other.saleCount,
+                    saleCashAmount + other.saleCashAmount,
+                    saleCardAmount + other.saleCardAmount,
+                    salePointAmount + other.salePointAmount,
+                    refundCount + other.refundCount,
+                    refundCashAmount + other.refundCashAmount,
+                    refundCardAmount + other.refundCardAmount,
+                    refundPointAmount + other.refundPointAmount
+            );
+        }
+    }
+
+    /**
+     * 영업일 1일의 누적 카운터.
+     * 값 순서: 판매 수, 판매 현금/카드/포인트, 환불 수, 환불 현금/카드/포인트 ({@code daily_closing} 컬럼 순서).
+     */
+    private static final class Counters {
+        static final int SIZE = 8;
+
+        private final LongAdder[] adders = new LongAdder[SIZE];
+
+        Counters() {
+            for (int i = 0; i < SIZE; i++) {
+                adders[i] = new LongAdder();
+            }
+        }
+
+        void addSale(long cash, long card, long point) {
+            adders[0].increment();
+            adders[1].add(cash);
+            adders[2].add(card);
+            adders[3].add(point);
+        }
+
+        void addRefund(long cash, long card, long point) {
+            adders[4].increment();
+            adders[5].add(cash);
+            adders[6].add(card);
+            adders[7].add(point);
+        }
+
+        void add(long[] values) {
+            for (int i = 0; i < SIZE; i++) {
+                adders[i].add(values[i]);
+            }
+        }
+
+        long[] sum() {
+            long[] values = new long[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                values[i] = adders[i].sum();
+            }
+            return values;
+        }
+
+        long[] sumThenReset() {
+            long[] values = new long[SIZE];
+            for (int i = 0; i < SIZE; i++) {
+                values[i] = adders[i].sumThenReset();
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.DailyClosingReconcileResponse;
+import com.github.maharong.smartpos.dto.DailyClosingResponse;
+import com.github.maharong.smartpos.entity.DailyClosing;
+import com.github.maharong.smartpos.enums.SaleStatus;
+import com.github.maharong.smartpos.repository.DailyClosingRepository;
+import com.github.maharong.smartpos.repository.SaleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+
+/**
+ * 영업일 마감(Z 리포트) 서비스.
+ *
+ * <ul>
+ *   <li>리포트는 영업일 행과 {@link DailyClosingCounters}의 반영 전 증분만 읽고, 판매 테이블은 스캔하지 않는다.</li>
+ *   <li>대사는 요청 시 원본 판매를 합산해 누적값과 비교하고, 다르면 원본 값으로 보정한다.</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DailyClosingService {
+
+    private final DailyClosingRepository dailyClosingRepository;
+    private final SaleRepository saleRepository;
+    private final DailyClosingCounters dailyClosingCounters;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 영업일의 마감 리포트를 조회한다(마감 전이면 현재까지의 실시간 누적값).
+     *
+     * @param businessDate 영업일
+     * @return 마감 리포트
+     */
+    public DailyClosingResponse getReport(LocalDate businessDate) {
+        DailyClosingCounters.Totals totals = dailyClosingCounters.read(businessDate,
+                () -> dailyClosingRepository.findByBusinessDate(businessDate).map(DailyClosingService::totalsOf)
+                        .orElse(DailyClosingCounters.Totals.ZERO));
+        LocalDateTime closedAt = dailyClosingRepository.findByBusinessDate(businessDate)
+                .map(DailyClosing::getClosedAt)
+                .orElse(null);
+        return DailyClosingResponse.of(businessDate, totals, closedAt);
+    }
+
+    /**
+     * 영업일을 마감한다.
+     * <p>
+     * 반영 전 증분을 영업일 행에 반영한 뒤 마감 시각을 기록한다. 이미 마감된 영업일이면 처음 마감 시각을 유지한다.
+     * 마감 시각 컬럼만 갱신하므로, 다른 노드가 그 사이에 반영한 누적값을 덮어쓰지 않는다.
+     * 마감 이후에 들어온 판매(오프라인 단말의 지연 등록 등)도 누적값에는 계속 반영된다.
+     * </p>
+     *
+     * @param businessDate 영업일
+     * @return 마감 리포트
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DailyClosingResponse close(LocalDate businessDate) {
+        dailyClosingCounters.flushThen(() -> transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (dailyClosingRepository.closeBusinessDate(businessDate, now) == 0) {
+                // 판매가 없었던 영업일
+                DailyClosing closing = new DailyClosing(businessDate);
+                closing.close(now);
+                dailyClosingRepository.save(closing);
+            }
+            return null;
+        }));
+        return getReport(businessDate);
+    }
+
+    /**
+     * 영업일 누적값을 원본 판매와 대사한다.
+     * <p>
+     * 판매 시각이 영업일인 판매(완료/환불)와 환불 시각이 영업일인 환불을 다시 합산해 누적값과 비교하고,
+     * 다르면 영업일 행을 원본 값으로 덮어쓴다. 대사 도중 커밋된 판매가 양쪽에 반영될 수 있으므로
+     * 영업이 끝난 일자에 사용한다.
+     * </p>
+     *
+     * @param businessDate 영업일
+     * @return 대사 결과
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DailyClosingReconcileResponse reconcile(LocalDate businessDate) {
+        return dailyClosingCounters.flushThen(() -> transactionTemplate.execute(status -> {
+            DailyClosing closing = findOrCreate(businessDate);
+            DailyClosingCounters.Totals recorded = totalsOf(closing);
+            DailyClosingCounters.Totals actual = sumSales(businessDate);
+
+            boolean matched = recorded.equals(actual);
+            if (!matched) {
+                closing.overwrite(
+                        actual.saleCount(), actual.saleCashAmount(), actual.saleCardAmount(), actual.salePointAmount(),
+                        actual.refundCount(), actual.refundCashAmount(), actual.refundCardAmount(), actual.refundPointAmount()
+                );
+            }
+            return new DailyClosingReconcileResponse(
+                    businessDate,
+                    matched,
+                    DailyClosingResponse.of(businessDate, recorded, closing.getClosedAt()),
+                    DailyClosingResponse.of(businessDate, actual, closing.getClosedAt())
+            );
+        }));
+    }
+
+    private DailyClosingCounters.Totals sumSales(LocalDate businessDate) {
+        LocalDateTime from = businessDate.atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        SaleRepository.PaymentTotalsProjection sold =
+                saleRepository.sumSoldBetween(from, to, EnumSet.of(SaleStatus.COMPLETED, SaleStatus.REFUNDED));
+        SaleRepository.PaymentTotalsProjection refunded = saleRepository.sumRefundedBetween(from, to);
+        return new DailyClosingCounters.Totals(
+                sold.getReceiptCount(), sold.getCashAmount(), sold.getCardAmount(), sold.getPointAmount(),
+                refunded.getReceiptCount(), refunded.getCashAmount(), refunded.getCardAmount(), refunded.getPointAmount()
+        );
+    }
+
+    private DailyClosing findOrCreate(LocalDate businessDate) {
+        return dailyClosingRepository.findByBusinessDate(businessDate)
+                .orElseGet(() -> dailyClosingRepository.save(new DailyClosing(businessDate)));
+    }
+
+    private static DailyClosingCounters.Totals totalsOf(DailyClosing closing) {
+        return new DailyClosingCounters.Totals(
+                closing.getSaleCount(), closing.getSaleCashAmount(), closing.getSaleCardAmount(), closing.getSalePointAmount(),
+                closing.getRefundCount(), closing.getRefundCashAmount(), closing.getRefundCardAmount(), closing.getRefundPointAmount()
+        );
+    }
+}
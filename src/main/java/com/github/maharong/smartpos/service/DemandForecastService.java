@@ -0,0 +1,294 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.config.ForecastProperties;
+import com.github.maharong.smartpos.dto.DemandForecastPointResponse;
+import com.github.maharong.smartpos.dto.DemandForecastResponse;
+import com.github.maharong.smartpos.dto.ForecastRefreshResponse;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품별 일간 수요 예측 서비스.
+ * <p>
+ * 상품별 일자 집계({@code product_daily_sales}, 판매/환불 시 증분 갱신)를 한 번 훑어 상품마다
+ * {@code historyDays}일 길이의 {@code double[]} 계열로 만들고, 주간 계절성 Holt-Winters 모델
+ * ({@link HoltWintersModel})을 전용 fork-join 풀에서 상품 구간 단위로 나누어 병렬로 맞춘다.
+ * </p>
+ *
+ * <ul>
+ *   <li>직전 갱신 이후의 날짜만큼 계열을 더 읽어, 직전 계열의 지문(일별 판매량 해시)이 그대로인 상품은
+ *       새 날짜의 판매량으로 모델 상태만 전진시킨다(같은 기준일이면 그대로 쓴다).
+ *       늦게 들어온 판매·환불·집계 재계산으로 과거 계열이 바뀐 상품과 새로 판매된 상품만 계수부터 다시 맞춘다.</li>
+ *   <li>기간에 판매가 없는 상품은 모델을 만들지 않고 예상 수요 0으로 응답한다.</li>
+ *   <li>예측 조회는 메모리의 모델만 읽는다. 아직 갱신한 적이 없으면 오늘 기준으로 한 번 갱신한다.</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class DemandForecastService implements DisposableBean {
+
+    /**
+     * fork-join 작업 하나가 직접 맞출 최대 상품 수.
+     */
+    private static final int FIT_THRESHOLD = 256;
+
+    private static final String SELECT_DAILY_QUANTITIES = """
+            select product_id, sales_date, quantity
+            from product_daily_sales
+            where sales_date between ? and ?
+              and quantity > 0
+            order by product_id, sales_date
+            """;
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ForecastProperties properties;
+    private final ForkJoinPool pool;
+
+    /**
+     * 마지막으로 갱신한 예측(기준일, 상품 ID → 모델). 갱신 시 통째로 교체한다.
+     */
+    private volatile Forecasts forecasts;
+
+    public DemandForecastService(
+            ProductRepository productRepository,
+            JdbcTemplate jdbcTemplate,
+            ForecastProperties properties
+    ) {
+        if (properties.historyDays() < 2 * HoltWintersModel.SEASON) {
+            throw new IllegalStateException("smartpos.forecast.history-days는 "
+                    + 2 * HoltWintersModel.SEASON + " 이상이어야 합니다. historyDays=" + properties.historyDays());
+        }
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(properties.parallelism() > 0
+                ? properties.parallelism()
+                : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 자정 이후 오늘 기준으로 예측을 갱신한다.
+     */
+    @Scheduled(cron = "${smartpos.forecast.refresh-cron:0 40 0 * * *}")
+    public void refreshDaily() {
+        ForecastRefreshResponse result = refresh(LocalDate.now());
+        log.info("수요 예측 갱신 완료: 기준일={}, 상품 {}개, 재적합 {}개, 상태 전진 {}개, {}ms",
+                result.baseDate(), result.productCount(), result.refittedCount(), result.advancedCount(),
+                result.elapsedMillis());
+    }
+
+    /**
+     * 기준일 전날까지의 판매로 상품별 모델을 갱신한다.
+     * <p>
+     * 직전 기준일부터 이번 기준일까지 지난 날수를 {@code d}라 하면, 직전 계열의 첫날부터 이번 기준일 전날까지
+     * {@code historyDays + d}일을 읽는다. 앞 {@code historyDays}일의 지문이 직전 모델의 지문과 같으면 뒤 {@code d}일로 상태만 전진시키고,
+     * 다르면(과거 판매가 바뀌었으면) 이번 계열로 계수부터 다시 맞춘다.
+     * 직전 갱신이 없거나, 기준일이 뒤로 갔거나, {@code historyDays}일 넘게 지났으면 모두 다시 맞춘다.
+     * </p>
+     *
+     * @param baseDate 예측 기준일
+     * @return 갱신 결과
+     */
+    public synchronized ForecastRefreshResponse refresh(LocalDate baseDate) {
+        long start = System.nanoTime();
+        int historyDays = properties.historyDays();
+
+        Forecasts previous = forecasts;
+        long elapsedDays = previous == null ? -1 : ChronoUnit.DAYS.between(previous.baseDate(), baseDate);
+        boolean carryOver = elapsedDays >= 0 && elapsedDays <= historyDays;
+        int newDays = carryOver ? (int) elapsedDays : 0;
+        Map<Long, Fitted> reusable = carryOver ? previous.models() : Map.of();
+        Series series = loadSeries(baseDate, newDays);
+
+        List<Long> productIds = new ArrayList<>();
+        List<double[]> windows = new ArrayList<>();
+        List<Fitted> carried = new ArrayList<>();
+        List<Integer> stale = new ArrayList<>();
+        int advanced = 0;
+        for (int i = 0; i < series.productIds().size(); i++) {
+            double[] loaded = series.values().get(i);
+            double[] window = newDays == 0 ? loaded : Arrays.copyOfRange(loaded, newDays, loaded.length);
+            if (Arrays.stream(window).allMatch(value -> value == 0)) {
+                continue; // 새로 읽은 날에만 판매가 있던 상품(이번 기간에는 판매 없음)
+            }
+
+            Fitted existing = reusable.get(series.productIds().get(i));
+            Fitted current = null;
+            if (existing != null && existing.fingerprint() == fingerprint(loaded, 0, historyDays)) {
+                HoltWintersModel model = existing.model();
+                for (int day = historyDays; day < loaded.length; day++) {
+                    model = model.advance(loaded[day]);
+                }
+                current = new Fitted(fingerprint(window, 0, historyDays), model);
+                if (newDays > 0) advanced++;
+            } else {
+                stale.add(productIds.size());
+            }
+            productIds.add(series.productIds().get(i));
+            windows.add(window);
+            carried.add(current);
+        }
+
+        int size = productIds.size();
+        Fitted[] fitted = carried.toArray(new Fitted[0]);
+        int[] targets = stale.stream().mapToInt(Integer::intValue).toArray();
+        pool.invoke(new FitTask(windows, fitted, targets, 0, targets.length));
+
+        Map<Long, Fitted> models = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            models.put(productIds.get(i), fitted[i]);
+        }
+        forecasts = new Forecasts(baseDate, Map.copyOf(models));
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new ForecastRefreshResponse(baseDate, size, targets.length, advanced, elapsedMillis);
+    }
+
+    /**
+     * 상품의 앞으로 {@code days}일 예상 수요와 예측 구간을 조회한다.
+     *
+     * @param productId 상품 ID
+     * @param days 예측 일수
+     * @return 일자별 예상 수요
+     * @throws IllegalArgumentException 상품이 없거나 예측 일수가 범위를 벗어난 경우
+     */
+    public DemandForecastResponse getForecast(Long productId, int days) {
+        if (days < 1 || days > properties.maxHorizonDays()) {
+            throw new IllegalArgumentException(
+                    "예측 일수는 1~" + properties.maxHorizonDays() + " 사이여야 합니다. days=" + days);
+        }
+        if (!productRepository.existsById(productId)) {
+            throw new IllegalArgumentException("상품을 찾을 수 없습니다. id=" + productId);
+        }
+
+        Forecasts current = forecasts;
+        if (current == null) {
+            refresh(LocalDate.now());
+            current = forecasts;
+        }
+
+        Fitted fitted = current.models().get(productId);
+        List<DemandForecastPointResponse> points = new ArrayList<>(days);
+        double total = 0;
+        for (int h = 1; h <= days; h++) {
+            LocalDate date = current.baseDate().plusDays(h - 1);
+            if (fitted == null) {
+                points.add(new DemandForecastPointResponse(date, 0, 0, 0));
+                continue;
+            }
+            double expected = fitted.model().expected(h);
+            double margin = properties.intervalZ() * fitted.model().standardError(h);
+            points.add(new DemandForecastPointResponse(date, expected, Math.max(0, expected - margin), expected + margin));
+            total += expected;
+        }
+        return new DemandForecastResponse(productId, current.baseDate(), total, points);
+    }
+
+    /**
+     * 기준일 전날까지 {@code historyDays + extraDays}일의 일별 판매량을 상품별 계열로 읽는다(판매가 있었던 상품만).
+     */
+    private Series loadSeries(LocalDate baseDate, int extraDays) {
+        int length = properties.historyDays() + extraDays;
+        LocalDate from = baseDate.minusDays(length);
+        List<Long> productIds = new ArrayList<>();
+        List<double[]> values = new ArrayList<>();
+
+        jdbcTemplate.query(SELECT_DAILY_QUANTITIES, rs -> {
+            long productId = rs.getLong(1);
+            if (productIds.isEmpty() || productIds.get(productIds.size() - 1) != productId) {
+                productIds.add(productId);
+                values.add(new double[length]);
+            }
+            int day = (int) ChronoUnit.DAYS.between(from, rs.getDate(2).toLocalDate());
+            values.get(values.size() - 1)[day] = rs.getLong(3);
+        }, Date.valueOf(from), Date.valueOf(baseDate.minusDays(1)));
+
+        return new Series(productIds, values);
+    }
+
+    private static long fingerprint(double[] values, int from, int to) {
+        // FNV-1a(64비트)
+        long hash = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            hash ^= Double.doubleToLongBits(values[i]);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 계열 목록의 {@code targets[from, to)} 구간을 맞추고, 크면 반으로 나누어 병렬로 처리한다.
+     */
+    private static final class FitTask extends RecursiveAction {
+
+        private final List<double[]> values;
+        private final Fitted[] fitted;
+        private final int[] targets;
+        private final int from;
+        private final int to;
+
+        FitTask(List<double[]> values, Fitted[] fitted, int[] targets, int from, int to) {
+            this.values = values;
+            this.fitted = fitted;
+            this.targets = targets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    int index = targets[i];
+                    double[] series = values.get(index);
+                    fitted[index] = new Fitted(fingerprint(series, 0, series.length), HoltWintersModel.fit(series));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new FitTask(values, fitted, targets, from, mid),
+                    new FitTask(values, fitted, targets, mid, to));
+        }
+    }
+
+    /**
+     * 상품별 일별 판매량 계열(상품 ID 오름차순).
+     */
+    private record Series(List<Long> productIds, List<double[]> values) {
+    }
+
+    /**
+     * 모델과 모델이 마지막으로 반영한 {@code historyDays}일 계열의 지문.
+     */
+    private record Fitted(long fingerprint, HoltWintersModel model) {
+    }
+
+    /**
+     * 기준일과 상품 ID → 모델.
+     */
+    private record Forecasts(LocalDate baseDate, Map<Long, Fitted> models) {
+    }
+}
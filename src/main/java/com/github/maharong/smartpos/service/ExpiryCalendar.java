@@ -0,0 +1,129 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.repository.InventoryBatchRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * 유통기한 날짜별로 배치가 있는 상품을 모아 둔 인메모리 유통기한 달력.
+ * <p>
+ * 자정 만료 폐기({@link ExpirySweeper})가 배치 테이블을 다시 훑지 않고 지난 날짜의 상품만 골라 처리하도록 한다.
+ * 기동 시 DB에서 다시 만들고, 이후 입고는 커밋 후 반영한다. 출고로 수량이 0이 되어도 항목을 지우지 않으며
+ * (폐기 쿼리가 수량이 남은 배치만 대상으로 함), 해당 날짜가 폐기된 뒤에 지운다.
+ * </p>
+ * <p>
+ * 날짜·상품 수만큼만 보관하므로 배치 수와 관계없이 작다. 폐기 도중 같은 날짜에 들어온 입고는
+ * 다음 폐기 때 처리된다.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ExpiryCalendar {
+
+    private final InventoryBatchRepository inventoryBatchRepository;
+
+    /**
+     * 유통기한 날짜 → 상품 ID. 접근은 모두 이 객체의 락 안에서 한다.
+     */
+    private final NavigableMap<LocalDate, NavigableSet<Long>> buckets = new TreeMap<>();
+
+    /**
+     * 기동 시 DB의 배치로 달력을 채운다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<InventoryBatchRepository.ExpiryBucketProjection> rows =
+                inventoryBatchRepository.findExpiryBuckets(LocalDate.now());
+        synchronized (this) {
+            for (InventoryBatchRepository.ExpiryBucketProjection row : rows) {
+                add(row.getExpiryDate(), row.getProductId());
+            }
+            log.info("유통기한 달력을 적재했습니다. 날짜 {}개, 항목 {}개", buckets.size(), rows.size());
+        }
+    }
+
+    /**
+     * 입고 배치를 달력에 올린다(커밋 후 반영).
+     *
+     * @param expiryDate 유통기한
+     * @param productId 상품 ID
+     */
+    public void registerAfterCommit(LocalDate expiryDate, Long productId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                add(expiryDate, productId);
+            }
+        });
+    }
+
+    /**
+     * 기준일 이전(폐기 대상)인 유통기한 날짜를 오래된 순으로 반환한다.
+     *
+     * @param today 만료 판단 기준일
+     * @return 유통기한 날짜 목록
+     */
+    public synchronized List<LocalDate> dueDates(LocalDate today) {
+        return new ArrayList<>(buckets.headMap(today, false).keySet());
+    }
+
+    /**
+     * 유통기한 날짜에 배치가 있는 상품 ID를 오름차순으로 반환한다.
+     *
+     * @param expiryDate 유통기한
+     * @return 상품 ID 목록(없으면 빈 목록)
+     */
+    public synchronized List<Long> productIds(LocalDate expiryDate) {
+        NavigableSet<Long> productIds = buckets.get(expiryDate);
+        return productIds == null ? List.of() : new ArrayList<>(productIds);
+    }
+
+    /**
+     * 폐기를 마친 상품을 유통기한 날짜에서 지운다. 남은 상품이 없으면 날짜도 지운다.
+     *
+     * @param expiryDate 유통기한
+     * @param productIds 폐기를 마친 상품 ID 목록
+     */
+    public synchronized void remove(LocalDate expiryDate, Collection<Long> productIds) {
+        NavigableSet<Long> bucket = buckets.get(expiryDate);
+        if (bucket == null) return;
+        bucket.removeAll(productIds);
+        if (bucket.isEmpty()) {
+            buckets.remove(expiryDate);
+        }
+    }
+
+    /**
+     * 기준일 이전의 유통기한 날짜를 모두 지운다(일괄 폐기 후).
+     *
+     * @param baseDate 기준일(이 날짜 이전을 지움)
+     */
+    public synchronized void removeBefore(LocalDate baseDate) {
+        buckets.headMap(baseDate, false).clear();
+    }
+
+    private void add(LocalDate expiryDate, Long productId) {
+        buckets.computeIfAbsent(expiryDate, date -> new TreeSet<>()).add(productId);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.config.InventoryProperties;
+import com.github.maharong.smartpos.dto.DisposeExpiredResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 자정 직후 지난 유통기한 날짜의 배치를 자동으로 폐기하는 서비스.
+ * <p>
+ * 폐기 대상은 {@link ExpiryCalendar}에서 골라 배치 테이블을 다시 훑지 않는다. 날짜마다 상품을
+ * {@code chunkSize}개씩 나누어 구간마다 별도 트랜잭션으로 폐기하고({@link InventoryService#disposeExpiredChunk}),
+ * 구간 사이에는 {@code chunkPause}만큼 쉬어 판매 트랜잭션과 DB를 나눠 쓴다.
+ * {@code offPeakEnd}가 지나면 남은 구간을 달력에 그대로 두고 멈추며, 다음 실행에서 이어서 처리한다.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExpirySweeper {
+
+    private static final String NOTE = "유통기한 만료 자동 폐기";
+
+    private final ExpiryCalendar expiryCalendar;
+    private final InventoryService inventoryService;
+    private final InventoryProperties inventoryProperties;
+    private final Optional<InMemoryInventoryEngine> inventoryEngine;
+
+    /**
+     * 오늘 이전 유통기한 날짜를 폐기한다.
+     */
+    @Scheduled(cron = "${smartpos.inventory.sweeper.cron:0 10 0 * * *}")
+    public void sweepExpired() {
+        LocalDate today = LocalDate.now();
+        DisposeExpiredResponse result = sweep(today, today.atTime(inventoryProperties.sweeper().offPeakEnd()));
+        log.info("만료 배치 자동 폐기 완료: 기준일={}, 배치 {}개, 수량 {}",
+                result.baseDate(), result.batchCount(), result.totalDisposedQuantity());
+    }
+
+    /**
+     * 기준일 이전 유통기한 날짜를 오래된 순으로 폐기한다.
+     *
+     * @param today 만료 판단 기준일(오늘)
+     * @param deadline 이 시각이 지나면 남은 구간을 다음 실행으로 미룸
+     * @return 처리 결과(기준일, 처리 배치 수, 폐기 수량 합계)
+     */
+    public DisposeExpiredResponse sweep(LocalDate today, LocalDateTime deadline) {
+        InventoryProperties.Sweeper properties = inventoryProperties.sweeper();
+        int chunkSize = Math.max(1, properties.chunkSize());
+        int chunks = 0;
+        int batchCount = 0;
+        long totalDisposed = 0;
+
+        sweep:
+        for (LocalDate expiryDate : expiryCalendar.dueDates(today)) {
+            List<Long> productIds = expiryCalendar.productIds(expiryDate);
+            for (int from = 0; from < productIds.size(); from += chunkSize) {
+                boolean proceed = (chunks++ == 0 || pause(properties.chunkPause()))
+                        && LocalDateTime.now().isBefore(deadline);
+                if (!proceed) {
+                    log.warn("만료 배치 자동 폐기를 중단합니다. 남은 구간은 다음 실행에서 처리합니다. expiryDate={}", expiryDate);
+                    break sweep;
+                }
+                List<Long> chunk = productIds.subList(from, Math.min(from + chunkSize, productIds.size()));
+                InventoryService.DisposedChunk disposed = inventoryService.disposeExpiredChunk(
+                        expiryDate, chunk.get(0), chunk.get(chunk.size() - 1), NOTE);
+                expiryCalendar.remove(expiryDate, chunk);
+
+                batchCount += disposed.batchCount();
+                totalDisposed += disposed.quantity();
+            }
+        }
+
+        inventoryEngine.ifPresent(engine -> engine.dropExpiredAfterCommit(today));
+        return new DisposeExpiredResponse(today, batchCount, Math.toIntExact(totalDisposed));
+    }
+
+    /**
+     * 구간 사이에 쉰다.
+     *
+     * @return 중단 요청 없이 계속할 수 있으면 true
+     */
+    private static boolean pause(Duration chunkPause) {
+        if (chunkPause.isZero()) return true;
+        try {
+            Thread.sleep(chunkPause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.maharong.smartpos.service;
+
+/**
+ * 주간 계절성(7일)을 가진 가법 Holt-Winters 지수평활 모델.
+ * <p>
+ * 평활 계수(α, β, γ)는 작은 격자에서 1단계 예측 오차 제곱합이 가장 작은 조합으로 고른다.
+ * 적합이 끝나면 마지막 관측 시점의 수준·추세·계절 성분과 잔차 제곱합만 남기므로 상품당 수십 바이트다.
+ * </p>
+ * <p>
+ * 새 관측값이 하루치 들어오면 {@link #advance(double)}로 같은 계수를 써서 상태만 한 단계 전진시킬 수 있다.
+ * </p>
+ */
+final class HoltWintersModel {
+
+    static final int SEASON = 7;
+
+    private static final double[] ALPHAS = {0.05, 0.1, 0.2, 0.3, 0.5, 0.7};
+    private static final double[] BETAS = {0.0, 0.05, 0.1, 0.2};
+    private static final double[] GAMMAS = {0.05, 0.1, 0.2, 0.3, 0.5};
+
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    private final double level;
+    private final double trend;
+    private final double[] seasonal; // 다음 예측 1일차부터의 계절 성분
+    private final double sse;        // 1단계 예측 오차 제곱합
+    private final int errorCount;    // sse에 들어간 예측 횟수
+
+    private HoltWintersModel(double alpha, double beta, double gamma,
+                             double level, double trend, double[] seasonal, double sse, int errorCount) {
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.level = level;
+        this.trend = trend;
+        this.seasonal = seasonal;
+        this.sse = sse;
+        this.errorCount = errorCount;
+    }
+
+    /**
+     * 일별 판매량 계열에 모델을 맞춘다.
+     *
+     * @param series 오래된 날부터의 일별 판매량(길이는 {@link #SEASON}의 2배 이상)
+     * @return 적합된 모델
+     */
+    static HoltWintersModel fit(double[] series) {
+        if (series.length < 2 * SEASON) {
+            throw new IllegalArgumentException("계열 길이가 너무 짧습니다. length=" + series.length);
+        }
+        double[] state = new double[2 + SEASON];
+        double bestSse = Double.MAX_VALUE;
+        double bestAlpha = 0, bestBeta = 0, bestGamma = 0;
+        for (double alpha : ALPHAS) {
+            for (double beta : BETAS) {
+                for (double gamma : GAMMAS) {
+                    double sse = smooth(series, alpha, beta, gamma, state);
+                    if (sse < bestSse) {
+                        bestSse = sse;
+                        bestAlpha = alpha;
+                        bestBeta = beta;
+                        bestGamma = gamma;
+                    }
+                }
+            }
+        }
+
+        smooth(series, bestAlpha, bestBeta, bestGamma, state);
+        // 계절 성분을 다음 날(예측 1일차) 기준으로 돌려 둔다.
+        double[] seasonal = new double[SEASON];
+        for (int h = 0; h < SEASON; h++) {
+            seasonal[h] = state[2 + (series.length + h) % SEASON];
+        }
+        return new HoltWintersModel(bestAlpha, bestBeta, bestGamma, state[0], state[1], seasonal,
+                bestSse, series.length - SEASON);
+    }
+
+    /**
+     * 다음 날의 관측값을 반영해 상태를 한 단계 전진시킨 모델을 반환한다.
+     * <p>
+     * 평활 계수는 다시 고르지 않고 적합 때의 값을 그대로 쓴다. 잔차 제곱합에는 이 날의 1단계 예측 오차를 더한다.
+     * </p>
+     *
+     * @param observation 예측 1일차에 해당하는 날의 실제 판매량
+     * @return 전진한 모델
+     */
+    HoltWintersModel advance(double observation) {
+        double season = seasonal[0];
+        double error = observation - (level + trend + season);
+
+        double nextLevel = alpha * (observation - season) + (1 - alpha) * (level + trend);
+        double nextTrend = beta * (nextLevel - level) + (1 - beta) * trend;
+        double[] nextSeasonal = new double[SEASON];
+        System.arraycopy(seasonal, 1, nextSeasonal, 0, SEASON - 1);
+        nextSeasonal[SEASON - 1] = gamma * (observation - nextLevel) + (1 - gamma) * season;
+
+        return new HoltWintersModel(alpha, beta, gamma, nextLevel, nextTrend, nextSeasonal,
+                sse + error * error, errorCount + 1);
+    }
+
+    /**
+     * h일 후의 예상 판매량(0 미만은 0).
+     *
+     * @param h 예측 일차(1부터)
+     */
+    double expected(int h) {
+        return Math.max(0, level + h * trend + seasonal[(h - 1) % SEASON]);
+    }
+
+    /**
+     * h일 후 예측 오차의 표준편차.
+     * <p>
+     * 가법 Holt-Winters의 근사식 σ²(1 + Σ c_j²), c_j = α(1 + jβ) + γ·[j가 주기의 배수]를 쓴다.
+     * </p>
+     *
+     * @param h 예측 일차(1부터)
+     */
+    double standardError(int h) {
+        double sum = 1;
+        for (int j = 1; j < h; j++) {
+            double c = alpha * (1 + j * beta) + (j % SEASON == 0 ? gamma : 0);
+            sum += c * c;
+        }
+        return Math.sqrt(sse / errorCount) * Math.sqrt(sum);
+    }
+
+    /**
+     * 주어진 계수로 계열을 평활하고 1단계 예측 오차 제곱합을 반환한다.
+     * 끝난 뒤의 상태(수준, 추세, 계절 성분)는 {@code state}에 남긴다.
+     */
+    private static double smooth(double[] y, double alpha, double beta, double gamma, double[] state) {
+        // 초기값: 첫 주 평균을 수준, 첫 두 주 평균 차이를 추세, 첫 주 편차를 계절 성분으로 둔다.
+        double firstWeek = 0, secondWeek = 0;
+        for (int i = 0; i < SEASON; i++) {
+            firstWeek += y[i];
+            secondWeek += y[SEASON + i];
+        }
+        firstWeek /= SEASON;
+        secondWeek /= SEASON;
+
+        double level = firstWeek;
+        double trend = (secondWeek - firstWeek) / SEASON;
+        for (int i = 0; i < SEASON; i++) {
+            state[2 + i] = y[i] - firstWeek;
+        }
+
+        double sse = 0;
+        for (int t = SEASON; t < y.length; t++) {
+            int slot = 2 + t % SEASON;
+            double season = state[slot];
+            double error = y[t] - (level + trend + season);
+            sse += error * error;
+
+            double nextLevel = alpha * (y[t] - season) + (1 - alpha) * (level + trend);
+            trend = beta * (nextLevel - level) + (1 - beta) * trend;
+            state[slot] = gamma * (y[t] - nextLevel) + (1 - gamma) * season;
+            level = nextLevel;
+        }
+        state[0] = level;
+        state[1] = trend;
+        return sse;
+    }
+}
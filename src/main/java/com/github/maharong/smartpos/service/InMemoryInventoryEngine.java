@@ -0,0 +1,661 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.config.InventoryProperties;
+import com.github.maharong.smartpos.dto.InventorySummaryResponse;
+import com.github.maharong.smartpos.dto.ProductResponse;
+import com.github.maharong.smartpos.entity.InventoryJournalCheckpoint;
+import com.github.maharong.smartpos.entity.Product;
+import com.github.maharong.smartpos.enums.ProductStatus;
+import com.github.maharong.smartpos.event.ProductChangedEvent;
+import com.github.maharong.smartpos.repository.InventoryBatchRepository;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 판매 가능 배치를 메모리에 보관하고 판매 차감/재고 요약을 DB 없이 처리하는 인메모리 재고 엔진.
+ * <p>
+ * {@code smartpos.inventory.engine.enabled=true}일 때만 활성화되며, 활성화되면
+ * {@link InventoryService}의 판매 출고와 재고 요약 조회가 이 엔진을 사용한다.
+ * </p>
+ *
+ * <ul>
+ *   <li>상품별로 배치를 유통기한 기준 최소 힙에 보관하고, 수량은 원시 타입 필드로 관리한다.</li>
+ *   <li>기동 시 {@link InventoryBatchRepository}에서 수량이 남아있는 배치를 모두 적재한다.</li>
+ *   <li>판매 차감은 메모리에서 즉시 반영하고, 커밋 직전 저널 파일에 기록한 뒤
+ *       별도 스레드가 커밋 순서대로 묶어 DB에 비동기로 반영한다(write-behind).</li>
+ *   <li>저널 기록과 함께 판매 트랜잭션 안에서 저널 토큰을 DB에 넣어, 재시작 시 커밋된 판매의 차감만 다시 반영한다.</li>
+ *   <li>트랜잭션이 롤백되면 메모리 차감을 되돌린다.</li>
+ * </ul>
+ *
+ * <p>DB의 배치 수량은 반영 주기만큼 늦게 따라오므로, 배치 목록 조회 등 DB를 직접 읽는 기능은
+ * 최근 판매 차감이 아직 반영되지 않은 값을 보여줄 수 있다.</p>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "smartpos.inventory.engine", name = "enabled", havingValue = "true")
+public class InMemoryInventoryEngine implements SmartInitializingSingleton, DisposableBean {
+
+    private static final int LOCK_CHUNK_SIZE = 1_000;
+
+    private static final Comparator<BatchSlot> FEFO = Comparator
+            .comparingLong((BatchSlot slot) -> slot.expiryEpochDay)
+            .thenComparingLong(slot -> slot.batchId);
+
+    private final ProductRepository productRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryProperties.Engine properties;
+
+    private final ConcurrentHashMap<Long, ProductStock> stocks = new ConcurrentHashMap<>();
+    private final InventoryJournal journal;
+    private final AtomicLong tokens = new AtomicLong();
+    private final ConcurrentLinkedQueue<InventoryJournal.Group> committed = new ConcurrentLinkedQueue<>();
+    private final Map<Long, List<InventoryJournal.Deduction>> inFlight = new LinkedHashMap<>(); // journalLock
+    private final Object journalLock = new Object();
+    private final Object flushLock = new Object();
+    private long lastSeq;       // journalLock
+    private boolean dirty;      // journalLock
+    private ScheduledExecutorService flusher;
+
+    public InMemoryInventoryEngine(
+            ProductRepository productRepository,
+            InventoryBatchRepository inventoryBatchRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            InventoryProperties inventoryProperties
+    ) {
+        this.productRepository = productRepository;
+        this.inventoryBatchRepository = inventoryBatchRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = inventoryProperties.engine();
+        this.journal = new InventoryJournal(properties.journalPath());
+    }
+
+    /**
+     * 저널에 남은 차감을 DB에 반영한 뒤 DB에서 재고를 적재하고, write-behind 스레드를 시작한다.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        long checkpoint = readCheckpoint();
+        Set<Long> committedTokens = readCommittedTokens();
+        InventoryJournal.Recovery recovery = journal.recover(checkpoint, committedTokens);
+        if (recovery.discarded() > 0) {
+            log.info("재고 저널에서 커밋되지 않은 판매의 차감 {}건을 버립니다.", recovery.discarded());
+        }
+        if (!recovery.pending().isEmpty()) {
+            log.info("재고 저널에서 미반영 차감 {}건을 복구합니다. (커밋 여부 미기록 {}건 포함)",
+                    recovery.pending().size(), recovery.unresolved());
+            for (int from = 0; from < recovery.pending().size(); from += properties.flushBatchSize()) {
+                int to = Math.min(from + properties.flushBatchSize(), recovery.pending().size());
+                writeToDatabase(recovery.pending().subList(from, to));
+            }
+        }
+        // 반영된 토큰은 위에서 지워졌다. 남은 토큰은 저널에 차감 기록이 없어 반영할 수 없으므로,
+        // 비워서 저널을 새로 시작한 뒤의 토큰 번호와 겹치지 않게 한다.
+        jdbcTemplate.update("delete from inventory_journal_token");
+        tokens.set(recovery.lastToken());
+        lastSeq = recovery.lastSeq();
+
+        journal.open();
+        journal.truncate();
+        load();
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "inventory-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.flushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 종료 시 남은 차감을 모두 DB에 반영하고 저널을 닫는다.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        flush();
+        synchronized (journalLock) {
+            journal.close();
+        }
+    }
+
+    /**
+     * 여러 상품의 요청 수량을 FEFO로 배치에 할당하고 메모리 재고에서 차감한다.
+     * <p>
+     * 대상 상품을 상품 ID 오름차순으로 잠근 뒤 모든 상품의 할당 가능 여부를 먼저 확인하고,
+     * 하나라도 부족하면 아무것도 차감하지 않고 예외를 발생시킨다.
+     * 현재 트랜잭션이 롤백되면 차감을 되돌린다.
+     * </p>
+     *
+     * @param requested 상품 ID별 요청 수량
+     * @param baseDate 만료 여부 판단 기준일({@code null}이면 만료 배치도 할당 대상)
+     * @param writeBehind 판매 차감 여부. {@code true}면 커밋 시 저널에 기록하고 DB에 비동기로 반영하며,
+     *                    {@code false}면 호출자가 같은 트랜잭션에서 DB 배치를 직접 차감한다.
+     * @return 배치별 할당 목록
+     * @throws IllegalStateException 재고가 부족한 상품이 있는 경우
+     */
+    public List<Allocation> allocate(Map<Long, Integer> requested, LocalDate baseDate, boolean writeBehind) {
+        long baseDay = (baseDate == null) ? Long.MIN_VALUE : baseDate.toEpochDay();
+        TreeMap<Long, Integer> sorted = new TreeMap<>(requested);
+
+        List<ProductStock> locked = new ArrayList<>();
+        List<Plan> plans = new ArrayList<>();
+        try {
+            for (Long productId : sorted.keySet()) {
+                ProductStock stock = stocks.computeIfAbsent(productId, ProductStock::new);
+                stock.lock.lock();
+                locked.add(stock);
+            }
+
+            for (int i = 0; i < locked.size(); i++) {
+                ProductStock stock = locked.get(i);
+                int quantity = sorted.get(stock.productId);
+                Plan plan = stock.plan(quantity, baseDay);
+                plans.add(plan);
+                if (plan.remaining > 0) {
+                    plans.forEach(Plan::cancel);
+                    throw new IllegalStateException((writeBehind ? "재고 부족(판매): productId=" : "재고 부족: productId=")
+                            + stock.productId + ", 요청=" + quantity + ", 부족=" + plan.remaining);
+                }
+            }
+
+            List<Allocation> allocations = new ArrayList<>();
+            for (Plan plan : plans) {
+                allocations.addAll(plan.apply());
+            }
+            registerCompletion(allocations, writeBehind);
+            return allocations;
+        } finally {
+            for (int i = locked.size() - 1; i >= 0; i--) {
+                locked.get(i).lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 특정 상품의 판매 가능 재고 요약을 반환한다.
+     *
+     * @param productId 상품 ID
+     * @param today 만료 여부 판단 기준일
+     * @return 재고 요약(엔진이 모르는 상품이면 빈 값)
+     */
+    public Optional<InventorySummaryResponse> getSummary(Long productId, LocalDate today) {
+        ProductStock stock = stocks.get(productId);
+        if (stock == null || stock.name == null) return Optional.empty();
+        return Optional.of(stock.toSummary(today.toEpochDay()));
+    }
+
+    /**
+     * 특정 상태 상품들의 판매 가능 재고 요약을 상품명 오름차순으로 반환한다.
+     *
+     * @param status 상품 상태
+     * @param today 만료 여부 판단 기준일
+     * @return 재고 요약 목록
+     */
+    public List<InventorySummaryResponse> getAllSummaries(ProductStatus status, LocalDate today) {
+        long todayEpochDay = today.toEpochDay();
+        return stocks.values().stream()
+                .filter(stock -> stock.name != null && stock.status == status)
+                .map(stock -> stock.toSummary(todayEpochDay))
+                .sorted(Comparator.comparing(InventorySummaryResponse::productName))
+                .toList();
+    }
+
+    /**
+     * 커밋 이후 새 배치를 엔진에 추가한다.
+     *
+     * @param batchId 배치 ID
+     * @param productId 상품 ID
+     * @param expiryDate 유통기한
+     * @param quantity 수량
+     */
+    public void addBatchAfterCommit(Long batchId, Long productId, LocalDate expiryDate, int quantity) {
+        afterCommit(() -> {
+            ProductStock stock = stocks.computeIfAbsent(productId, ProductStock::new);
+            stock.lock.lock();
+            try {
+                stock.add(batchId, expiryDate.toEpochDay(), quantity);
+            } finally {
+                stock.lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * 커밋 이후 환불로 재입고된 할당 수량을 엔진 재고에 되돌린다.
+     *
+     * @param allocations 재입고할 배치별 수량
+     */
+    public void restoreAfterCommit(List<Allocation> allocations) {
+        afterCommit(() -> restore(allocations));
+    }
+
+    /**
+     * 커밋 이후 기준일 이전에 만료된 배치를 엔진에서 제거한다(폐기 처리 반영).
+     *
+     * @param baseDate 만료 판단 기준일(이 날짜 이전이 만료)
+     */
+    public void dropExpiredAfterCommit(LocalDate baseDate) {
+        long baseDay = baseDate.toEpochDay();
+        afterCommit(() -> {
+            for (ProductStock stock : stocks.values()) {
+                stock.lock.lock();
+                try {
+                    stock.dropExpired(baseDay);
+                } finally {
+                    stock.lock.unlock();
+                }
+            }
+        });
+    }
+
+    /**
+     * 대기 중인 판매 차감을 모두 DB에 반영하고 저널을 정리한다.
+     * <p>
+     * 폐기처럼 DB 배치 수량을 직접 덮어쓰는 작업 전에 호출하여, 반영되지 않은 차감과 충돌하지 않게 한다.
+     * </p>
+     *
+     * <p>저널은 반영 대기 묶음이 없으면 비우고, 판매가 끊이지 않아도 파일이
+     * {@code smartpos.inventory.engine.journal-compaction-size}를 넘으면 아직 필요한 기록만 남겨 다시 쓴다.</p>
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            while (true) {
+                List<InventoryJournal.Group> chunk = new ArrayList<>();
+                Iterator<InventoryJournal.Group> it = committed.iterator();
+                while (it.hasNext() && chunk.size() < properties.flushBatchSize()) {
+                    chunk.add(it.next());
+                }
+                if (chunk.isEmpty()) break;
+
+                writeToDatabase(chunk);
+                for (int i = 0; i < chunk.size(); i++) {
+                    committed.poll();
+                }
+            }
+
+            synchronized (journalLock) {
+                boolean idle = inFlight.isEmpty() && committed.isEmpty();
+                if (dirty && (idle || journal.size() >= properties.journalCompactionSize().toBytes())) {
+                    journal.compact(inFlight, committed);
+                    dirty = !idle;
+                }
+            }
+        }
+    }
+
+    /**
+     * 상품 변경 시 엔진이 보관한 상품명/상태를 갱신한다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductResponse product = event.product();
+        ProductStock stock = stocks.computeIfAbsent(product.id(), ProductStock::new);
+        stock.name = product.name();
+        stock.status = product.status();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("재고 차감 DB 반영에 실패했습니다. 다음 주기에 다시 시도합니다.", e);
+        }
+    }
+
+    /**
+     * 차감 묶음을 배치별로 합산하여 한 트랜잭션에서 일괄 반영하고, 체크포인트를 갱신하고 토큰을 지운다.
+     * <p>
+     * 반영 시점 기준으로 아직 만료되지 않은 배치의 차감은 상품의 판매 가능 재고 수량에서도 뺀다.
+     * </p>
+     *
+     * <p>배치 행을 잠그고 현재 수량을 읽어, 그 수량까지만 뺀다. 폐기 직전에 커밋된 판매의 차감이
+     * 폐기(수량 0) 뒤에 반영되더라도 배치 수량이 음수가 되지 않으며, 폐기가 이미 뺀 상품 재고를 다시 빼지 않는다.</p>
+     */
+    private void writeToDatabase(List<InventoryJournal.Group> groups) {
+        long today = LocalDate.now().toEpochDay();
+        Map<Long, Integer> byBatch = new TreeMap<>(); // 배치/상품 ID 순으로 갱신하여 행 잠금 순서를 고정한다.
+        Map<Long, InventoryJournal.Deduction> batchInfo = new HashMap<>();
+        List<Object[]> tokenArgs = new ArrayList<>(groups.size());
+        for (InventoryJournal.Group group : groups) {
+            for (InventoryJournal.Deduction d : group.deductions()) {
+                byBatch.merge(d.batchId(), d.quantity(), Integer::sum);
+                batchInfo.putIfAbsent(d.batchId(), d);
+            }
+            tokenArgs.add(new Object[]{group.token()});
+        }
+        long seq = groups.get(groups.size() - 1).seq();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, Integer> current = lockBatchQuantities(byBatch.keySet());
+            Map<Long, Integer> byProduct = new TreeMap<>();
+            List<Object[]> batchArgs = new ArrayList<>(byBatch.size());
+            int skipped = 0;
+            for (Map.Entry<Long, Integer> entry : byBatch.entrySet()) {
+                int applied = Math.min(entry.getValue(), Math.max(current.getOrDefault(entry.getKey(), 0), 0));
+                skipped += entry.getValue() - applied;
+                if (applied == 0) continue;
+                batchArgs.add(new Object[]{applied, entry.getKey()});
+                InventoryJournal.Deduction d = batchInfo.get(entry.getKey());
+                if (d.expiryEpochDay() >= today) {
+                    byProduct.merge(d.productId(), applied, Integer::sum);
+                }
+            }
+            if (skipped > 0) {
+                log.warn("이미 폐기된 배치의 판매 차감 {}개는 배치 수량에 반영하지 않습니다.", skipped);
+            }
+            List<Object[]> productArgs = new ArrayList<>(byProduct.size());
+            byProduct.forEach((productId, quantity) -> productArgs.add(new Object[]{quantity, productId}));
+
+            jdbcTemplate.batchUpdate(
+                    "update inventory_batch set quantity = quantity - ?, version = version + 1 where id = ?", batchArgs);
+            jdbcTemplate.batchUpdate(
+                    "update product set available_stock = available_stock - ? where id = ?", productArgs);
+            jdbcTemplate.update("update inventory_journal_checkpoint set last_seq = ? where id = ?",
+                    seq, InventoryJournalCheckpoint.SINGLETON_ID);
+            jdbcTemplate.batchUpdate("delete from inventory_journal_token where token = ?", tokenArgs);
+        });
+    }
+
+    /**
+     * 배치 행을 ID 순으로 잠그고 현재 수량을 읽는다. IN 목록이 너무 길어지지 않도록 나누어 조회한다.
+     */
+    private Map<Long, Integer> lockBatchQuantities(Collection<Long> batchIds) {
+        Map<Long, Integer> quantities = new HashMap<>(batchIds.size() * 2);
+        List<Long> ids = new ArrayList<>(batchIds);
+        for (int from = 0; from < ids.size(); from += LOCK_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LOCK_CHUNK_SIZE, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query(
+                    "select id, quantity from inventory_batch where id in (" + placeholders + ") order by id for update",
+                    rs -> {
+                        quantities.put(rs.getLong(1), rs.getInt(2));
+                    },
+                    chunk.toArray());
+        }
+        return quantities;
+    }
+
+    private Set<Long> readCommittedTokens() {
+        return new HashSet<>(jdbcTemplate.queryForList("select token from inventory_journal_token", Long.class));
+    }
+
+    private long readCheckpoint() {
+        Long checkpoint = transactionTemplate.execute(status -> {
+            List<Long> rows = jdbcTemplate.queryForList(
+                    "select last_seq from inventory_journal_checkpoint where id = ?",
+                    Long.class, InventoryJournalCheckpoint.SINGLETON_ID);
+            if (!rows.isEmpty()) return rows.get(0);
+            jdbcTemplate.update("insert into inventory_journal_checkpoint (id, last_seq) values (?, 0)",
+                    InventoryJournalCheckpoint.SINGLETON_ID);
+            return 0L;
+        });
+        return (checkpoint == null) ? 0L : checkpoint;
+    }
+
+    private void load() {
+        transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            for (Product product : productRepository.findAll()) {
+                ProductStock stock = stocks.computeIfAbsent(product.getId(), ProductStock::new);
+                stock.name = product.getName();
+                stock.status = product.getStatus();
+            }
+            int count = 0;
+            for (InventoryBatchRepository.BatchStockProjection row : inventoryBatchRepository.findAllBatchStocks()) {
+                stocks.computeIfAbsent(row.getProductId(), ProductStock::new)
+                        .add(row.getBatchId(), row.getExpiryDate().toEpochDay(), row.getQuantity());
+                count++;
+            }
+            log.info("인메모리 재고 엔진 적재 완료: 상품 {}개, 배치 {}개", stocks.size(), count);
+        });
+    }
+
+    /**
+     * 트랜잭션 결과에 따라 차감을 저널/DB 반영 대기열에 올리거나 되돌린다.
+     */
+    private void registerCompletion(List<Allocation> allocations, boolean writeBehind) {
+        long token = tokens.incrementAndGet();
+        List<InventoryJournal.Deduction> deductions = allocations.stream()
+                .map(a -> new InventoryJournal.Deduction(
+                        a.batchId(), a.productId(), a.quantity(), a.expiryDate().toEpochDay()))
+                .toList();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (writeBehind) {
+                long position;
+                synchronized (journalLock) {
+                    journal.appendDeductions(token, deductions);
+                    position = enqueueCommitted(token, deductions);
+                }
+                journal.sync(position);
+            }
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean journaled;
+
+            /**
+             * 판매 트랜잭션 안에서 토큰을 넣고, 차감 레코드가 디스크에 내려간 뒤에 커밋을 진행한다.
+             * {@code fsync}는 저널 락 밖에서 기다리므로 동시에 커밋하는 판매들이 한 번의 {@code fsync}를 나눠 쓴다.
+             */
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                if (!writeBehind) return;
+                jdbcTemplate.update("insert into inventory_journal_token (token) values (?)", token);
+                long position;
+                synchronized (journalLock) {
+                    position = journal.appendDeductions(token, deductions);
+                    inFlight.put(token, deductions);
+                    dirty = true;
+                    journaled = true;
+                }
+                journal.sync(position);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    if (journaled) {
+                        synchronized (journalLock) {
+                            inFlight.remove(token);
+                            journal.appendCancel(token);
+                        }
+                    }
+                    restore(allocations);
+                } else if (journaled) {
+                    synchronized (journalLock) {
+                        inFlight.remove(token);
+                        enqueueCommitted(token, deductions);
+                    }
+                }
+            }
+        });
+    }
+
+    private long enqueueCommitted(long token, List<InventoryJournal.Deduction> deductions) {
+        long seq = ++lastSeq;
+        long position = journal.appendCommit(token, seq);
+        committed.add(new InventoryJournal.Group(seq, token, deductions));
+        dirty = true;
+        return position;
+    }
+
+    private void restore(List<Allocation> allocations) {
+        for (Allocation allocation : allocations) {
+            ProductStock stock = stocks.computeIfAbsent(allocation.productId(), ProductStock::new);
+            stock.lock.lock();
+            try {
+                stock.add(allocation.batchId(), allocation.expiryDate().toEpochDay(), allocation.quantity());
+            } finally {
+                stock.lock.unlock();
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 배치 1개에 대한 할당(차감) 결과.
+     *
+     * @param batchId 배치 ID
+     * @param productId 상품 ID
+     * @param expiryDate 배치 유통기한
+     * @param quantity 할당 수량
+     */
+    public record Allocation(Long batchId, Long productId, LocalDate expiryDate, int quantity) {}
+
+    /**
+     * 상품 1개의 배치 힙. 모든 접근은 {@link #lock}을 잡은 상태에서 한다.
+     */
+    private static final class ProductStock {
+        private final long productId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final PriorityQueue<BatchSlot> heap = new PriorityQueue<>(FEFO);
+        private final Map<Long, BatchSlot> slots = new HashMap<>();
+        private volatile String name;
+        private volatile ProductStatus status;
+
+        private ProductStock(Long productId) {
+            this.productId = productId;
+        }
+
+        private void add(long batchId, long expiryEpochDay, int quantity) {
+            BatchSlot slot = slots.get(batchId);
+            if (slot != null) {
+                slot.quantity += quantity;
+                return;
+            }
+            slot = new BatchSlot(batchId, expiryEpochDay, quantity);
+            slots.put(batchId, slot);
+            heap.add(slot);
+        }
+
+        private Plan plan(int quantity, long baseDay) {
+            Plan plan = new Plan(this, quantity);
+            while (plan.remaining > 0 && !heap.isEmpty()) {
+                BatchSlot slot = heap.poll();
+                plan.polled.add(slot);
+                if (slot.quantity <= 0 || slot.expiryEpochDay < baseDay) continue;
+
+                int take = Math.min(slot.quantity, plan.remaining);
+                plan.taken.add(slot);
+                plan.takes.add(take);
+                plan.remaining -= take;
+            }
+            return plan;
+        }
+
+        private void dropExpired(long baseDay) {
+            while (!heap.isEmpty() && heap.peek().expiryEpochDay < baseDay) {
+                slots.remove(heap.poll().batchId);
+            }
+        }
+
+        private InventorySummaryResponse toSummary(long todayEpochDay) {
+            int total = 0;
+            lock.lock();
+            try {
+                for (BatchSlot slot : slots.values()) {
+                    if (slot.quantity > 0 && slot.expiryEpochDay >= todayEpochDay) {
+                        total += slot.quantity;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+            return new InventorySummaryResponse(productId, name, total);
+        }
+    }
+
+    /**
+     * 힙에서 꺼낸 배치와 배치별 차감 예정 수량. 적용하거나 취소하면 배치를 힙에 되돌린다.
+     */
+    private static final class Plan {
+        private final ProductStock stock;
+        private final List<BatchSlot> polled = new ArrayList<>();
+        private final List<BatchSlot> taken = new ArrayList<>();
+        private final List<Integer> takes = new ArrayList<>();
+        private int remaining;
+
+        private Plan(ProductStock stock, int quantity) {
+            this.stock = stock;
+            this.remaining = quantity;
+        }
+
+        private List<Allocation> apply() {
+            List<Allocation> allocations = new ArrayList<>(taken.size());
+            for (int i = 0; i < taken.size(); i++) {
+                BatchSlot slot = taken.get(i);
+                int take = takes.get(i);
+                slot.quantity -= take;
+                allocations.add(new Allocation(slot.batchId, stock.productId,
+                        LocalDate.ofEpochDay(slot.expiryEpochDay), take));
+            }
+            cancel();
+            return allocations;
+        }
+
+        private void cancel() {
+            for (BatchSlot slot : polled) {
+                if (slot.quantity > 0) {
+                    stock.heap.add(slot);
+                } else {
+                    stock.slots.remove(slot.batchId);
+                }
+            }
+            polled.clear();
+        }
+    }
+
+    private static final class BatchSlot {
+        private final long batchId;
+        private final long expiryEpochDay;
+        private int quantity;
+
+        private BatchSlot(long batchId, long expiryEpochDay, int quantity) {
+            this.batchId = batchId;
+            this.expiryEpochDay = expiryEpochDay;
+            this.quantity = quantity;
+        }
+    }
+}
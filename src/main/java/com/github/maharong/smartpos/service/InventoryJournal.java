@@ -0,0 +1,315 @@
+package com.github.maharong.smartpos.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * 인메모리 재고 엔진의 판매 차감 저널(append-only 파일).
+ * <p>
+ * 차감 묶음(판매 1건의 배치별 차감 목록)은 커밋 전에 기록되고, 트랜잭션 결과에 따라
+ * 커밋/취소 레코드가 뒤따른다. 차감 레코드는 {@link #sync(long)}로 디스크에 내려간 뒤에 DB 커밋을 진행하므로,
+ * DB 반영 전에 프로세스가 내려가도 재시작 시 저널에서 복구할 수 있다.
+ * </p>
+ *
+ * <pre>
+ * D,&lt;token&gt;,&lt;batchId&gt;,&lt;productId&gt;,&lt;quantity&gt;,&lt;expiryEpochDay&gt;   차감 (커밋 전)
+ * C,&lt;token&gt;,&lt;seq&gt;                                 커밋 (seq = 커밋 순서 일련번호)
+ * X,&lt;token&gt;                                       취소 (롤백)
+ * </pre>
+ *
+ * <p>커밋 여부의 기준은 DB에 남은 토큰({@link com.github.maharong.smartpos.entity.InventoryJournalToken})이다.
+ * 커밋/취소 레코드는 복구 시 순서를 정하고 DB 조회를 줄이기 위한 기록이므로 {@code fsync}하지 않는다.</p>
+ *
+ * <p>기록({@code append*})과 정리({@link #compact}, {@link #truncate})는 호출자가 동기화해야 한다.
+ * {@link #sync(long)}만 스레드 안전하며, 여러 스레드가 동시에 기다리면 한 번의 {@code fsync}로 함께 내려간다(group commit).</p>
+ */
+final class InventoryJournal implements AutoCloseable {
+
+    private final Path path;
+    private final Object syncLock = new Object();
+    private volatile FileChannel channel;
+    private volatile long appended;  // 지금까지 기록한 바이트 수(파일 정리와 무관하게 계속 증가)
+    private long synced;             // syncLock
+    private long size;               // 현재 파일 크기
+
+    InventoryJournal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * 저널 파일을 읽어 아직 DB에 반영되지 않은 차감 묶음을 반환한다.
+     * <p>
+     * 커밋된 묶음은 일련번호 순으로 두고, {@code checkpoint} 이하로 이미 반영된 묶음은 제외한다.
+     * 커밋/취소 기록이 없는 묶음(커밋 전후에 중단)은 DB에 토큰이 남아있을 때만, 즉 판매가 실제로 커밋된 경우에만
+     * 그 뒤에 기록 순서대로 두고 나머지는 버린다. 취소된 묶음은 제외한다.
+     * </p>
+     *
+     * @param checkpoint DB에 반영이 끝난 마지막 일련번호
+     * @param committedTokens DB에 커밋되었으나 아직 반영되지 않은 토큰
+     * @return 다시 반영해야 할 차감 묶음 목록
+     */
+    Recovery recover(long checkpoint, Set<Long> committedTokens) {
+        Map<Long, List<Deduction>> deductions = new LinkedHashMap<>();
+        Map<Long, Long> committed = new HashMap<>();
+        Set<Long> canceled = new HashSet<>();
+        long maxToken = 0;
+        long maxSeq = checkpoint;
+
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] f = line.split(",");
+                    if (f.length < 2) continue; // 기록 도중 중단된 마지막 줄
+                    long token = Long.parseLong(f[1]);
+                    maxToken = Math.max(maxToken, token);
+                    switch (f[0]) {
+                        case "D" -> {
+                            if (f.length < 6) continue;
+                            deductions.computeIfAbsent(token, t -> new ArrayList<>()).add(new Deduction(
+                                    Long.parseLong(f[2]), Long.parseLong(f[3]), Integer.parseInt(f[4]),
+                                    Long.parseLong(f[5])));
+                        }
+                        case "C" -> {
+                            if (f.length < 3) continue;
+                            long seq = Long.parseLong(f[2]);
+                            committed.put(token, seq);
+                            maxSeq = Math.max(maxSeq, seq);
+                        }
+                        case "X" -> canceled.add(token);
+                        default -> {
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("재고 저널을 읽을 수 없습니다. path=" + path, e);
+            }
+        }
+
+        List<Group> pending = new ArrayList<>();
+        Map<Long, List<Deduction>> unresolved = new LinkedHashMap<>();
+        int discarded = 0;
+        for (Map.Entry<Long, List<Deduction>> entry : deductions.entrySet()) {
+            Long seq = committed.get(entry.getKey());
+            if (seq != null) {
+                if (seq > checkpoint) pending.add(new Group(seq, entry.getKey(), entry.getValue()));
+            } else if (canceled.contains(entry.getKey())) {
+                continue;
+            } else if (committedTokens.contains(entry.getKey())) {
+                unresolved.put(entry.getKey(), entry.getValue());
+            } else {
+                discarded++;
+            }
+        }
+        pending.sort(Comparator.comparingLong(Group::seq));
+        for (Map.Entry<Long, List<Deduction>> entry : unresolved.entrySet()) {
+            pending.add(new Group(++maxSeq, entry.getKey(), entry.getValue()));
+        }
+        return new Recovery(pending, unresolved.size(), discarded, maxToken, maxSeq);
+    }
+
+    /**
+     * 저널 파일을 추가 쓰기 모드로 연다.
+     */
+    void open() {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            size = channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("재고 저널을 열 수 없습니다. path=" + path, e);
+        }
+    }
+
+    /**
+     * 차감 레코드를 기록한다. 디스크에 내려가려면 반환값으로 {@link #sync(long)}를 호출해야 한다.
+     *
+     * @return 이 기록까지의 위치
+     */
+    long appendDeductions(long token, List<Deduction> deductions) {
+        return write(deductionRecords(token, deductions));
+    }
+
+    long appendCommit(long token, long seq) {
+        return write(commitRecord(token, seq));
+    }
+
+    long appendCancel(long token) {
+        return write("X," + token + "\n");
+    }
+
+    /**
+     * {@code position}까지의 기록을 디스크에 내린다.
+     * <p>
+     * 다른 스레드의 {@code fsync}가 이미 그 위치를 넘었다면 바로 반환하므로, 동시에 커밋하는 판매들은
+     * 앞선 스레드가 한 번 내린 {@code fsync}를 함께 사용한다.
+     * </p>
+     *
+     * @param position {@code append*}가 반환한 위치
+     */
+    void sync(long position) {
+        synchronized (syncLock) {
+            if (synced >= position) return;
+            long target = appended;
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("재고 저널을 디스크에 기록할 수 없습니다. path=" + path, e);
+            }
+            synced = target;
+        }
+    }
+
+    /**
+     * 현재 저널 파일 크기(바이트).
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * 아직 필요한 기록만 새 파일에 옮겨 쓰고 저널 파일을 교체한다.
+     * <p>
+     * DB 반영이 끝난 묶음(체크포인트 이하)과 취소된 묶음의 기록은 사라진다.
+     * 새 파일을 {@code fsync}한 뒤 교체하므로, 교체 전에 기록된 레코드를 기다리던 {@link #sync(long)}는 바로 반환된다.
+     * </p>
+     *
+     * @param inFlight 커밋 결과를 기다리는 묶음(차감 레코드만 옮긴다)
+     * @param committed 커밋되었으나 DB에 반영되지 않은 묶음(차감/커밋 레코드를 옮긴다)
+     */
+    void compact(Map<Long, List<Deduction>> inFlight, Collection<Group> committed) {
+        if (inFlight.isEmpty() && committed.isEmpty()) {
+            truncate();
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Group group : committed) {
+            sb.append(deductionRecords(group.token(), group.deductions()));
+            sb.append(commitRecord(group.token(), group.seq()));
+        }
+        inFlight.forEach((token, deductions) -> sb.append(deductionRecords(token, deductions)));
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try {
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writeFully(out, bytes);
+                out.force(true);
+            }
+            synchronized (syncLock) {
+                channel.close();
+                Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                syncDirectory();
+                channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                synced = appended;
+            }
+            size = bytes.length;
+        } catch (IOException e) {
+            throw new UncheckedIOException("재고 저널을 정리할 수 없습니다. path=" + path, e);
+        }
+    }
+
+    /**
+     * 모든 기록이 DB에 반영된 뒤 저널을 비운다.
+     */
+    void truncate() {
+        synchronized (syncLock) {
+            try {
+                channel.truncate(0);
+                channel.force(true);
+            } catch (IOException e) {
+                throw new UncheckedIOException("재고 저널을 비울 수 없습니다. path=" + path, e);
+            }
+            synced = appended;
+        }
+        size = 0;
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long write(String record) {
+        byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+        try {
+            writeFully(channel, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("재고 저널에 기록할 수 없습니다. path=" + path, e);
+        }
+        size += bytes.length;
+        appended += bytes.length;
+        return appended;
+    }
+
+    /**
+     * 파일 교체(이름 변경)가 재부팅 후에도 남도록 디렉터리를 디스크에 내린다. 지원하지 않는 OS에서는 건너뛴다.
+     */
+    private void syncDirectory() {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent == null) return;
+        try (FileChannel directory = FileChannel.open(parent, StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // 디렉터리를 열 수 없는 OS(예: Windows)
+        }
+    }
+
+    private static void writeFully(FileChannel out, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    private static String deductionRecords(long token, List<Deduction> deductions) {
+        StringBuilder sb = new StringBuilder();
+        for (Deduction d : deductions) {
+            sb.append("D,").append(token).append(',').append(d.batchId()).append(',')
+                    .append(d.productId()).append(',').append(d.quantity()).append(',')
+                    .append(d.expiryEpochDay()).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String commitRecord(long token, long seq) {
+        return "C," + token + "," + seq + "\n";
+    }
+
+    /**
+     * 배치 1개에 대한 차감.
+     */
+    record Deduction(long batchId, long productId, int quantity, long expiryEpochDay) {}
+
+    /**
+     * 커밋 순서 일련번호가 매겨진 차감 묶음.
+     */
+    record Group(long seq, long token, List<Deduction> deductions) {}
+
+    /**
+     * 저널 복구 결과.
+     *
+     * @param pending 다시 반영할 차감 묶음(일련번호 순)
+     * @param unresolved 커밋 여부가 기록되지 않았지만 DB 토큰으로 커밋이 확인된 묶음 수
+     * @param discarded 커밋 여부가 기록되지 않았고 DB 토큰도 없어 버린 묶음 수
+     * @param lastToken 저널에 기록된 가장 큰 토큰
+     * @param lastSeq 사용된 가장 큰 일련번호
+     */
+    record Recovery(List<Group> pending, int unresolved, int discarded, long lastToken, long lastSeq) {}
+}
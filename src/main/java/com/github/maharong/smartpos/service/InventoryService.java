@@ -1,5 +1,6 @@
 package com.github.maharong.smartpos.service;
 
+import com.github.maharong.smartpos.config.InventoryProperties;
 import com.github.maharong.smartpos.dto.*;
 import com.github.maharong.smartpos.entity.InventoryBatch;
 import com.github.maharong.smartpos.entity.InventoryLog;
@@ -9,13 +10,16 @@ import com.github.maharong.smartpos.enums.ProductStatus;
 import com.github.maharong.smartpos.repository.InventoryBatchRepository;
 import com.github.maharong.smartpos.repository.InventoryLogRepository;
 import com.github.maharong.smartpos.repository.ProductRepository;
+import com.github.maharong.smartpos.repository.SaleItemAllocationRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 /**
@@ -23,15 +27,28 @@ import java.util.*;
  *
  * <p>판매 출고는 유통기한 기준 선출(FEFO: First-Expire, First-Out)로 배치를 차감한다.
  * 또한 기준일({@code baseDate}) 이전에 만료된 배치는 판매에 사용하지 않는다.</p>
+ *
+ * <p>인메모리 재고 엔진({@link InMemoryInventoryEngine})이 활성화되어 있으면 판매 출고와 재고 요약은
+ * 엔진이 처리하고, 입고/관리자 출고/폐기 결과는 커밋 이후 엔진에 반영한다.</p>
  */
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class InventoryService {
 
+    /**
+     * 유통기한 임박 배치 조회의 한 페이지 최대 행 수.
+     */
+    public static final int MAX_EXPIRING_PAGE_SIZE = 500;
+
     private final ProductRepository productRepository;
     private final InventoryBatchRepository inventoryBatchRepository;
     private final InventoryLogRepository inventoryLogRepository;
+    private final SaleItemAllocationRepository saleItemAllocationRepository;
+    private final ExpiryCalendar expiryCalendar;
+    private final InventoryProperties inventoryProperties;
+    private final Optional<InMemoryInventoryEngine> inventoryEngine;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 입고 처리(배치 생성)를 수행한다.
@@ -71,6 +88,12 @@ public class InventoryService {
                 .build();
 
         InventoryBatch saved = inventoryBatchRepository.save(batch);
+        if (!saved.getExpiryDate().isBefore(LocalDate.now())) {
+            adjustAvailableStock(product.getId(), saved.getQuantity());
+        }
+        inventoryEngine.ifPresent(engine -> engine.addBatchAfterCommit(
+                saved.getId(), product.getId(), saved.getExpiryDate(), saved.getQuantity()));
+        expiryCalendar.registerAfterCommit(saved.getExpiryDate(), product.getId());
         return InventoryBatchResponse.from(saved);
     }
 
@@ -96,7 +119,14 @@ public class InventoryService {
         Product product = productRepository.findById(req.productId())
                 .orElseThrow(() -> new IllegalArgumentException("상품을 찾을 수 없습니다. id=" + req.productId()));
 
+        if (inventoryEngine.isPresent()) {
+            consumeWithEngine(inventoryEngine.get(), product, req);
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
         int remaining = req.quantity();
+        int sellableTaken = 0;
 
         List<InventoryBatch> batches = inventoryBatchRepository.findByProductOrderByExpiryDateAsc(product);
 
@@ -106,6 +136,7 @@ public class InventoryService {
 
             int take = Math.min(batch.getQuantity(), remaining);
             batch.decrease(take);
+            if (!batch.getExpiryDate().isBefore(today)) sellableTaken += take;
 
             InventoryLog log = InventoryLog.builder()
                     .product(product)
@@ -123,6 +154,42 @@ public class InventoryService {
         if (remaining > 0) {
             throw new IllegalStateException("재고 부족: 요청=" + req.quantity() + ", 부족=" + remaining);
         }
+        adjustAvailableStock(product.getId(), -sellableTaken);
+    }
+
+    /**
+     * 인메모리 재고 엔진으로 관리자 출고 배치를 정한 뒤, 같은 트랜잭션에서 DB 배치를 차감하고 로그를 남긴다.
+     * <p>
+     * 엔진이 판매 차감까지 반영된 실제 수량으로 배치를 고르므로, DB 배치 수량이 아직 판매 차감을
+     * 반영하지 못한 상태여도 초과 출고되지 않는다.
+     * </p>
+     */
+    private void consumeWithEngine(InMemoryInventoryEngine engine, Product product, InventoryConsumeRequest req) {
+        List<InMemoryInventoryEngine.Allocation> allocations =
+                engine.allocate(Map.of(product.getId(), req.quantity()), null, false);
+
+        Map<Long, InventoryBatch> batches = new HashMap<>();
+        for (InventoryBatch batch : inventoryBatchRepository.findAllById(
+                allocations.stream().map(InMemoryInventoryEngine.Allocation::batchId).toList())) {
+            batches.put(batch.getId(), batch);
+        }
+
+        LocalDate today = LocalDate.now();
+        int sellableTaken = 0;
+        for (InMemoryInventoryEngine.Allocation allocation : allocations) {
+            InventoryBatch batch = batches.get(allocation.batchId());
+            batch.decrease(allocation.quantity());
+            if (!batch.getExpiryDate().isBefore(today)) sellableTaken += allocation.quantity();
+
+            inventoryLogRepository.save(InventoryLog.builder()
+                    .product(product)
+                    .batch(batch)
+                    .type(req.type())
+                    .quantity(allocation.quantity())
+                    .note(req.note())
+                    .build());
+        }
+        adjustAvailableStock(product.getId(), -sellableTaken);
     }
 
     /**
@@ -157,30 +224,291 @@ public class InventoryService {
      * @throws IllegalStateException 재고가 부족하여 요청 수량을 모두 차감할 수 없는 경우
      */
     public void consumeForSale(Product product, int quantity, LocalDate baseDate) {
-        if (quantity <= 0) {
-            throw new IllegalArgumentException("수량은 1 이상이어야 합니다.");
+        consumeForSale(List.of(new SaleConsumeLine(product, quantity)), baseDate);
+    }
+
+    /**
+     * 판매 1건(바구니 전체)의 출고를 처리한다.
+     *
+     * <p>바구니의 모든 상품에 대해 판매 가능 배치를 한 번의 쿼리로 조회한 뒤,
+     * 메모리에서 상품별 FEFO 분할 차감을 수행한다.</p>
+     *
+     * <ul>
+     *   <li>같은 상품의 라인은 먼저 합산하여 상품별 배치 목록을 한 번만 순회한다.</li>
+     *   <li>조회 대상은 {@code quantity > 0}, {@code expiryDate >= baseDate}인 배치로 한정한다.</li>
+     *   <li>배치는 버전({@code @Version})으로 동시 차감 충돌을 감지하며, 설정된 인기 상품
+     *       ({@code smartpos.inventory.pessimistic-product-ids})은 {@code FOR UPDATE}로 잠가 조회한다.</li>
+     *   <li>한 상품이라도 재고가 부족하면 예외를 발생시키며, 트랜잭션으로 인해 부분 차감은 롤백된다.</li>
+     * </ul>
+     *
+     * @param lines 판매 출고 라인 목록
+     * @param baseDate 만료 여부 판단 기준일 (예: 판매일)
+     * @return 라인 순서대로 각 라인이 차감한 배치별 수량
+     * @throws IllegalArgumentException 수량이 1 미만인 라인이 있는 경우
+     * @throws IllegalStateException 재고가 부족하여 요청 수량을 모두 차감할 수 없는 경우
+     */
+    public List<List<SaleAllocation>> consumeForSale(List<SaleConsumeLine> lines, LocalDate baseDate) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (SaleConsumeLine line : lines) {
+            productIds.add(line.product().getId());
         }
 
-        int remaining = quantity;
+        SaleStock stock = prefetchSaleStock(productIds, baseDate);
+        List<List<SaleAllocation>> allocations = stock.consume(lines, baseDate);
+        stock.finish();
+        return allocations;
+    }
 
-        // FEFO를 위해 expiryDate 오름차순으로 배치를 조회한다.
-        List<InventoryBatch> batches =
-                inventoryBatchRepository.findByProductOrderByExpiryDateAsc(product);
+    /**
+     * 환불된 판매가 차감했던 배치에 같은 수량을 다시 입고한다.
+     * <p>
+     * 판매 라인의 배치 할당을 기준으로 배치 수량과 판매 가능 재고 카운터를 각각 한 번의 갱신으로 되돌린다.
+     * 할당 기록이 없는 판매(할당 기록 도입 이전 판매)는 아무것도 바꾸지 않는다.
+     * </p>
+     *
+     * <ul>
+     *   <li>아직 만료되지 않은({@code expiryDate >= today}) 배치만 수량을 되돌리고, 유통기한 달력에 다시 등록한다.</li>
+     *   <li>이미 만료된 배치는 폐기되었거나 곧 폐기될 배치이므로 되살리지 않고,
+     *       돌아온 수량을 {@link InventoryConsumeType#WASTE} 로그로 남긴다.</li>
+     * </ul>
+     *
+     * @param saleId 판매 ID
+     * @return 재입고된 배치 수
+     */
+    public int restockSale(Long saleId) {
+        LocalDate today = LocalDate.now();
+        productRepository.restoreSaleAvailableStock(saleId, today);
+        int restocked = inventoryBatchRepository.restockSaleAllocations(saleId, today);
+        inventoryLogRepository.insertExpiredRestockLogs(saleId, today, InventoryConsumeType.WASTE,
+                "환불 재입고 불가(유통기한 만료)", LocalDateTime.now());
+
+        List<InMemoryInventoryEngine.Allocation> allocations = new ArrayList<>();
+        for (SaleItemAllocationRepository.SaleAllocationProjection row
+                : saleItemAllocationRepository.findAllocationsBySaleId(saleId)) {
+            if (row.getExpiryDate().isBefore(today)) continue;
+            allocations.add(new InMemoryInventoryEngine.Allocation(
+                    row.getBatchId(), row.getProductId(), row.getExpiryDate(), row.getQuantity()));
+            expiryCalendar.registerAfterCommit(row.getExpiryDate(), row.getProductId());
+        }
+        inventoryEngine.ifPresent(engine -> engine.restoreAfterCommit(allocations));
+        return restocked;
+    }
 
-        for (InventoryBatch batch : batches) {
-            if (remaining == 0) break;
-            if (batch.getQuantity() <= 0) continue;
+    /**
+     * 특정 배치(로트)에서 차감된 판매 목록을 조회한다(회수/추적용).
+     *
+     * @param batchId 배치 ID
+     * @return 판매 시각 오름차순 판매 목록
+     * @throws IllegalArgumentException 배치가 존재하지 않는 경우
+     */
+    @Transactional(readOnly = true)
+    public List<BatchSaleResponse> getBatchSales(Long batchId) {
+        if (!inventoryBatchRepository.existsById(batchId)) {
+            throw new IllegalArgumentException("배치를 찾을 수 없습니다. id=" + batchId);
+        }
+        return saleItemAllocationRepository.findSalesByBatchId(batchId).stream()
+                .map(BatchSaleResponse::from)
+                .toList();
+    }
 
-            // 만료 배치는 판매에 사용하지 않는다.
-            if (batch.getExpiryDate().isBefore(baseDate)) continue;
+    /**
+     * 여러 판매의 출고를 위해 판매 가능 배치를 한 번에 조회한다.
+     *
+     * <p>판매 여러 건을 한 트랜잭션에서 처리할 때, 판매마다 배치를 조회하지 않고 이 묶음에서 차감한다.
+     * 판매일이 서로 다르면 가장 이른 판매일을 {@code fromDate}로 조회하고, 판매마다 자신의 판매일로 다시 거른다.</p>
+     *
+     * @param productIds 차감할 상품 ID 목록
+     * @param fromDate 만료 여부 판단 기준일 중 가장 이른 날짜
+     * @return 판매 출고용 배치 묶음(호출자의 트랜잭션 안에서만 사용)
+     */
+    public SaleStock prefetchSaleStock(Collection<Long> productIds, LocalDate fromDate) {
+        // 상품 ID → 유통기한 순으로 정렬된 판매 가능 배치를 상품별로 묶는다.
+        Map<Long, List<InventoryBatch>> batchesByProduct = new HashMap<>();
+        if (inventoryEngine.isEmpty()) {
+            for (InventoryBatch batch : findSellableBatches(productIds, fromDate)) {
+                batchesByProduct.computeIfAbsent(batch.getProduct().getId(), id -> new ArrayList<>()).add(batch);
+            }
+        }
+        return new SaleStock(batchesByProduct);
+    }
 
-            int take = Math.min(batch.getQuantity(), remaining);
-            batch.decrease(take);
-            remaining -= take;
+    /**
+     * 상품의 판매 가능 재고 수량({@link Product#getAvailableStock()})을 증감한다.
+     *
+     * @param productId 상품 ID
+     * @param delta 증감량(0이면 아무것도 하지 않음)
+     */
+    private void adjustAvailableStock(Long productId, int delta) {
+        if (delta != 0) {
+            productRepository.adjustAvailableStock(productId, delta);
         }
+    }
 
-        if (remaining > 0) {
-            throw new IllegalStateException("재고 부족(판매): 요청=" + quantity + ", 부족=" + remaining);
+    /**
+     * 판매 가능 배치를 조회한다.
+     * <p>
+     * 인기 상품으로 설정된 상품은 비관적 락({@code FOR UPDATE}, 제한 시간 대기)으로,
+     * 나머지 상품은 일반 조회(낙관적 락 버전 검사)로 가져온다.
+     * </p>
+     *
+     * @param productIds 조회할 상품 ID 목록
+     * @param baseDate 만료 여부 판단 기준일
+     * @return 판매 가능 배치 목록(상품별 FEFO 순서)
+     */
+    private List<InventoryBatch> findSellableBatches(Collection<Long> productIds, LocalDate baseDate) {
+        Set<Long> hotProductIds = inventoryProperties.pessimisticProductIds();
+
+        List<Long> regular = new ArrayList<>();
+        List<Long> hot = new ArrayList<>();
+        for (Long productId : productIds) {
+            (hotProductIds.contains(productId) ? hot : regular).add(productId);
+        }
+
+        List<InventoryBatch> batches = new ArrayList<>();
+        if (!regular.isEmpty()) {
+            batches.addAll(inventoryBatchRepository.findSellableBatches(regular, baseDate));
+        }
+        if (!hot.isEmpty()) {
+            batches.addAll(inventoryBatchRepository.findSellableBatchesForUpdate(hot, baseDate));
+        }
+        return batches;
+    }
+
+    /**
+     * 판매 출고 요청 라인.
+     *
+     * @param product 판매 상품
+     * @param quantity 판매 수량 (1 이상)
+     */
+    public record SaleConsumeLine(Product product, int quantity) {}
+
+    /**
+     * 판매 라인이 배치 1개에서 차감한 수량.
+     *
+     * @param batch 차감된 배치
+     * @param quantity 차감 수량
+     */
+    public record SaleAllocation(InventoryBatch batch, int quantity) {}
+
+    /**
+     * 판매 출고용으로 미리 조회한 판매 가능 배치 묶음.
+     *
+     * <p>{@link #consume(List, LocalDate)}는 판매 1건 단위로 전부 차감하거나 전혀 차감하지 않는다.
+     * 재고가 부족하면 배치를 건드리기 전에 예외를 던지므로, 호출자는 해당 판매만 실패 처리하고
+     * 같은 트랜잭션에서 다음 판매를 계속 차감할 수 있다.</p>
+     *
+     * <p>판매 가능 재고 카운터는 상품별로 모아 두었다가 {@link #finish()}에서 한 번에 반영한다.</p>
+     */
+    public final class SaleStock {
+
+        private final Map<Long, List<InventoryBatch>> batchesByProduct;
+        private final Map<Long, Integer> sellableTaken = new HashMap<>();
+
+        private SaleStock(Map<Long, List<InventoryBatch>> batchesByProduct) {
+            this.batchesByProduct = batchesByProduct;
+        }
+
+        /**
+         * 판매 1건(바구니 전체)을 FEFO로 차감한다.
+         *
+         * <p>같은 상품의 라인이 여러 개면, 상품별 FEFO 할당을 라인 순서대로 나누어 준다.</p>
+         *
+         * @param lines 판매 출고 라인 목록
+         * @param baseDate 만료 여부 판단 기준일 (예: 판매일)
+         * @return 라인 순서대로 각 라인이 차감한 배치별 수량
+         * @throws IllegalArgumentException 수량이 1 미만인 라인이 있는 경우
+         * @throws IllegalStateException 재고가 부족한 경우(이 판매의 차감은 하나도 반영되지 않음)
+         */
+        public List<List<SaleAllocation>> consume(List<SaleConsumeLine> lines, LocalDate baseDate) {
+            // 같은 상품의 라인을 합산한다. (라인 순서 유지)
+            Map<Long, Integer> requested = new LinkedHashMap<>();
+            for (SaleConsumeLine line : lines) {
+                if (line.quantity() <= 0) {
+                    throw new IllegalArgumentException("수량은 1 이상이어야 합니다.");
+                }
+                requested.merge(line.product().getId(), line.quantity(), Integer::sum);
+            }
+
+            // 상품 ID → FEFO 순서의 배치별 차감 수량
+            Map<Long, Deque<SaleAllocation>> allocated = new HashMap<>();
+
+            if (inventoryEngine.isPresent()) {
+                for (InMemoryInventoryEngine.Allocation allocation : inventoryEngine.get().allocate(requested, baseDate, true)) {
+                    allocated.computeIfAbsent(allocation.productId(), id -> new ArrayDeque<>()).add(new SaleAllocation(
+                            inventoryBatchRepository.getReferenceById(allocation.batchId()), allocation.quantity()));
+                }
+                return splitByLine(lines, allocated);
+            }
+
+            // 먼저 모든 상품의 차감 계획을 세우고, 부족한 상품이 없을 때만 반영한다.
+            List<InventoryBatch> planned = new ArrayList<>();
+            List<Integer> takes = new ArrayList<>();
+            for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+                int quantity = entry.getValue();
+                int remaining = quantity;
+
+                for (InventoryBatch batch : batchesByProduct.getOrDefault(entry.getKey(), List.of())) {
+                    if (remaining == 0) break;
+                    if (batch.getQuantity() == 0 || batch.getExpiryDate().isBefore(baseDate)) continue;
+
+                    int take = Math.min(batch.getQuantity(), remaining);
+                    planned.add(batch);
+                    takes.add(take);
+                    remaining -= take;
+                }
+
+                if (remaining > 0) {
+                    throw new IllegalStateException(
+                            "재고 부족(판매): productId=" + entry.getKey() + ", 요청=" + quantity + ", 부족=" + remaining
+                    );
+                }
+            }
+
+            LocalDate today = LocalDate.now();
+            for (int i = 0; i < planned.size(); i++) {
+                InventoryBatch batch = planned.get(i);
+                int take = takes.get(i);
+                batch.decrease(take);
+                allocated.computeIfAbsent(batch.getProduct().getId(), id -> new ArrayDeque<>())
+                        .add(new SaleAllocation(batch, take));
+
+                // 판매 가능 재고 카운터는 오늘 기준이므로, 기준일이 과거인 판매는 오늘 이미 만료된 배치를 제외하고 반영한다.
+                if (!batch.getExpiryDate().isBefore(today)) {
+                    sellableTaken.merge(batch.getProduct().getId(), take, Integer::sum);
+                }
+            }
+            return splitByLine(lines, allocated);
+        }
+
+        /**
+         * 상품별 할당을 라인 순서대로 라인 수량만큼 나눈다.
+         */
+        private List<List<SaleAllocation>> splitByLine(List<SaleConsumeLine> lines, Map<Long, Deque<SaleAllocation>> allocated) {
+            List<List<SaleAllocation>> byLine = new ArrayList<>(lines.size());
+            for (SaleConsumeLine line : lines) {
+                Deque<SaleAllocation> queue = allocated.get(line.product().getId());
+                List<SaleAllocation> lineAllocations = new ArrayList<>();
+                int remaining = line.quantity();
+                while (remaining > 0) {
+                    SaleAllocation head = queue.pollFirst();
+                    int take = Math.min(head.quantity(), remaining);
+                    lineAllocations.add(new SaleAllocation(head.batch(), take));
+                    if (take < head.quantity()) {
+                        queue.addFirst(new SaleAllocation(head.batch(), head.quantity() - take));
+                    }
+                    remaining -= take;
+                }
+                byLine.add(lineAllocations);
+            }
+            return byLine;
+        }
+
+        /**
+         * 모아 둔 판매 가능 재고 카운터 차감을 상품별로 한 번씩 반영한다.
+         */
+        public void finish() {
+            sellableTaken.forEach((productId, taken) -> adjustAvailableStock(productId, -taken));
+            sellableTaken.clear();
         }
     }
 
@@ -209,6 +537,7 @@ public class InventoryService {
      * 특정 상품의 재고 요약을 계산한다.
      * <p>
      * '판매 가능 재고'는 다음 조건을 만족하는 배치들의 수량 합으로 정의한다.
+     * 배치를 합산하지 않고, 상품에 유지되는 판매 가능 재고 수량({@link Product#getAvailableStock()})을 그대로 반환한다.
      * </p>
      *
      * <ul>
@@ -222,18 +551,15 @@ public class InventoryService {
      */
     @Transactional(readOnly = true)
     public InventorySummaryResponse getSummary(Long productId) {
+        if (inventoryEngine.isPresent()) {
+            return inventoryEngine.get().getSummary(productId, LocalDate.now())
+                    .orElseThrow(() -> new IllegalArgumentException("상품을 찾을 수 없습니다. id=" + productId));
+        }
+
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new IllegalArgumentException("상품을 찾을 수 없습니다. id=" + productId));
 
-        LocalDate today = LocalDate.now();
-
-        int total = inventoryBatchRepository.findByProductOrderByExpiryDateAsc(product).stream()
-                .filter(b -> b.getQuantity() > 0)
-                .filter(b -> !b.getExpiryDate().isBefore(today))
-                .mapToInt(InventoryBatch::getQuantity)
-                .sum();
-
-        return new InventorySummaryResponse(product.getId(), product.getName(), total);
+        return new InventorySummaryResponse(product.getId(), product.getName(), product.getAvailableStock());
     }
 
     /**
@@ -243,6 +569,8 @@ public class InventoryService {
      * (발주 중단/단종 상품은 현황 화면에서 제외하기 위함)
      * </p>
      *
+     * <p>배치 테이블을 집계하지 않고 상품별 판매 가능 재고 수량을 그대로 읽으므로 상품당 O(1)이다.</p>
+     *
      * @param status 조회할 상품 상태(기본: ACTIVE)
      * @return 전체 상품 재고 요약 목록
      */
@@ -251,20 +579,24 @@ public class InventoryService {
         ProductStatus targetStatus = (status == null) ? ProductStatus.ACTIVE : status;
         LocalDate today = LocalDate.now();
 
-        return inventoryBatchRepository.findAllInventorySummaries(today, targetStatus).stream()
-                .map(row -> new InventorySummaryResponse(
-                        row.getProductId(),
-                        row.getProductName(),
-                        Math.toIntExact(row.getTotalQuantity())
+        if (inventoryEngine.isPresent()) {
+            return inventoryEngine.get().getAllSummaries(targetStatus, today);
+        }
+
+        return productRepository.findAllByStatusOrderByNameAsc(targetStatus).stream()
+                .map(product -> new InventorySummaryResponse(
+                        product.getId(),
+                        product.getName(),
+                        product.getAvailableStock()
                 ))
                 .toList();
     }
 
     /**
-     * 유통기한 임박/만료 배치를 조회한다.
+     * 유통기한 임박/만료 배치를 한 페이지 조회한다.
      * <p>
-     * {@code baseDate}를 기준으로 유통기한이 {@code baseDate}와 같거나 더 이른 배치
-     * (즉 {@code expiryDate <= baseDate})를 조회한다.
+     * 수량이 남아 있고 유통기한이 {@code from} ~ {@code baseDate} 사이인 배치를 유통기한 → 배치 ID 순으로 조회한다.
+     * 정렬과 페이지 나누기는 DB에서 {@code (expiry_date, id)} 인덱스 순서로 처리한다.
      * </p>
      *
      * <p>
@@ -272,24 +604,43 @@ public class InventoryService {
      * 음수 값이 될 수 있다.
      * </p>
      *
+     * @param from 유통기한 하한(포함, 선택)
      * @param baseDate 유통기한 비교 기준일(이 날짜까지 포함)
-     * @return 유통기한이 가까운 순으로 정렬된 배치 목록
+     * @param cursorExpiryDate 직전 페이지의 {@code nextCursorExpiryDate}(첫 페이지는 null)
+     * @param cursorId 직전 페이지의 {@code nextCursorId}(첫 페이지는 null)
+     * @param size 페이지 크기(1 ~ {@link #MAX_EXPIRING_PAGE_SIZE})
+     * @return 유통기한이 가까운 순으로 정렬된 배치 페이지
+     * @throws IllegalArgumentException 페이지 크기가 범위를 벗어나거나 커서 값이 한쪽만 있는 경우
      */
     @Transactional(readOnly = true)
-    public List<ExpiringBatchResponse> getExpiringBatches(LocalDate baseDate) {
-        LocalDate today = LocalDate.now();
+    public ExpiringBatchPageResponse getExpiringBatches(
+            LocalDate from,
+            LocalDate baseDate,
+            LocalDate cursorExpiryDate,
+            Long cursorId,
+            int size
+    ) {
+        if (size < 1 || size > MAX_EXPIRING_PAGE_SIZE) {
+            throw new IllegalArgumentException("페이지 크기는 1~" + MAX_EXPIRING_PAGE_SIZE + " 사이여야 합니다. size=" + size);
+        }
+        if ((cursorExpiryDate == null) != (cursorId == null)) {
+            throw new IllegalArgumentException("커서는 유통기한과 배치 ID를 함께 지정해야 합니다.");
+        }
 
-        return inventoryBatchRepository.findByExpiryDateLessThanEqual(baseDate).stream()
-                .map(b -> new ExpiringBatchResponse(
-                        b.getId(),
-                        b.getProduct().getId(),
-                        b.getProduct().getName(),
-                        b.getQuantity(),
-                        b.getExpiryDate(),
-                        ChronoUnit.DAYS.between(today, b.getExpiryDate())
-                ))
-                .sorted(Comparator.comparing(ExpiringBatchResponse::daysToExpiry))
+        LocalDate today = LocalDate.now();
+        // 한 행을 더 읽어 다음 페이지 존재 여부를 판단한다.
+        List<ExpiringBatchResponse> rows = inventoryBatchRepository
+                .findExpiringBatches(from, baseDate, cursorExpiryDate, cursorId, Limit.of(size + 1))
+                .stream()
+                .map(row -> ExpiringBatchResponse.from(row, today))
                 .toList();
+
+        if (rows.size() <= size) {
+            return new ExpiringBatchPageResponse(rows, false, null, null);
+        }
+        List<ExpiringBatchResponse> page = rows.subList(0, size);
+        ExpiringBatchResponse last = page.get(size - 1);
+        return new ExpiringBatchPageResponse(page, true, last.expiryDate(), last.batchId());
     }
 
     /**
@@ -305,40 +656,98 @@ public class InventoryService {
      *   <li>{@code note}가 비어있으면 기본 문구를 사용한다.</li>
      * </ul>
      *
+     * <p>배치를 엔티티로 읽지 않고 집합 단위 쿼리(로그 {@code INSERT ... SELECT}, 수량 {@code UPDATE})로 처리하며,
+     * 유통기한 날짜마다 실제로 만료 배치가 있는 상품 ID를 키셋으로 {@code smartpos.inventory.dispose.product-range-size}개씩
+     * 읽어, 그 첫 ID~마지막 ID 구간마다 별도 트랜잭션으로 커밋한다. 상품 ID가 드문드문 있어도 빈 구간의 트랜잭션은 열지 않는다. 따라서 만료 배치가 아무리 많아도 메모리 사용량이 늘지 않으며,
+     * 도중에 실패하면 이미 커밋된 구간은 폐기된 상태로 남는다(다시 호출하면 남은 구간만 처리된다).</p>
+     *
      * @param baseDate 만료 판단 기준일(이 날짜 이전이 만료로 처리됨)
      * @param note 로그에 남길 메모(비어있으면 기본 문구 사용)
      * @return 처리 결과(기준일, 처리 배치 수, 폐기 수량 합계)
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DisposeExpiredResponse disposeExpiredBatches(LocalDate baseDate, String note) {
         String memo = (note == null || note.isBlank()) ? "유통기한 만료 일괄 폐기" : note;
+        Limit chunk = Limit.of(Math.max(1, inventoryProperties.dispose().productRangeSize()));
 
-        List<InventoryBatch> expired = inventoryBatchRepository
-                .findByExpiryDateBeforeAndQuantityGreaterThan(baseDate, 0);
-
-        int totalDisposed = 0;
-
-        for (InventoryBatch batch : expired) {
-            int disposedQty = batch.getQuantity();
-            if (disposedQty <= 0) continue;
+        // 배치 수량을 덮어쓰기 전에 대기 중인 판매 차감을 DB에 모두 반영한다.
+        inventoryEngine.ifPresent(InMemoryInventoryEngine::flush);
 
-            batch.decrease(disposedQty);
+        LocalDate today = LocalDate.now();
+        int batchCount = 0;
+        long totalDisposed = 0;
+
+        for (LocalDate expiryDate : inventoryBatchRepository.findExpiredDates(baseDate)) {
+            // 기준일이 미래라면 오늘 기준 아직 판매 가능한 배치도 폐기되므로 카운터에서 뺀다.
+            boolean sellable = !expiryDate.isBefore(today);
+
+            long after = 0;
+            while (true) {
+                List<Long> productIds = inventoryBatchRepository.findExpiredProductIds(expiryDate, after, chunk);
+                if (productIds.isEmpty()) break;
+
+                after = productIds.get(productIds.size() - 1);
+                DisposedChunk disposed = disposeChunk(expiryDate, productIds.get(0), after, memo, sellable);
+                batchCount += disposed.batchCount();
+                totalDisposed += disposed.quantity();
+            }
+        }
 
-            InventoryLog log = InventoryLog.builder()
-                    .product(batch.getProduct())
-                    .batch(batch)
-                    .type(InventoryConsumeType.WASTE)
-                    .quantity(disposedQty)
-                    .note(memo)
-                    .build();
+        inventoryEngine.ifPresent(engine -> engine.dropExpiredAfterCommit(baseDate));
+        expiryCalendar.removeBefore(baseDate);
 
-            inventoryLogRepository.save(log);
+        return new DisposeExpiredResponse(baseDate, batchCount, Math.toIntExact(totalDisposed));
+    }
 
-            totalDisposed += disposedQty;
+    /**
+     * 유통기한 날짜 1개 + 상품 ID 범위의 만료 배치를 한 트랜잭션으로 전량 폐기한다.
+     * <p>
+     * 자정 만료 폐기({@link ExpirySweeper})가 구간마다 호출하며, 폐기 방식은 {@link #disposeExpiredBatches}와 같다.
+     * 구간 사이에 들어온 판매 차감과 엇갈리지 않도록 구간마다 대기 중인 판매 차감을 먼저 DB에 반영한다.
+     * </p>
+     *
+     * @param expiryDate 유통기한(오늘 이전이어야 한다)
+     * @param fromProductId 상품 ID 하한(포함)
+     * @param toProductId 상품 ID 상한(포함)
+     * @param note 로그에 남길 메모(비어있으면 기본 문구 사용)
+     * @return 폐기 결과
+     * @throws IllegalArgumentException 유통기한이 오늘 이후인 경우
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DisposedChunk disposeExpiredChunk(LocalDate expiryDate, Long fromProductId, Long toProductId, String note) {
+        if (!expiryDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("아직 만료되지 않은 유통기한입니다. expiryDate=" + expiryDate);
         }
+        String memo = (note == null || note.isBlank()) ? "유통기한 만료 일괄 폐기" : note;
+        inventoryEngine.ifPresent(InMemoryInventoryEngine::flush);
+        return disposeChunk(expiryDate, fromProductId, toProductId, memo, false);
+    }
+
+    private DisposedChunk disposeChunk(LocalDate expiryDate, Long fromProductId, Long toProductId,
+                                       String memo, boolean sellable) {
+        return transactionTemplate.execute(status -> {
+            int batches = inventoryBatchRepository.lockDisposalChunk(expiryDate, fromProductId, toProductId);
+            if (batches == 0) return new DisposedChunk(0, 0);
 
-        return new DisposeExpiredResponse(baseDate, expired.size(), totalDisposed);
+            long quantity = inventoryBatchRepository.sumDisposalChunkQuantity(expiryDate, fromProductId, toProductId);
+            if (sellable) {
+                productRepository.subtractDisposedStock(expiryDate, fromProductId, toProductId);
+            }
+            inventoryLogRepository.insertDisposalLogs(expiryDate, fromProductId, toProductId,
+                    InventoryConsumeType.WASTE, memo, LocalDateTime.now());
+            inventoryBatchRepository.clearDisposalChunk(expiryDate, fromProductId, toProductId);
+            return new DisposedChunk(batches, quantity);
+        });
     }
 
+    /**
+     * 폐기 구간 1개의 처리 결과.
+     *
+     * @param batchCount 폐기한 배치 수
+     * @param quantity 폐기한 수량 합계
+     */
+    public record DisposedChunk(int batchCount, long quantity) {}
+
     /**
      * 점검 추천 배치 목록을 생성하여 반환한다.
      *
@@ -354,13 +763,18 @@ public class InventoryService {
      *   </li>
      * </ul>
      *
-     * <p>후보 배치는 리포지토리에서 2번 조회하여 합집합으로 병합한다.</p>
+     * <p>점수는 설정({@code smartpos.inventory.audit.*})의 가중치로 DB에서 계산한다.
+     * 후보는 서로 겹치지 않는 3개 조건으로 나누어 조건별로 인덱스를 타고 상위 {@code limit}개씩만 조회하며,
+     * 전체 상위 {@code limit}개는 반드시 이 안에 있으므로 최대 {@code 3 * limit}개만 합쳐 다시 자른다.
+     * 후보 배치 수가 늘어나도 읽고 정렬하는 행 수는 {@code limit}에 비례한다.</p>
      * <ul>
-     *   <li>유통기한 기준 후보: {@code expiryDate <= baseDate + expiringDays}</li>
-     *   <li>미점검 기준 후보: {@code lastCheckedAt is null OR lastCheckedAt <= now - staleDays}</li>
+     *   <li>유통기한 기준 후보: {@code expiryDate <= baseDate + expiringDays}(만료 배치는 항상 포함)</li>
+     *   <li>그 외 점검 기록이 없는 후보: {@code lastCheckedAt is null}</li>
+     *   <li>그 외 오래 미점검 후보: {@code lastCheckedAt < baseDate - staleDays + 1일}</li>
      * </ul>
      *
-     * <p>결과는 점수({@code score}) 내림차순, 동일 점수일 경우 유통기한({@code expiryDate}) 오름차순으로 정렬한다.</p>
+     * <p>결과는 점수({@code score}) 내림차순, 동일 점수일 경우 유통기한({@code expiryDate}) → 배치 ID 오름차순으로 정렬한다.
+     * 추천 사유는 반환할 배치에 대해서만 만든다.</p>
      *
      * @param baseDate 기준일(만료/임박 및 미점검 기간 계산의 기준)
      * @param expiringDays 임박으로 판단할 남은 일수
@@ -375,71 +789,71 @@ public class InventoryService {
             int staleDays,
             int limit
     ) {
-        LocalDate expiryCutoff = baseDate.plusDays(expiringDays);
-        LocalDateTime staleCutoff = LocalDateTime.now().minusDays(staleDays);
-
-        List<InventoryBatch> byExpiry = inventoryBatchRepository.findAuditCandidatesByExpiry(expiryCutoff);
-        List<InventoryBatch> byStale = inventoryBatchRepository.findAuditCandidatesByStaleCheck(staleCutoff);
-
-        Map<Long, InventoryBatch> merged = new HashMap<>();
-        for (InventoryBatch b : byExpiry) merged.put(b.getId(), b);
-        for (InventoryBatch b : byStale) merged.put(b.getId(), b);
-
-        List<InventoryAuditRecommendationResponse> results = new ArrayList<>();
-
-        for (InventoryBatch b : merged.values()) {
-            boolean expired = b.getExpiryDate().isBefore(baseDate);
-            long daysUntilExpiry = ChronoUnit.DAYS.between(baseDate, b.getExpiryDate());
-            boolean expiringSoon = !expired && daysUntilExpiry <= expiringDays;
-
-            boolean neverChecked = (b.getLastCheckedAt() == null);
-            boolean staleChecked = !neverChecked
-                    && ChronoUnit.DAYS.between(b.getLastCheckedAt().toLocalDate(), baseDate) >= staleDays;
-
-            List<String> reasons = new ArrayList<>();
-            int score = 0;
+        if (limit <= 0) return List.of();
 
-            // 1) 만료 / 2) 임박
-            if (expired) {
-                reasons.add("EXPIRED");
-                score += 100;
-            } else if (expiringSoon) {
-                reasons.add("EXPIRING_SOON");
-                score += Math.max(0, 50 - (int) daysUntilExpiry);
-            }
+        InventoryProperties.Audit weights = inventoryProperties.audit();
+        LocalDate expiryCutoff = baseDate.plusDays(expiringDays);
+        // 만료 배치는 expiringDays와 관계없이 유통기한 기준 후보에 포함한다.
+        LocalDate candidateCutoff = expiryCutoff.isBefore(baseDate) ? baseDate.minusDays(1) : expiryCutoff;
+        // 마지막 점검일이 baseDate - staleDays 이하인 배치
+        LocalDateTime staleBefore = baseDate.minusDays(staleDays).plusDays(1).atStartOfDay();
+        Limit top = Limit.of(limit);
+
+        List<InventoryBatchRepository.AuditCandidateProjection> candidates = new ArrayList<>(
+                inventoryBatchRepository.findTopAuditCandidatesByExpiry(
+                        baseDate, candidateCutoff, staleBefore,
+                        weights.expiredWeight(), weights.expiringSoonWeight(),
+                        weights.neverCheckedWeight(), weights.staleCheckWeight(),
+                        top));
+        candidates.addAll(inventoryBatchRepository.findTopAuditCandidatesNeverChecked(
+                candidateCutoff, weights.neverCheckedWeight(), top));
+        candidates.addAll(inventoryBatchRepository.findTopAuditCandidatesCheckedBefore(
+                candidateCutoff, staleBefore, weights.staleCheckWeight(), top));
+
+        return candidates.stream()
+                .sorted(Comparator.comparingLong(InventoryBatchRepository.AuditCandidateProjection::getScore)
+                        .reversed()
+                        .thenComparing(InventoryBatchRepository.AuditCandidateProjection::getExpiryDate)
+                        .thenComparing(InventoryBatchRepository.AuditCandidateProjection::getBatchId))
+                .limit(limit)
+                .map(c -> new InventoryAuditRecommendationResponse(
+                        c.getBatchId(),
+                        c.getProductId(),
+                        c.getProductName(),
+                        c.getExpiryDate(),
+                        c.getQuantity(),
+                        c.getLastCheckedAt(),
+                        Math.toIntExact(c.getScore()),
+                        auditReasons(c, baseDate, expiryCutoff, staleBefore)
+                ))
+                .toList();
+    }
 
-            // 3) 오래 미점검
-            if (neverChecked) {
-                reasons.add("NEVER_CHECKED");
-                score += 40;
-            } else if (staleChecked) {
-                reasons.add("STALE_CHECK");
-                score += 20;
-            }
+    /**
+     * 점검 추천 사유를 만든다(점수 계산과 같은 조건).
+     */
+    private static List<String> auditReasons(
+            InventoryBatchRepository.AuditCandidateProjection candidate,
+            LocalDate baseDate,
+            LocalDate expiryCutoff,
+            LocalDateTime staleBefore
+    ) {
+        List<String> reasons = new ArrayList<>(2);
 
-            // 어떤 조건에도 해당하지 않으면 결과에서 제외한다.
-            if (reasons.isEmpty()) continue;
-
-            results.add(new InventoryAuditRecommendationResponse(
-                    b.getId(),
-                    b.getProduct().getId(),
-                    b.getProduct().getName(),
-                    b.getExpiryDate(),
-                    b.getQuantity(),
-                    b.getLastCheckedAt(),
-                    score,
-                    reasons
-            ));
+        // 1) 만료 / 2) 임박
+        if (candidate.getExpiryDate().isBefore(baseDate)) {
+            reasons.add("EXPIRED");
+        } else if (!candidate.getExpiryDate().isAfter(expiryCutoff)) {
+            reasons.add("EXPIRING_SOON");
         }
 
-        results.sort(
-                Comparator.comparingInt(InventoryAuditRecommendationResponse::score)
-                        .reversed()
-                        .thenComparing(InventoryAuditRecommendationResponse::expiryDate)
-        );
-
-        if (limit <= 0) return List.of();
-        return results.size() > limit ? results.subList(0, limit) : results;
+        // 3) 오래 미점검
+        if (candidate.getLastCheckedAt() == null) {
+            reasons.add("NEVER_CHECKED");
+        } else if (candidate.getLastCheckedAt().isBefore(staleBefore)) {
+            reasons.add("STALE_CHECK");
+        }
+        return reasons;
     }
 
     /**
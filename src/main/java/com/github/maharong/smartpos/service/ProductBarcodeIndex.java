@@ -0,0 +1,101 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.ProductResponse;
+import com.github.maharong.smartpos.event.ProductChangedEvent;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 스캐너 조회용 바코드 → 상품 인메모리 인덱스.
+ * <p>
+ * 조회는 불변 맵 하나를 읽기만 하므로 락·트랜잭션·DB 접근 없이 끝난다.
+ * 상품이 등록/수정/상태 변경되면({@link ProductChangedEvent}, 커밋 후) 사본을 만들어 바꾼 뒤
+ * 참조를 통째로 교체한다. 상품 변경은 스캔에 비해 드물어 변경마다 전체를 복사해도 부담이 작다.
+ * </p>
+ * <p>
+ * 커밋 후 이벤트는 발행 순서와 다르게 도착할 수 있으므로, 항목마다 반영한 변경 버전을 기억해 두고
+ * 그보다 오래된 버전의 이벤트는 무시한다.
+ * </p>
+ * <p>
+ * 기동 시 전체 상품으로 채워 두며, 상품 응답 DTO({@link ProductResponse})를 그대로 보관해 조회마다 변환하지 않는다.
+ * </p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductBarcodeIndex implements SmartInitializingSingleton {
+
+    private final ProductRepository productRepository;
+
+    private volatile Map<String, Entry> byBarcode = Map.of();
+
+    /**
+     * 기동 시 전체 상품으로 인덱스를 채운다.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * DB의 전체 상품으로 인덱스를 다시 만든다.
+     */
+    public synchronized void rebuild() {
+        Map<String, Entry> index = new HashMap<>();
+        productRepository.findAll().forEach(product -> index.put(product.getBarcode(),
+                new Entry(ProductService.toResponse(product), product.getChangeVersion())));
+        byBarcode = Map.copyOf(index);
+        log.info("바코드 인덱스를 적재했습니다. 상품 {}개", index.size());
+    }
+
+    /**
+     * 바코드로 상품을 찾는다.
+     *
+     * @param barcode 바코드
+     * @return 상품(인덱스에 없으면 빈 값)
+     */
+    public Optional<ProductResponse> find(String barcode) {
+        Entry entry = byBarcode.get(barcode);
+        return entry == null ? Optional.empty() : Optional.of(entry.product());
+    }
+
+    /**
+     * 변경된 상품을 반영한 새 인덱스로 교체한다.
+     * <p>
+     * 이미 같거나 더 새로운 버전이 반영된 상품의 이벤트는 무시한다.
+     * </p>
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        ProductResponse product = event.product();
+        boolean stale = byBarcode.values().stream()
+                .anyMatch(existing -> existing.product().id().equals(product.id())
+                        && existing.changeVersion() >= event.changeVersion());
+        if (stale) {
+            log.debug("오래된 상품 변경 이벤트를 무시합니다. productId={}, version={}", product.id(), event.changeVersion());
+            return;
+        }
+
+        Map<String, Entry> index = new HashMap<>(byBarcode);
+        index.values().removeIf(existing -> existing.product().id().equals(product.id()));
+        index.put(product.barcode(), new Entry(product, event.changeVersion()));
+        byBarcode = Map.copyOf(index);
+    }
+
+    /**
+     * 인덱스 항목.
+     *
+     * @param product 상품 응답 DTO
+     * @param changeVersion 이 항목에 반영된 상품의 변경 버전
+     */
+    private record Entry(ProductResponse product, long changeVersion) {
+    }
+}
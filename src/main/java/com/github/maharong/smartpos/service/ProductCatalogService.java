@@ -0,0 +1,163 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.ProductChangeResponse;
+import com.github.maharong.smartpos.dto.ProductChangesResponse;
+import com.github.maharong.smartpos.dto.ProductSnapshotResponse;
+import com.github.maharong.smartpos.repository.CatalogVersionRepository;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 단말 카탈로그 동기화 서비스.
+ * <p>
+ * 단말은 기동 시 전체 스냅샷을 한 번 받고, 이후에는 받은 마지막 변경 버전 이후의 변경분만 조회한다.
+ * </p>
+ *
+ * <ul>
+ *   <li>스냅샷은 gzip으로 압축한 JSON 바이트를 메모리에 만들어 두고, 카탈로그 버전이 바뀌었을 때만 다시 만든다.
+ *       버전을 ETag로 내려 주어 바뀌지 않았으면 본문 없이 응답할 수 있게 한다.</li>
+ *   <li>변경분 조회는 먼저 카탈로그 버전을 확인해, 새 변경이 없으면 상품 테이블을 조회하지 않는다.</li>
+ * </ul>
+ *
+ * <p>카탈로그 버전은 노드 메모리가 아니라 한 행짜리 {@code catalog_version}을 기본 키로 읽으므로,
+ * 다른 노드에서 커밋된 상품 변경도 바로 반영된다.
+ * 서비스 단위 트랜잭션을 두지 않고, DB 조회는 리포지토리 트랜잭션으로 처리한다.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductCatalogService {
+
+    /**
+     * 변경분 조회의 한 페이지 최대 행 수.
+     */
+    public static final int MAX_CHANGES_PAGE_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * 압축해 둔 전체 스냅샷과, 만들기 직전에 읽은 카탈로그 버전.
+     */
+    private volatile CachedSnapshot snapshot;
+
+    /**
+     * 기준 버전 이후에 변경된 상품을 변경 버전 순으로 조회한다(단종 상품 포함).
+     *
+     * @param since 단말이 받은 마지막 변경 버전
+     * @param size 페이지 크기
+     * @return 변경분
+     * @throws IllegalArgumentException 기준 버전이나 페이지 크기가 올바르지 않은 경우
+     */
+    public ProductChangesResponse getChanges(long since, int size) {
+        if (since < 0) {
+            throw new IllegalArgumentException("기준 버전은 0 이상이어야 합니다. since=" + since);
+        }
+        if (size < 1 || size > MAX_CHANGES_PAGE_SIZE) {
+            throw new IllegalArgumentException("페이지 크기는 1~" + MAX_CHANGES_PAGE_SIZE + " 사이여야 합니다. size=" + size);
+        }
+        if (since >= committedVersion()) {
+            return new ProductChangesResponse(List.of(), false, since);
+        }
+
+        // 한 행을 더 읽어 다음 페이지 존재 여부를 판단한다.
+        List<ProductChangeResponse> rows = productRepository
+                .findByChangeVersionGreaterThanOrderByChangeVersionAsc(since, Limit.of(size + 1))
+                .stream()
+                .map(ProductChangeResponse::from)
+                .toList();
+
+        boolean hasNext = rows.size() > size;
+        List<ProductChangeResponse> page = hasNext ? rows.subList(0, size) : rows;
+        long nextSince = page.isEmpty() ? since : page.get(page.size() - 1).version();
+        return new ProductChangesResponse(page, hasNext, nextSince);
+    }
+
+    /**
+     * 압축된 전체 스냅샷을 반환한다.
+     * <p>
+     * 카탈로그 버전을 읽어 만들어 둔 스냅샷과 같으면 그대로 쓰고, 다르면(어느 노드에서든 상품이 변경되었으면)
+     * DB에서 다시 만든다. 버전을 먼저 읽고 상품을 읽으므로, 그 사이의 변경이 들어간 스냅샷은
+     * 다음 요청에서 한 번 더 만들어질 뿐 변경이 빠진 스냅샷이 남지 않는다.
+     * </p>
+     *
+     * @return 전체 스냅샷
+     */
+    public CatalogSnapshot getSnapshot() {
+        long version = committedVersion();
+        CachedSnapshot current = snapshot;
+        if (current != null && current.catalogVersion() == version) return current.snapshot();
+
+        synchronized (this) {
+            current = snapshot;
+            if (current == null || current.catalogVersion() != version) {
+                current = new CachedSnapshot(version, buildSnapshot());
+                snapshot = current;
+            }
+            return current.snapshot();
+        }
+    }
+
+    /**
+     * 커밋된 카탈로그 버전(상품 변경이 없었으면 0).
+     */
+    private long committedVersion() {
+        return catalogVersionRepository.findCommittedVersion().orElse(0L);
+    }
+
+    private CatalogSnapshot buildSnapshot() {
+        List<ProductChangeResponse> products = productRepository.findAllByOrderByIdAsc().stream()
+                .map(ProductChangeResponse::from)
+                .toList();
+        // 상품 변경은 버전 순서대로 커밋되므로, 읽은 행의 최대 버전까지의 변경은 모두 스냅샷에 들어 있다.
+        long version = products.stream().mapToLong(ProductChangeResponse::version).max().orElse(0L);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            jsonMapper.writeValue(gzip, new ProductSnapshotResponse(version, products));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new CatalogSnapshot(version, "\"" + version + "\"", buffer.toByteArray());
+    }
+
+    /**
+     * 만들어 둔 스냅샷과, 만들기 직전에 읽은 카탈로그 버전.
+     */
+    private record CachedSnapshot(long catalogVersion, CatalogSnapshot snapshot) {
+    }
+
+    /**
+     * 압축된 카탈로그 스냅샷.
+     *
+     * @param version 스냅샷에 반영된 마지막 변경 버전
+     * @param etag HTTP ETag 값(버전)
+     * @param gzipBody gzip으로 압축한 {@link ProductSnapshotResponse} JSON
+     */
+    public record CatalogSnapshot(long version, String etag, byte[] gzipBody) {
+
+        /**
+         * gzip을 받지 못하는 클라이언트용으로 압축을 푼 JSON을 반환한다.
+         *
+         * @return {@link ProductSnapshotResponse} JSON
+         */
+        public byte[] jsonBody() {
+            try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(gzipBody))) {
+                return gzip.readAllBytes();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.config.InventoryProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 상품 ID 기준 JVM 내부 락 스트라이프.
+ * <p>
+ * 같은 노드에서 같은 상품을 동시에 판매하는 요청을 JVM 안에서 먼저 직렬화하여,
+ * 동일 배치에 대한 경합이 데이터베이스(낙관적 락 충돌/행 잠금 대기)까지 내려가지 않도록 한다.
+ * </p>
+ *
+ * <ul>
+ *   <li>락 개수는 설정값을 2의 거듭제곱으로 올린 고정 크기이며, 상품 ID 해시로 스트라이프를 고른다.</li>
+ *   <li>여러 상품을 잠글 때는 스트라이프 번호 오름차순으로 획득하여 교착 상태를 방지한다.</li>
+ * </ul>
+ */
+@Component
+public class ProductLockStripes {
+
+    private final ReentrantLock[] locks;
+
+    public ProductLockStripes(InventoryProperties properties) {
+        int requested = Math.max(1, properties.lockStripes());
+        int size = Integer.highestOneBit(requested);
+        if (size < requested) {
+            size <<= 1;
+        }
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * 주어진 상품들의 락을 모두 획득한 상태에서 작업을 실행한다.
+     *
+     * @param productIds 잠글 상품 ID 목록
+     * @param action 실행할 작업
+     * @return 작업 결과
+     */
+    public <T> T withLocks(Collection<Long> productIds, Supplier<T> action) {
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (Long productId : productIds) {
+            stripes.add(stripeOf(productId));
+        }
+
+        Deque<ReentrantLock> held = new ArrayDeque<>();
+        try {
+            for (int stripe : stripes) {
+                ReentrantLock lock = locks[stripe];
+                lock.lock();
+                held.push(lock);
+            }
+            return action.get();
+        } finally {
+            while (!held.isEmpty()) {
+                held.pop().unlock();
+            }
+        }
+    }
+
+    private int stripeOf(Long productId) {
+        int h = Long.hashCode(productId);
+        h ^= (h >>> 16);
+        return h & (locks.length - 1);
+    }
+}
@@ -5,9 +5,13 @@ import com.github.maharong.smartpos.dto.ProductResponse;
 import com.github.maharong.smartpos.dto.ProductUpdateRequest;
 import com.github.maharong.smartpos.entity.Product;
 import com.github.maharong.smartpos.enums.ProductStatus;
+import com.github.maharong.smartpos.event.ProductChangedEvent;
+import com.github.maharong.smartpos.repository.CatalogVersionRepository;
 import com.github.maharong.smartpos.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -31,6 +35,9 @@ import java.util.List;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final ProductBarcodeIndex productBarcodeIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 상품을 등록한다.
@@ -55,7 +62,7 @@ public class ProductService {
                 .build();
 
         Product saved = productRepository.save(product);
-        return toResponse(saved);
+        return publishChanged(saved);
     }
 
     /**
@@ -74,16 +81,20 @@ public class ProductService {
 
     /**
      * 바코드로 상품을 조회한다.
+     * <p>
+     * 스캔마다 호출되므로 트랜잭션 없이 {@link ProductBarcodeIndex}에서 찾는다.
+     * 인덱스에 없을 때만(등록 커밋 직후 인덱스 반영 전 등) DB를 조회한다.
+     * </p>
      *
      * @param barcode 바코드
      * @return 상품 응답 DTO
      * @throws IllegalArgumentException 해당 바코드의 상품이 존재하지 않는 경우
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public ProductResponse getByBarcode(String barcode) {
-        Product product = productRepository.findByBarcode(barcode)
+        return productBarcodeIndex.find(barcode)
+                .or(() -> productRepository.findByBarcode(barcode).map(ProductService::toResponse))
                 .orElseThrow(() -> new IllegalArgumentException("상품을 찾을 수 없습니다: " + barcode));
-        return toResponse(product);
     }
 
     /**
@@ -108,7 +119,7 @@ public class ProductService {
                 req.unitsPerPackage()
         );
 
-        return toResponse(product);
+        return publishChanged(product);
     }
 
     /**
@@ -156,7 +167,7 @@ public class ProductService {
                 .orElseThrow(() -> new IllegalArgumentException("상품을 찾을 수 없습니다. id=" + id));
 
         product.discontinue();
-        return toResponse(product);
+        return publishChanged(product);
     }
 
     /**
@@ -175,7 +186,7 @@ public class ProductService {
                 .orElseThrow(() -> new IllegalArgumentException("상품을 찾을 수 없습니다. id=" + id));
 
         product.activate();
-        return toResponse(product);
+        return publishChanged(product);
     }
 
     /**
@@ -193,7 +204,24 @@ public class ProductService {
                 .orElseThrow(() -> new IllegalArgumentException("상품을 찾을 수 없습니다. id=" + id));
 
         product.pause();
-        return toResponse(product);
+        return publishChanged(product);
+    }
+
+    /**
+     * 카탈로그 변경 버전을 발급해 상품에 기록하고, 상품 변경 이벤트({@link ProductChangedEvent})를 발행한 뒤
+     * 응답 DTO를 반환한다.
+     *
+     * @param product 변경된 상품 엔티티
+     * @return 상품 응답 DTO
+     */
+    private ProductResponse publishChanged(Product product) {
+        catalogVersionRepository.increment();
+        long changeVersion = catalogVersionRepository.findCurrentVersion();
+        product.markChanged(changeVersion);
+
+        ProductResponse response = toResponse(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(response, changeVersion));
+        return response;
     }
 
     /**
@@ -202,7 +230,7 @@ public class ProductService {
      * @param product 상품 엔티티
      * @return 상품 응답 DTO
      */
-    private static ProductResponse toResponse(Product product) {
+    static ProductResponse toResponse(Product product) {
         return new ProductResponse(
                 product.getId(),
                 product.getName(),
@@ -0,0 +1,270 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.*;
+import com.github.maharong.smartpos.entity.InventoryBatch;
+import com.github.maharong.smartpos.entity.Product;
+import com.github.maharong.smartpos.entity.PurchaseOrder;
+import com.github.maharong.smartpos.entity.PurchaseOrderItem;
+import com.github.maharong.smartpos.enums.ProductStatus;
+import com.github.maharong.smartpos.enums.PurchaseOrderStatus;
+import com.github.maharong.smartpos.repository.InventoryBatchRepository;
+import com.github.maharong.smartpos.repository.PurchaseOrderItemRepository;
+import com.github.maharong.smartpos.repository.PurchaseOrderRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 발주 조회/입고 서비스.
+ *
+ * <p>목록은 라인 수와 총액을 SQL에서 집계한 프로젝션으로, 상세는 발주 요약 1건과 상품을 엔티티 그래프로 함께 올린 라인 목록으로
+ * 조회하므로 라인/상품 수와 관계없이 쿼리 수가 일정하다.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class PurchaseOrderService {
+
+    /**
+     * 발주 목록 한 페이지 최대 행 수.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String ADJUST_AVAILABLE_STOCK =
+            "update product set available_stock = available_stock + ? where id = ?";
+
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final PurchaseOrderItemRepository purchaseOrderItemRepository;
+    private final InventoryBatchRepository inventoryBatchRepository;
+    private final ExpiryCalendar expiryCalendar;
+    private final Optional<InMemoryInventoryEngine> inventoryEngine;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    /**
+     * 발주 목록을 최신순으로 한 페이지 조회한다.
+     * <p>
+     * 발주 테이블만 키셋으로 읽어 페이지의 발주를 먼저 고르고, 그 발주들의 라인만 한 번에 집계한다.
+     * </p>
+     *
+     * @param from 발주 시각 하한(포함, 선택)
+     * @param to 발주 시각 상한(미포함, 선택)
+     * @param status 발주 상태(선택)
+     * @param cursorOrderedAt 직전 페이지의 {@code nextCursorOrderedAt}(첫 페이지는 null)
+     * @param cursorId 직전 페이지의 {@code nextCursorId}(첫 페이지는 null)
+     * @param size 페이지 크기(1 ~ {@link #MAX_PAGE_SIZE})
+     * @return 발주 목록 페이지
+     * @throws IllegalArgumentException 페이지 크기가 범위를 벗어나거나 커서 값이 한쪽만 있는 경우
+     */
+    @Transactional(readOnly = true)
+    public PurchaseOrderPageResponse getPurchaseOrders(
+            LocalDateTime from,
+            LocalDateTime to,
+            PurchaseOrderStatus status,
+            LocalDateTime cursorOrderedAt,
+            Long cursorId,
+            int size
+    ) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("페이지 크기는 1~" + MAX_PAGE_SIZE + " 사이여야 합니다. size=" + size);
+        }
+        if ((cursorOrderedAt == null) != (cursorId == null)) {
+            throw new IllegalArgumentException("커서는 발주 시각과 발주 ID를 함께 지정해야 합니다.");
+        }
+
+        // 한 행을 더 읽어 다음 페이지 존재 여부를 판단한다.
+        List<PurchaseOrderRepository.PurchaseOrderKeyProjection> orders = purchaseOrderRepository
+                .findPurchaseOrderPage(from, to, status, cursorOrderedAt, cursorId, Limit.of(size + 1));
+        boolean hasNext = orders.size() > size;
+        if (hasNext) {
+            orders = orders.subList(0, size);
+        }
+
+        Map<Long, PurchaseOrderItemRepository.PurchaseOrderLineTotalProjection> lines = new HashMap<>();
+        if (!orders.isEmpty()) {
+            List<Long> ids = orders.stream().map(PurchaseOrderRepository.PurchaseOrderKeyProjection::getPurchaseOrderId).toList();
+            purchaseOrderItemRepository.findLineTotals(ids)
+                    .forEach(row -> lines.put(row.getPurchaseOrderId(), row));
+        }
+        List<PurchaseOrderSummaryResponse> page = orders.stream()
+                .map(order -> PurchaseOrderSummaryResponse.of(order, lines.get(order.getPurchaseOrderId())))
+                .toList();
+
+        if (!hasNext) {
+            return new PurchaseOrderPageResponse(page, false, null, null);
+        }
+        PurchaseOrderSummaryResponse last = page.get(size - 1);
+        return new PurchaseOrderPageResponse(page, true, last.orderedAt(), last.purchaseOrderId());
+    }
+
+    /**
+     * 발주 상세(라인과 상품 포함)를 조회한다.
+     *
+     * @param purchaseOrderId 발주 ID
+     * @return 발주 상세
+     * @throws IllegalArgumentException 발주를 찾을 수 없는 경우
+     */
+    @Transactional(readOnly = true)
+    public PurchaseOrderDetailResponse getPurchaseOrder(Long purchaseOrderId) {
+        PurchaseOrderRepository.PurchaseOrderSummaryProjection summary = purchaseOrderRepository
+                .findPurchaseOrderSummary(purchaseOrderId)
+                .orElseThrow(() -> new IllegalArgumentException("발주를 찾을 수 없습니다. id=" + purchaseOrderId));
+        List<PurchaseOrderLineResponse> items = purchaseOrderItemRepository
+                .findByPurchaseOrderIdOrderByIdAsc(purchaseOrderId)
+                .stream()
+                .map(PurchaseOrderLineResponse::from)
+                .toList();
+        return new PurchaseOrderDetailResponse(
+                summary.getPurchaseOrderId(), summary.getOrderedAt(), summary.getStatus(), summary.getTotalPrice(), items);
+    }
+
+    /**
+     * 발주 전체를 입고 처리한다.
+     * <p>
+     * 발주 라인마다 박스 수량 × 상품의 발주 단위당 낱개 개수만큼 입고 배치를 만들고 발주를 입고 완료로 바꾼다.
+     * 모든 라인을 먼저 검증한 뒤 저장하므로 한 라인이라도 잘못되면 아무것도 입고되지 않는다.
+     * </p>
+     *
+     * <ul>
+     *   <li>배치는 라인 수만큼의 JDBC 배치 한 번으로 INSERT하고(ID는 시퀀스에서 미리 할당),
+     *       판매 가능 재고 증가도 상품별로 묶어 JDBC 배치 한 번으로 반영한다.</li>
+     *   <li>발주는 쓰기 락을 잡고 조회하여 같은 발주가 동시에 두 번 입고되지 않게 한다.</li>
+     *   <li>유통기한 달력과 인메모리 재고 엔진에는 커밋 후 반영한다.</li>
+     * </ul>
+     *
+     * @param purchaseOrderId 발주 ID
+     * @param req 입고 요청(입고일, 라인별 유통기한)
+     * @return 입고 결과
+     * @throws IllegalArgumentException 발주가 없거나, 라인 구성이 발주와 다르거나, 날짜 검증에 실패한 경우
+     * @throws IllegalStateException 입고할 수 없는 상태의 발주이거나 단종 상품이 포함된 경우
+     */
+    public PurchaseOrderReceiveResponse receive(Long purchaseOrderId, PurchaseOrderReceiveRequest req) {
+        PurchaseOrder purchaseOrder = purchaseOrderRepository.findByIdForUpdate(purchaseOrderId)
+                .orElseThrow(() -> new IllegalArgumentException("발주를 찾을 수 없습니다. id=" + purchaseOrderId));
+        if (purchaseOrder.getStatus() != PurchaseOrderStatus.REQUESTED
+                && purchaseOrder.getStatus() != PurchaseOrderStatus.ORDERED) {
+            throw new IllegalStateException("입고할 수 없는 발주 상태입니다. id=" + purchaseOrderId
+                    + ", status=" + purchaseOrder.getStatus());
+        }
+
+        LocalDate receivedDate = (req.receivedDate() != null) ? req.receivedDate() : LocalDate.now();
+        List<PurchaseOrderItem> items = purchaseOrderItemRepository.findByPurchaseOrderIdOrderByIdAsc(purchaseOrderId);
+        Map<Long, LocalDate> expiryByItem = expiryByItem(req.lines(), items, purchaseOrderId);
+
+        List<InventoryBatch> batches = new ArrayList<>(items.size());
+        for (PurchaseOrderItem item : items) {
+            Product product = item.getProduct();
+            if (product.getStatus() == ProductStatus.DISCONTINUED) {
+                throw new IllegalStateException("단종 상품은 입고할 수 없습니다. productId=" + product.getId());
+            }
+            LocalDate expiryDate = expiryByItem.get(item.getId());
+            if (expiryDate.isBefore(receivedDate)) {
+                throw new IllegalArgumentException("유통기한이 입고일보다 빠릅니다. purchaseOrderItemId=" + item.getId()
+                        + ", expiry=" + expiryDate + ", received=" + receivedDate);
+            }
+            int quantity;
+            try {
+                quantity = Math.multiplyExact(item.getPackageQuantity(), product.getUnitsPerPackage());
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("입고 수량이 너무 큽니다. purchaseOrderItemId=" + item.getId());
+            }
+            if (quantity <= 0) {
+                throw new IllegalArgumentException("입고 수량은 1 이상이어야 합니다. purchaseOrderItemId=" + item.getId()
+                        + ", quantity=" + quantity);
+            }
+
+            batches.add(InventoryBatch.builder()
+                    .product(product)
+                    .quantity(quantity)
+                    .expiryDate(expiryDate)
+                    .receivedDate(receivedDate)
+                    .build());
+        }
+
+        saveInOneBatch(batches);
+        addAvailableStock(batches);
+        purchaseOrder.updateStatus(PurchaseOrderStatus.RECEIVED);
+
+        long totalQuantity = 0;
+        List<InventoryBatchResponse> responses = new ArrayList<>(batches.size());
+        for (InventoryBatch batch : batches) {
+            Long productId = batch.getProduct().getId();
+            inventoryEngine.ifPresent(engine -> engine.addBatchAfterCommit(
+                    batch.getId(), productId, batch.getExpiryDate(), batch.getQuantity()));
+            expiryCalendar.registerAfterCommit(batch.getExpiryDate(), productId);
+            totalQuantity += batch.getQuantity();
+            responses.add(InventoryBatchResponse.from(batch));
+        }
+        return new PurchaseOrderReceiveResponse(
+                purchaseOrder.getId(), purchaseOrder.getStatus(), receivedDate, totalQuantity, responses);
+    }
+
+    /**
+     * 요청 라인이 발주 라인과 한 개씩 대응하는지 확인하고 발주 라인 ID → 유통기한을 만든다.
+     */
+    private static Map<Long, LocalDate> expiryByItem(
+            List<PurchaseOrderReceiveLineRequest> lines, List<PurchaseOrderItem> items, Long purchaseOrderId) {
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("발주 라인이 없습니다. id=" + purchaseOrderId);
+        }
+        Set<Long> itemIds = new HashSet<>();
+        items.forEach(item -> itemIds.add(item.getId()));
+
+        Map<Long, LocalDate> expiryByItem = new HashMap<>();
+        for (PurchaseOrderReceiveLineRequest line : lines) {
+            if (!itemIds.contains(line.purchaseOrderItemId())) {
+                throw new IllegalArgumentException("발주에 없는 라인입니다. id=" + purchaseOrderId
+                        + ", purchaseOrderItemId=" + line.purchaseOrderItemId());
+            }
+            if (expiryByItem.put(line.purchaseOrderItemId(), line.expiryDate()) != null) {
+                throw new IllegalArgumentException("중복된 라인입니다. purchaseOrderItemId=" + line.purchaseOrderItemId());
+            }
+        }
+        if (expiryByItem.size() != itemIds.size()) {
+            itemIds.removeAll(expiryByItem.keySet());
+            throw new IllegalArgumentException("유통기한이 없는 발주 라인이 있습니다. purchaseOrderItemIds=" + itemIds);
+        }
+        return expiryByItem;
+    }
+
+    /**
+     * 배치를 JDBC 배치 한 번으로 INSERT한다(세션의 배치 크기를 라인 수로 잠시 늘림).
+     */
+    private void saveInOneBatch(List<InventoryBatch> batches) {
+        Session session = entityManager.unwrap(Session.class);
+        Integer previous = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(Math.max(batches.size(), 1));
+        try {
+            inventoryBatchRepository.saveAll(batches);
+            session.flush();
+        } finally {
+            session.setJdbcBatchSize(previous);
+        }
+    }
+
+    /**
+     * 만료되지 않은 배치 수량을 상품별로 합쳐 판매 가능 재고에 더한다.
+     */
+    private void addAvailableStock(List<InventoryBatch> batches) {
+        LocalDate today = LocalDate.now();
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (InventoryBatch batch : batches) {
+            if (!batch.getExpiryDate().isBefore(today)) {
+                deltas.merge(batch.getProduct().getId(), batch.getQuantity(), Integer::sum);
+            }
+        }
+        if (deltas.isEmpty()) return;
+
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        deltas.forEach((productId, delta) -> rows.add(new Object[]{delta, productId}));
+        jdbcTemplate.batchUpdate(ADJUST_AVAILABLE_STOCK, rows);
+    }
+}
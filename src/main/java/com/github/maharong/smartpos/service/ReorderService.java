@@ -0,0 +1,155 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.config.ReorderProperties;
+import com.github.maharong.smartpos.dto.ProductAvailabilityResponse;
+import com.github.maharong.smartpos.dto.PurchaseOrderDraftResponse;
+import com.github.maharong.smartpos.dto.ReorderSuggestionResponse;
+import com.github.maharong.smartpos.entity.PurchaseOrder;
+import com.github.maharong.smartpos.entity.PurchaseOrderItem;
+import com.github.maharong.smartpos.enums.ProductStatus;
+import com.github.maharong.smartpos.enums.PurchaseOrderStatus;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import com.github.maharong.smartpos.repository.PurchaseOrderItemRepository;
+import com.github.maharong.smartpos.repository.PurchaseOrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 가용 재고 조회와 판매 속도 기반 발주 추천 서비스.
+ * <p>
+ * 최근 {@code lookbackDays}일의 판매량을 상품별 일자 집계({@code ProductDailySales})에서 읽어
+ * 일평균 판매량을 구하고, 입고 소요 일수와 목표 재고 일수 동안 필요한 수량에서 판매 가능 재고와
+ * 진행 중인 발주(요청/주문)의 입고 예정 수량을 뺀 만큼을 박스 단위로 올림해 추천한다.
+ * 판매 라인을 다시 집계하지 않으므로 판매 이력 크기와 관계없이 상품 수만큼의 행만 읽는다.
+ * </p>
+ * <p>
+ * 보유 재고·입고 예정·판매량은 상품별로 묶은 쿼리 한 번({@link ProductRepository#findAvailability})으로 읽으며,
+ * 상품별 계산은 서로 독립이라 병렬로 처리한다.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ReorderService {
+
+    /**
+     * 입고 예정으로 보는 발주 상태.
+     */
+    private static final List<PurchaseOrderStatus> OPEN_STATUSES =
+            List.of(PurchaseOrderStatus.REQUESTED, PurchaseOrderStatus.ORDERED);
+
+    private final ProductRepository productRepository;
+    private final PurchaseOrderRepository purchaseOrderRepository;
+    private final PurchaseOrderItemRepository purchaseOrderItemRepository;
+    private final ReorderProperties reorderProperties;
+
+    /**
+     * 상품별 판매 가능 재고, 입고 예정 수량, 재고 소진 예상 일수를 조회한다.
+     *
+     * @param status 상품 상태
+     * @param baseDate 기준일(전날까지의 판매로 판매 속도를 계산)
+     * @return 상품 ID순 가용 재고 목록
+     */
+    public List<ProductAvailabilityResponse> getAvailability(ProductStatus status, LocalDate baseDate) {
+        int lookbackDays = lookbackDays();
+        return findAvailability(status, baseDate, lookbackDays).stream()
+                .map(row -> ProductAvailabilityResponse.from(row, lookbackDays))
+                .toList();
+    }
+
+    /**
+     * 기준일 전날까지의 판매 속도로 발주가 필요한 상품을 추천한다.
+     *
+     * @param baseDate 기준일(이 날짜는 판매 속도 계산에서 제외)
+     * @return 발주 추천 목록(상품 ID순)
+     */
+    public List<ReorderSuggestionResponse> getSuggestions(LocalDate baseDate) {
+        int lookbackDays = lookbackDays();
+        long horizonDays = Math.max(0, reorderProperties.leadTimeDays()) + Math.max(0, reorderProperties.coverageDays());
+
+        return findAvailability(ProductStatus.ACTIVE, baseDate, lookbackDays).parallelStream()
+                .map(product -> suggest(product, lookbackDays, horizonDays))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * 발주 추천 내역으로 발주 요청(REQUESTED) 상태의 발주서 초안을 만든다.
+     *
+     * @param baseDate 기준일
+     * @return 발주서 초안(발주할 상품이 없으면 빈 값)
+     */
+    @Transactional
+    public Optional<PurchaseOrderDraftResponse> createDraft(LocalDate baseDate) {
+        List<ReorderSuggestionResponse> suggestions = getSuggestions(baseDate);
+        if (suggestions.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long totalPrice = suggestions.stream()
+                .mapToLong(suggestion -> (long) suggestion.packageQuantity() * suggestion.unitPrice())
+                .sum();
+        PurchaseOrder purchaseOrder = purchaseOrderRepository.save(PurchaseOrder.builder()
+                .orderedAt(LocalDateTime.now())
+                .status(PurchaseOrderStatus.REQUESTED)
+                .totalPrice(totalPrice)
+                .build());
+
+        purchaseOrderItemRepository.saveAll(suggestions.stream()
+                .map(suggestion -> PurchaseOrderItem.builder()
+                        .purchaseOrder(purchaseOrder)
+                        .product(productRepository.getReferenceById(suggestion.productId()))
+                        .packageQuantity(suggestion.packageQuantity())
+                        .unitPrice(suggestion.unitPrice())
+                        .build())
+                .toList());
+
+        return Optional.of(new PurchaseOrderDraftResponse(
+                purchaseOrder.getId(), purchaseOrder.getOrderedAt(), purchaseOrder.getStatus(), totalPrice, suggestions));
+    }
+
+    private int lookbackDays() {
+        return Math.max(1, reorderProperties.lookbackDays());
+    }
+
+    private List<ProductRepository.AvailabilityProjection> findAvailability(
+            ProductStatus status, LocalDate baseDate, int lookbackDays) {
+        return productRepository.findAvailability(
+                status, OPEN_STATUSES, baseDate.minusDays(lookbackDays), baseDate.minusDays(1));
+    }
+
+    /**
+     * 상품 하나의 발주 추천 수량을 계산한다.
+     *
+     * @return 발주가 필요 없으면 null
+     */
+    private static ReorderSuggestionResponse suggest(
+            ProductRepository.AvailabilityProjection product, int lookbackDays, long horizonDays) {
+        long sold = product.getSoldQuantity();
+        if (sold <= 0) return null;
+
+        // 목표 재고 = ceil(일평균 판매량 × 일수), 보유 재고와 입고 예정 수량을 뺀 부족분은 박스 단위로 올림한다.
+        long targetStock = (sold * horizonDays + lookbackDays - 1) / lookbackDays;
+        long shortage = targetStock - product.getAvailableStock() - product.getInboundQuantity();
+        if (shortage <= 0) return null;
+
+        int unitsPerPackage = Math.max(1, product.getUnitsPerPackage());
+        int packageQuantity = Math.toIntExact((shortage + unitsPerPackage - 1) / unitsPerPackage);
+        return new ReorderSuggestionResponse(
+                product.getProductId(),
+                product.getProductName(),
+                product.getAvailableStock(),
+                product.getInboundQuantity(),
+                (double) sold / lookbackDays,
+                targetStock,
+                packageQuantity,
+                Math.multiplyExact(product.getPrice(), unitsPerPackage));
+    }
+}
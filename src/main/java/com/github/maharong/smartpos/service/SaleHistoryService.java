@@ -0,0 +1,146 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.SalePageResponse;
+import com.github.maharong.smartpos.dto.SaleSummaryResponse;
+import com.github.maharong.smartpos.enums.SaleExportFormat;
+import com.github.maharong.smartpos.enums.SaleStatus;
+import com.github.maharong.smartpos.repository.SaleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 판매 이력 조회/내보내기 서비스.
+ *
+ * <ul>
+ *   <li>목록 조회는 {@code (soldAt, id)} 키셋 페이지네이션으로, 페이지 깊이와 무관하게 같은 비용으로 조회한다.</li>
+ *   <li>내보내기는 프로젝션을 fetch size 단위로 스트리밍하며 바로 응답 스트림에 쓰므로, 기간이 길어도 메모리 사용량이 일정하다.</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SaleHistoryService {
+
+    /**
+     * 한 페이지 최대 행 수.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final String CSV_HEADER =
+            "saleId,soldAt,status,paymentMethod,totalPrice,cashAmount,cardAmount,pointAmount";
+
+    private final SaleRepository saleRepository;
+    private final JsonMapper jsonMapper;
+
+    /**
+     * 판매 이력을 최신순으로 한 페이지 조회한다.
+     *
+     * @param from 판매 시각 하한(포함, 선택)
+     * @param to 판매 시각 상한(미포함, 선택)
+     * @param status 판매 상태(선택)
+     * @param cursorSoldAt 직전 페이지의 {@code nextCursorSoldAt}(첫 페이지는 null)
+     * @param cursorId 직전 페이지의 {@code nextCursorId}(첫 페이지는 null)
+     * @param size 페이지 크기(1 ~ {@link #MAX_PAGE_SIZE})
+     * @return 판매 이력 페이지
+     * @throws IllegalArgumentException 페이지 크기가 범위를 벗어나거나 커서 값이 한쪽만 있는 경우
+     */
+    public SalePageResponse getSales(
+            LocalDateTime from,
+            LocalDateTime to,
+            SaleStatus status,
+            LocalDateTime cursorSoldAt,
+            Long cursorId,
+            int size
+    ) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("페이지 크기는 1~" + MAX_PAGE_SIZE + " 사이여야 합니다. size=" + size);
+        }
+        if ((cursorSoldAt == null) != (cursorId == null)) {
+            throw new IllegalArgumentException("커서는 판매 시각과 판매 ID를 함께 지정해야 합니다.");
+        }
+
+        // 한 행을 더 읽어 다음 페이지 존재 여부를 판단한다.
+        List<SaleSummaryResponse> rows = saleRepository
+                .findSaleHistory(from, to, status, cursorSoldAt, cursorId, Limit.of(size + 1))
+                .stream()
+                .map(SaleSummaryResponse::from)
+                .toList();
+
+        if (rows.size() <= size) {
+            return new SalePageResponse(rows, false, null, null);
+        }
+        List<SaleSummaryResponse> page = rows.subList(0, size);
+        SaleSummaryResponse last = page.get(size - 1);
+        return new SalePageResponse(page, true, last.soldAt(), last.saleId());
+    }
+
+    /**
+     * 판매 이력을 판매 시각 오름차순으로 출력 스트림에 내보낸다.
+     *
+     * <p>조회 결과를 모으지 않고 한 행씩 읽는 대로 쓰며, 스트림 소비 동안 읽기 전용 트랜잭션을 유지한다.</p>
+     *
+     * @param from 판매 시각 하한(포함, 선택)
+     * @param to 판매 시각 상한(미포함, 선택)
+     * @param status 판매 상태(선택)
+     * @param format 출력 형식
+     * @param out 출력 스트림(닫지 않음)
+     * @throws IOException 출력에 실패한 경우
+     */
+    public void exportSales(
+            LocalDateTime from,
+            LocalDateTime to,
+            SaleStatus status,
+            SaleExportFormat format,
+            OutputStream out
+    ) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == SaleExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<SaleRepository.SaleSummaryProjection> rows = saleRepository.streamSaleHistory(from, to, status)) {
+            rows.forEach(row -> {
+                try {
+                    writer.write(format == SaleExportFormat.CSV ? toCsv(row) : toJson(row));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static String toCsv(SaleRepository.SaleSummaryProjection row) {
+        // 모든 값이 숫자/날짜/열거형이므로 따옴표 처리가 필요 없다.
+        return row.getSaleId()
+                + "," + row.getSoldAt()
+                + "," + row.getStatus()
+                + "," + row.getPaymentMethod()
+                + "," + row.getTotalPrice()
+                + "," + row.getCashAmount()
+                + "," + row.getCardAmount()
+                + "," + row.getPointAmount();
+    }
+
+    private String toJson(SaleRepository.SaleSummaryProjection row) {
+        return jsonMapper.writeValueAsString(SaleSummaryResponse.from(row));
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.config.SaleProperties;
+import com.github.maharong.smartpos.dto.SaleResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 최근 멱등 키 → 영수증 응답 캐시(LRU).
+ * <p>
+ * 네트워크 장애 중 단말이 같은 키로 재시도하면 DB 조회 없이 바로 원래 응답을 돌려주기 위해 사용한다.
+ * 크기를 넘으면 가장 오래 사용하지 않은 키부터 버리며, 버려진 키의 재시도는 DB의 멱등 키 기록으로 처리된다.
+ * 재시도가 처음 요청과 같은 내용인지 확인할 수 있도록 요청 지문을 함께 보관한다.
+ * </p>
+ */
+@Component
+public class SaleReceiptCache {
+
+    private final Map<String, CachedReceipt> receipts;
+
+    public SaleReceiptCache(SaleProperties properties) {
+        int capacity = Math.max(1, properties.idempotencyCacheSize());
+        this.receipts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedReceipt> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * 키에 해당하는 영수증을 조회한다.
+     *
+     * @param idempotencyKey 멱등 키
+     * @return 캐시된 영수증과 요청 지문(없으면 null)
+     */
+    public synchronized CachedReceipt get(String idempotencyKey) {
+        return receipts.get(idempotencyKey);
+    }
+
+    /**
+     * 키와 영수증을 캐시에 넣는다.
+     *
+     * @param idempotencyKey 멱등 키
+     * @param requestHash 요청 지문
+     * @param receipt 영수증 응답
+     */
+    public synchronized void put(String idempotencyKey, String requestHash, SaleResponse receipt) {
+        receipts.put(idempotencyKey, new CachedReceipt(requestHash, receipt));
+    }
+
+    /**
+     * 캐시된 영수증.
+     *
+     * @param requestHash 처음 요청의 지문
+     * @param receipt 영수증 응답
+     */
+    public record CachedReceipt(String requestHash, SaleResponse receipt) {}
+}
@@ -1,23 +1,37 @@
 package com.github.maharong.smartpos.service;
 
+import com.github.maharong.smartpos.config.SaleProperties;
+import com.github.maharong.smartpos.dto.SaleBatchResultResponse;
+import com.github.maharong.smartpos.dto.SaleCreateRequest;
+import com.github.maharong.smartpos.dto.SaleResponse;
 import com.github.maharong.smartpos.entity.Product;
 import com.github.maharong.smartpos.entity.Sale;
+import com.github.maharong.smartpos.entity.SaleIdempotencyKey;
 import com.github.maharong.smartpos.entity.SaleItem;
+import com.github.maharong.smartpos.entity.SaleItemAllocation;
 import com.github.maharong.smartpos.enums.PaymentMethod;
 import com.github.maharong.smartpos.enums.ProductStatus;
 import com.github.maharong.smartpos.enums.SaleStatus;
 import com.github.maharong.smartpos.repository.ProductRepository;
+import com.github.maharong.smartpos.repository.SaleIdempotencyKeyRepository;
+import com.github.maharong.smartpos.repository.SaleItemAllocationRepository;
 import com.github.maharong.smartpos.repository.SaleItemRepository;
 import com.github.maharong.smartpos.repository.SaleRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
@@ -25,32 +39,209 @@ public class SaleService {
 
     private final ProductRepository productRepository;
     private final SaleItemRepository saleItemRepository;
+    private final SaleItemAllocationRepository saleItemAllocationRepository;
     private final InventoryService inventoryService;
     private final SaleRepository saleRepository;
+    private final StockDeductionExecutor stockDeductionExecutor;
+    private final SaleIdempotencyKeyRepository saleIdempotencyKeyRepository;
+    private final SaleReceiptCache saleReceiptCache;
+    private final SaleProperties saleProperties;
+    private final SalesRollupRecorder salesRollupRecorder;
+    private final DailyClosingCounters dailyClosingCounters;
+
+    /**
+     * 멱등 키 없이 판매 1건을 생성한다.
+     *
+     * @see #createSale(String, PaymentMethod, long, long, long, List)
+     */
+    public SaleResponse createSale(
+            PaymentMethod paymentMethod,
+            long cashAmount,
+            long cardAmount,
+            long pointAmount,
+            List<CreateSaleLine> lines) {
+        return createSale(null, paymentMethod, cashAmount, cardAmount, pointAmount, lines);
+    }
 
     /**
      * 판매 1건(영수증 1장)을 생성하고, 판매 라인 저장 + 재고(FEFO) 차감을 한 트랜잭션으로 처리한다.
      *
+     * <p>동시 판매로 인한 배치 갱신 유실을 막기 위해 {@link StockDeductionExecutor}를 통해 실행한다.
+     * 즉, 대상 상품의 JVM 내부 락을 잡은 뒤 트랜잭션을 열고, 배치 버전 충돌이 나면 트랜잭션 전체를 재시도한다.</p>
+     *
+     * <p>응답(영수증)은 결제 시점에 이미 조회한 판매/라인/상품으로 만들어 반환하므로, 커밋 이후 추가 조회가 필요 없다.</p>
+     *
+     * <p>멱등 키({@code idempotencyKey})가 있으면 같은 키의 재시도는 새 판매를 만들지 않고 처음 영수증을 돌려준다.
+     * 키와 함께 요청 지문(결제 수단/금액, 판매 라인의 해시)을 저장하며, 같은 키로 내용이 다른 요청이 오면 거절한다.</p>
+     * <ol>
+     *   <li>최근 키는 메모리 캐시({@link SaleReceiptCache})에서 바로 응답한다(재고 차감/트랜잭션 없음).</li>
+     *   <li>캐시에 없으면 상품 락을 잡은 트랜잭션 안에서 DB의 키 기록을 확인한다. 같은 바구니의 동시 재시도는
+     *       상품 락에서 기다렸다가 먼저 커밋된 판매를 찾게 된다.</li>
+     *   <li>다른 노드의 동시 재시도는 키 유니크 제약으로 한 건만 커밋되며, 실패한 쪽은 커밋된 판매를 응답한다.</li>
+     * </ol>
+     *
+     * @param idempotencyKey 멱등 키(선택, null이면 중복 확인 없음)
      * @param paymentMethod 결제 수단
      * @param lines 판매 라인 목록 (productId, quantity)
-     * @return 생성된 Sale
+     * @return 생성된 판매(영수증) 응답 DTO
      * @throws IllegalArgumentException 요청 값이 잘못된 경우
+     * @throws ResponseStatusException 같은 멱등 키로 내용이 다른 판매가 이미 생성된 경우(409)
      * @throws RuntimeException 재고 부족 등으로 판매를 진행할 수 없는 경우(전체 롤백)
      */
-    @Transactional
-    public Sale createSale(
+    public SaleResponse createSale(
+            String idempotencyKey,
             PaymentMethod paymentMethod,
             long cashAmount,
             long cardAmount,
             long pointAmount,
             List<CreateSaleLine> lines) {
-        if (lines == null || lines.isEmpty()) {
-            throw new IllegalArgumentException("판매 라인이 비어있습니다.");
+        String requestHash = null;
+        if (idempotencyKey != null) {
+            validateIdempotencyKey(idempotencyKey);
+            requestHash = requestHashOf(paymentMethod, cashAmount, cardAmount, pointAmount, lines);
+            SaleReceiptCache.CachedReceipt cached = saleReceiptCache.get(idempotencyKey);
+            if (cached != null) {
+                checkSameRequest(idempotencyKey, cached.requestHash(), requestHash);
+                return cached.receipt();
+            }
+        }
+        validateLines(lines);
+        Set<Long> productIds = productIdsOf(lines);
+        String hash = requestHash;
+
+        if (idempotencyKey == null) {
+            return stockDeductionExecutor.execute(
+                    productIds,
+                    () -> placeSale(paymentMethod, cashAmount, cardAmount, pointAmount, lines)
+            );
+        }
+
+        SaleResponse receipt;
+        try {
+            receipt = stockDeductionExecutor.execute(productIds, () ->
+                    findReceiptByIdempotencyKey(idempotencyKey, hash).orElseGet(() -> {
+                        SaleResponse placed = placeSale(paymentMethod, cashAmount, cardAmount, pointAmount, lines);
+                        saleIdempotencyKeyRepository.save(SaleIdempotencyKey.builder()
+                                .idempotencyKey(idempotencyKey)
+                                .saleId(placed.saleId())
+                                .requestHash(hash)
+                                .createdAt(LocalDateTime.now())
+                                .build());
+                        return placed;
+                    })
+            );
+        } catch (DataIntegrityViolationException e) {
+            // 다른 노드에서 같은 키의 판매가 먼저 커밋된 경우
+            receipt = findReceiptByIdempotencyKey(idempotencyKey, hash).orElseThrow(() -> e);
+        }
+
+        saleReceiptCache.put(idempotencyKey, hash, receipt);
+        return receipt;
+    }
+
+    /**
+     * 멱등 키로 이미 생성된 판매의 영수증을 조회한다.
+     *
+     * @throws ResponseStatusException 기록된 요청 지문이 이번 요청과 다른 경우
+     */
+    private Optional<SaleResponse> findReceiptByIdempotencyKey(String idempotencyKey, String requestHash) {
+        return saleIdempotencyKeyRepository.findByIdempotencyKey(idempotencyKey)
+                .map(key -> {
+                    checkSameRequest(idempotencyKey, key.getRequestHash(), requestHash);
+                    return getSale(key.getSaleId());
+                });
+    }
+
+    /**
+     * 같은 멱등 키로 들어온 요청이 처음 요청과 같은 내용인지 확인한다.
+     *
+     * @param recordedHash 처음 요청의 지문(지문 도입 전 기록이면 null이며, 이 경우 비교하지 않음)
+     * @throws ResponseStatusException 지문이 다른 경우(409)
+     */
+    private static void checkSameRequest(String idempotencyKey, String recordedHash, String requestHash) {
+        if (recordedHash != null && !recordedHash.equals(requestHash)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "같은 멱등 키로 내용이 다른 판매 요청입니다. key=" + idempotencyKey);
+        }
+    }
+
+    /**
+     * 결제 수단/금액과 판매 라인(요청 순서대로 상품 ID, 수량)으로 요청 지문(SHA-256, 16진수)을 만든다.
+     */
+    private static String requestHashOf(
+            PaymentMethod paymentMethod,
+            long cashAmount,
+            long cardAmount,
+            long pointAmount,
+            List<CreateSaleLine> lines) {
+        StringBuilder sb = new StringBuilder()
+                .append(paymentMethod).append('|')
+                .append(cashAmount).append('|')
+                .append(cardAmount).append('|')
+                .append(pointAmount);
+        if (lines != null) {
+            for (CreateSaleLine line : lines) {
+                sb.append('|').append(line.productId()).append('x').append(line.quantity());
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
+    }
 
-        LocalDateTime soldAt = LocalDateTime.now();
+    /**
+     * 보관 기간이 지난 멱등 키 기록을 삭제한다.
+     */
+    @Scheduled(cron = "${smartpos.sale.idempotency-purge-cron:0 0 4 * * *}")
+    @Transactional
+    public void purgeExpiredIdempotencyKeys() {
+        saleIdempotencyKeyRepository.deleteCreatedBefore(
+                LocalDateTime.now().minus(saleProperties.idempotencyKeyRetention()));
+    }
+
+    /**
+     * 검증된 판매 라인으로 판매를 저장하고 재고를 차감한다. 호출자의 트랜잭션 안에서 실행된다.
+     */
+    private SaleResponse placeSale(
+            PaymentMethod paymentMethod,
+            long cashAmount,
+            long cardAmount,
+            long pointAmount,
+            List<CreateSaleLine> lines) {
+        // 바구니 전체 상품을 한 번에 조회하고 검증한다.
+        Map<Long, Product> products = loadProducts(productIdsOf(lines));
+        checkSellable(lines, products);
 
-        // Sale 생성
+        // 응답을 저장 값과 같게 유지하도록 DB 타임스탬프 정밀도(마이크로초)로 맞춘다.
+        LocalDateTime soldAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        InventoryService.SaleStock stock = inventoryService.prefetchSaleStock(products.keySet(), soldAt.toLocalDate());
+        SaleResponse receipt = recordSale(products, stock, soldAt, paymentMethod, cashAmount, cardAmount, pointAmount, lines);
+        stock.finish();
+        return receipt;
+    }
+
+    /**
+     * 미리 조회한 상품/배치로 판매 1건을 저장하고 재고(FEFO)를 차감한다.
+     *
+     * <p>총액/결제 금액 검증과 재고 차감을 판매/라인 저장보다 먼저 수행하므로, 예외가 발생하면
+     * 이 판매는 아무것도 반영되지 않은 상태로 끝난다(같은 트랜잭션의 다른 판매에 영향 없음).</p>
+     *
+     * @throws IllegalArgumentException 결제 금액 합이 총액과 다르거나 음수인 결제 금액이 있는 경우
+     * @throws IllegalStateException 재고가 부족한 경우
+     */
+    private SaleResponse recordSale(
+            Map<Long, Product> products,
+            InventoryService.SaleStock stock,
+            LocalDateTime soldAt,
+            PaymentMethod paymentMethod,
+            long cashAmount,
+            long cardAmount,
+            long pointAmount,
+            List<CreateSaleLine> lines) {
         Sale sale = Sale.builder()
                 .soldAt(soldAt)
                 .totalPrice(0L) // 아래에서 계산 후 반영
@@ -58,28 +249,13 @@ public class SaleService {
                 .status(SaleStatus.COMPLETED)
                 .build();
 
-        saleRepository.save(sale);
-
         long totalPrice = 0L;
         List<SaleItem> saleItems = new ArrayList<>();
+        List<InventoryService.SaleConsumeLine> consumeLines = new ArrayList<>();
 
         for (CreateSaleLine line : lines) {
-            if (line.quantity() <= 0) {
-                throw new IllegalArgumentException("수량은 1 이상이어야 합니다.");
-            }
-
-            Product product = productRepository.findById(line.productId())
-                    .orElseThrow(() -> new IllegalArgumentException("상품을 찾을 수 없습니다. id=" + line.productId()));
-
-            if (product.getStatus() != ProductStatus.ACTIVE) {
-                throw new ResponseStatusException(
-                        HttpStatus.CONFLICT,
-                        "판매할 수 없는 상품 상태입니다. productId=" + product.getId() + ", status=" + product.getStatus()
-                );
-            }
-
-            // 재고 차감
-            inventoryService.consumeForSale(product, line.quantity(), soldAt.toLocalDate());
+            Product product = products.get(line.productId());
+            consumeLines.add(new InventoryService.SaleConsumeLine(product, line.quantity()));
 
             int unitPrice = product.getPrice(); // 판매 단가를 상품 현재가로 고정
             SaleItem saleItem = SaleItem.builder()
@@ -93,11 +269,6 @@ public class SaleService {
             totalPrice += (long) unitPrice * line.quantity();
         }
 
-        saleItemRepository.saveAll(saleItems);
-
-        // 총액 반영
-        sale.changeTotalPrice(totalPrice);
-
         long paidSum = cashAmount + cardAmount + pointAmount;
         if (paidSum != totalPrice) {
             throw new IllegalArgumentException(
@@ -105,18 +276,314 @@ public class SaleService {
             );
         }
 
+        // 총액/결제 금액 반영(음수 금액 검증 포함). 재고 차감 전에 실패해야 차감이 남지 않는다.
+        sale.changeTotalPrice(totalPrice);
         sale.changePaymentAmounts(cashAmount, cardAmount, pointAmount);
 
-        return sale;
+        // 재고 차감(바구니 단위 FEFO) 후 라인별 배치 할당을 남긴다.
+        List<List<InventoryService.SaleAllocation>> allocations = stock.consume(consumeLines, soldAt.toLocalDate());
+        List<SaleItemAllocation> saleItemAllocations = new ArrayList<>();
+        for (int i = 0; i < saleItems.size(); i++) {
+            for (InventoryService.SaleAllocation allocation : allocations.get(i)) {
+                saleItemAllocations.add(SaleItemAllocation.builder()
+                        .saleItem(saleItems.get(i))
+                        .batch(allocation.batch())
+                        .quantity(allocation.quantity())
+                        .build());
+            }
+        }
+
+        saleRepository.save(sale);
+        saleItemRepository.saveAll(saleItems);
+        saleItemAllocationRepository.saveAll(saleItemAllocations);
+        salesRollupRecorder.recordSale(sale, saleItems);
+        dailyClosingCounters.recordSale(sale);
+
+        // 라인의 상품은 위에서 일괄 조회한 엔티티이므로 응답 변환 시 추가 조회가 없다.
+        return SaleResponse.from(sale, saleItems);
     }
 
     /**
-     * 판매 조회.
+     * 오프라인 단말이 보관했던 판매 여러 건을 한 트랜잭션으로 저장한다.
+     *
+     * <p>단말 통신 장애 후 밀린 영수증을 다시 올릴 때 사용하며, 호출자는 요청을 적당한 크기로 나누어 호출한다.</p>
+     * <ul>
+     *   <li>요청의 {@code soldAt}(원래 판매 시각)을 판매 시각과 유통기한 판단 기준으로 사용한다(없으면 현재 시각).</li>
+     *   <li>묶음 전체의 상품과 판매 가능 배치를 한 번씩만 조회하고, 판매 라인은 JDBC 배치로 저장한다.</li>
+     *   <li>재고 부족/결제 금액 불일치/판매 불가 상품 등은 해당 영수증만 실패 처리하고 나머지는 계속 저장한다.</li>
+     *   <li>멱등 키가 이미 기록된 영수증은 새로 저장하지 않고 중복으로 응답한다.</li>
+     *   <li>다른 요청과 멱등 키가 충돌하여 커밋에 실패하면, 영수증을 한 건씩 다시 처리한다.</li>
+     * </ul>
+     *
+     * @param requests 판매 생성 요청 목록
+     * @return 요청 순서와 같은 순서의 영수증별 처리 결과
+     */
+    public List<SaleBatchResultResponse> createSaleBatch(List<SaleCreateRequest> requests) {
+        SaleBatchResultResponse[] results = new SaleBatchResultResponse[requests.size()];
+        List<Integer> pending = new ArrayList<>();
+        Set<String> keysInBatch = new HashSet<>();
+        Set<Long> productIds = new LinkedHashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            SaleCreateRequest req = requests.get(i);
+            try {
+                if (req.paymentMethod() == null) {
+                    throw new IllegalArgumentException("결제 수단이 비어있습니다.");
+                }
+                List<CreateSaleLine> lines = toCreateSaleLines(req);
+                validateLines(lines);
+
+                String key = req.idempotencyKey();
+                if (key != null) {
+                    validateIdempotencyKey(key);
+                    SaleReceiptCache.CachedReceipt cached = saleReceiptCache.get(key);
+                    if (cached != null) {
+                        results[i] = duplicateOrMismatch(req, key, cached.requestHash(), cached.receipt().saleId());
+                        continue;
+                    }
+                    if (!keysInBatch.add(key)) {
+                        throw new IllegalArgumentException("같은 묶음에 중복된 멱등 키입니다. key=" + key);
+                    }
+                }
+                productIds.addAll(productIdsOf(lines));
+                pending.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = SaleBatchResultResponse.failed(e.getMessage());
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            try {
+                BatchOutcome outcome = stockDeductionExecutor.execute(
+                        productIds,
+                        () -> placeSaleBatch(requests, pending)
+                );
+                outcome.results().forEach((i, result) -> results[i] = result);
+                outcome.receipts().forEach((key, cached) -> saleReceiptCache.put(key, cached.requestHash(), cached.receipt()));
+            } catch (DataIntegrityViolationException e) {
+                if (pending.size() == 1) {
+                    String key = requests.get(pending.get(0)).idempotencyKey();
+                    results[pending.get(0)] = (key == null)
+                            ? SaleBatchResultResponse.failed(e.getMostSpecificCause().getMessage())
+                            : saleIdempotencyKeyRepository.findByIdempotencyKey(key)
+                                    .map(k -> duplicateOrMismatch(requests.get(pending.get(0)), key,
+                                            k.getRequestHash(), k.getSaleId()))
+                                    .orElseGet(() -> SaleBatchResultResponse.failed(e.getMostSpecificCause().getMessage()));
+                } else {
+                    // 멱등 키 충돌이 난 영수증을 가려내기 위해 한 건씩 다시 처리한다.
+                    for (int i : pending) {
+                        results[i] = createSaleBatch(List.of(requests.get(i))).get(0);
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 검증을 통과한 영수증들을 저장한다. 호출자의 트랜잭션 안에서 실행된다.
+     */
+    private BatchOutcome placeSaleBatch(List<SaleCreateRequest> requests, List<Integer> pending) {
+        Map<Integer, SaleBatchResultResponse> results = new HashMap<>();
+        Map<String, SaleReceiptCache.CachedReceipt> receipts = new HashMap<>();
+
+        List<String> keys = new ArrayList<>();
+        Set<Long> productIds = new LinkedHashSet<>();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        LocalDate fromDate = null;
+        for (int i : pending) {
+            SaleCreateRequest req = requests.get(i);
+            if (req.idempotencyKey() != null) keys.add(req.idempotencyKey());
+            productIds.addAll(productIdsOf(toCreateSaleLines(req)));
+            LocalDate soldDate = soldAtOf(req, now).toLocalDate();
+            if (fromDate == null || soldDate.isBefore(fromDate)) fromDate = soldDate;
+        }
+
+        Map<String, SaleIdempotencyKey> existingKeys = new HashMap<>();
+        if (!keys.isEmpty()) {
+            for (SaleIdempotencyKey key : saleIdempotencyKeyRepository.findAllByIdempotencyKeyIn(keys)) {
+                existingKeys.put(key.getIdempotencyKey(), key);
+            }
+        }
+
+        // 묶음 전체의 상품과 판매 가능 배치를 한 번씩만 조회한다.
+        Map<Long, Product> products = loadProducts(productIds);
+        InventoryService.SaleStock stock = inventoryService.prefetchSaleStock(products.keySet(), fromDate);
+
+        for (int i : pending) {
+            SaleCreateRequest req = requests.get(i);
+            String key = req.idempotencyKey();
+            if (key != null && existingKeys.containsKey(key)) {
+                SaleIdempotencyKey existing = existingKeys.get(key);
+                results.put(i, duplicateOrMismatch(req, key, existing.getRequestHash(), existing.getSaleId()));
+                continue;
+            }
+
+            try {
+                List<CreateSaleLine> lines = toCreateSaleLines(req);
+                checkSellable(lines, products);
+                SaleResponse receipt = recordSale(products, stock, soldAtOf(req, now), req.paymentMethod(),
+                        req.cashAmount(), req.cardAmount(), req.pointAmount(), lines);
+
+                if (key != null) {
+                    String requestHash = requestHashOf(req);
+                    saleIdempotencyKeyRepository.save(SaleIdempotencyKey.builder()
+                            .idempotencyKey(key)
+                            .saleId(receipt.saleId())
+                            .requestHash(requestHash)
+                            .createdAt(now)
+                            .build());
+                    receipts.put(key, new SaleReceiptCache.CachedReceipt(requestHash, receipt));
+                }
+                results.put(i, SaleBatchResultResponse.created(receipt.saleId()));
+            } catch (ResponseStatusException e) {
+                results.put(i, SaleBatchResultResponse.failed(e.getReason()));
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                results.put(i, SaleBatchResultResponse.failed(e.getMessage()));
+            }
+        }
+
+        stock.finish();
+        return new BatchOutcome(results, receipts);
+    }
+
+    /**
+     * 일괄 저장 결과(요청 위치별 결과, 멱등 키별 영수증과 요청 지문).
+     */
+    private record BatchOutcome(
+            Map<Integer, SaleBatchResultResponse> results,
+            Map<String, SaleReceiptCache.CachedReceipt> receipts
+    ) {}
+
+    /**
+     * 이미 기록된 멱등 키의 영수증을 중복으로 응답하되, 요청 내용이 다르면 실패로 응답한다.
+     */
+    private static SaleBatchResultResponse duplicateOrMismatch(
+            SaleCreateRequest req, String key, String recordedHash, Long saleId) {
+        try {
+            checkSameRequest(key, recordedHash, requestHashOf(req));
+        } catch (ResponseStatusException e) {
+            return SaleBatchResultResponse.failed(e.getReason());
+        }
+        return SaleBatchResultResponse.duplicate(saleId);
+    }
+
+    private static String requestHashOf(SaleCreateRequest req) {
+        return requestHashOf(req.paymentMethod(), req.cashAmount(), req.cardAmount(), req.pointAmount(),
+                toCreateSaleLines(req));
+    }
+
+    private static LocalDateTime soldAtOf(SaleCreateRequest req, LocalDateTime now) {
+        return (req.soldAt() != null) ? req.soldAt().truncatedTo(ChronoUnit.MICROS) : now;
+    }
+
+    private static List<CreateSaleLine> toCreateSaleLines(SaleCreateRequest req) {
+        if (req.lines() == null) {
+            return List.of();
+        }
+        return req.lines().stream()
+                .map(l -> new CreateSaleLine(l.productId(), l.quantity()))
+                .toList();
+    }
+
+    private static Set<Long> productIdsOf(List<CreateSaleLine> lines) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (CreateSaleLine line : lines) {
+            productIds.add(line.productId());
+        }
+        return productIds;
+    }
+
+    /**
+     * 판매 라인 요청 값을 검증한다.
+     *
+     * @throws IllegalArgumentException 라인이 비어있거나, 상품 ID가 없거나, 수량이 1 미만인 경우
+     */
+    private static void validateLines(List<CreateSaleLine> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("판매 라인이 비어있습니다.");
+        }
+        for (CreateSaleLine line : lines) {
+            if (line.productId() == null) {
+                throw new IllegalArgumentException("상품 ID가 비어있습니다.");
+            }
+            if (line.quantity() <= 0) {
+                throw new IllegalArgumentException("수량은 1 이상이어야 합니다.");
+            }
+        }
+    }
+
+    private static void validateIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > 100) {
+            throw new IllegalArgumentException("멱등 키는 1~100자여야 합니다.");
+        }
+    }
+
+    /**
+     * 상품 ID 목록의 상품을 한 번의 쿼리로 조회한다.
+     *
+     * @param productIds 상품 ID 목록
+     * @return 상품 ID를 키로 하는 상품 맵(존재하지 않는 상품은 빠짐)
+     */
+    private Map<Long, Product> loadProducts(Collection<Long> productIds) {
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(productIds)) {
+            products.put(product.getId(), product);
+        }
+        return products;
+    }
+
+    /**
+     * 판매 라인의 상품이 모두 존재하고 판매 가능한 상태인지 한 번에 검증한다.
+     *
+     * <p>존재하지 않는 상품과 판매 불가 상태 상품을 모두 모아 한 번에 보고한다.</p>
+     *
+     * @param lines 판매 라인 목록
+     * @param products 조회해 둔 상품 맵
+     * @throws IllegalArgumentException 존재하지 않는 상품이 있는 경우
+     * @throws ResponseStatusException 판매할 수 없는 상태({@link ProductStatus#ACTIVE} 외)의 상품이 있는 경우
+     */
+    private static void checkSellable(List<CreateSaleLine> lines, Map<Long, Product> products) {
+        List<Long> missing = new ArrayList<>();
+        List<String> notSellable = new ArrayList<>();
+        for (Long productId : productIdsOf(lines)) {
+            Product product = products.get(productId);
+            if (product == null) {
+                missing.add(productId);
+            } else if (product.getStatus() != ProductStatus.ACTIVE) {
+                notSellable.add("productId=" + productId + ", status=" + product.getStatus());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("상품을 찾을 수 없습니다. ids=" + missing);
+        }
+        if (!notSellable.isEmpty()) {
+            throw new ResponseStatusException(
+                    HttpStatus.CONFLICT,
+                    "판매할 수 없는 상품 상태입니다. " + notSellable
+            );
+        }
+    }
+
+    /**
+     * 판매(영수증)를 조회한다.
+     *
+     * <p>판매 라인을 판매/상품과 함께 한 번의 fetch join 쿼리로 조회한다.
+     * 라인이 없을 때만 판매를 따로 조회하여 존재 여부를 확인한다.</p>
+     *
+     * @param saleId 판매 ID
+     * @return 판매(영수증) 응답 DTO
+     * @throws IllegalArgumentException 판매를 찾을 수 없는 경우
      */
     @Transactional(readOnly = true)
-    public Sale getSale(Long saleId) {
-        return saleRepository.findById(saleId)
-                .orElseThrow(() -> new IllegalArgumentException("판매 없음 id=" + saleId));
+    public SaleResponse getSale(Long saleId) {
+        List<SaleItem> items = saleItemRepository.findReceiptLines(saleId);
+        Sale sale = items.isEmpty()
+                ? saleRepository.findById(saleId)
+                        .orElseThrow(() -> new IllegalArgumentException("판매 없음 id=" + saleId))
+                : items.get(0).getSale();
+        return SaleResponse.from(sale, items);
     }
 
     /**
@@ -127,25 +594,41 @@ public class SaleService {
      */
     public record CreateSaleLine(Long productId, int quantity) {}
 
+    /**
+     * 판매를 재입고 없이 환불 처리한다.
+     *
+     * @see #refundSale(Long, boolean)
+     */
+    public void refundSale(Long saleId) {
+        refundSale(saleId, false);
+    }
+
     /**
      * 판매를 환불 처리한다.
      *
-     * <p>정책: 환불 상품은 재입고하지 않고 폐기 처리한다. 따라서 재고는 복구하지 않는다.</p>
+     * <p>기본 정책은 환불 상품을 재입고하지 않고 폐기하는 것이다. {@code restock}이 {@code true}면
+     * 판매 라인의 배치 할당을 기준으로, 판매가 차감했던 배치에 같은 수량을 되돌린다.</p>
      *
      * @param saleId 판매 ID
+     * @param restock 차감했던 배치로 재입고할지 여부
      * @throws IllegalArgumentException 판매를 찾을 수 없는 경우
      * @throws ResponseStatusException 이미 환불된 판매이거나 환불 불가 상태인 경우
      */
     @Transactional
-    public void refundSale(Long saleId) {
-        Sale sale = saleRepository.findById(saleId)
+    public void refundSale(Long saleId, boolean restock) {
+        // 동시 환불이 집계를 두 번 차감하지 않도록 판매 행을 잠그고 상태를 확인한다.
+        Sale sale = saleRepository.findByIdForUpdate(saleId)
                 .orElseThrow(() -> new IllegalArgumentException("판매 없음 id=" + saleId));
 
         if (sale.getStatus() == SaleStatus.REFUNDED) {
             throw new ResponseStatusException(HttpStatus.CONFLICT, "이미 환불 처리된 판매입니다. saleId=" + saleId);
         }
 
-        // 환불 처리(재고 복구 없음 = 폐기 정책)
-        sale.changeStatus(SaleStatus.REFUNDED);
+        sale.refund(LocalDateTime.now());
+        if (restock) {
+            inventoryService.restockSale(saleId);
+        }
+        salesRollupRecorder.recordRefund(sale, saleItemRepository.findReceiptLines(saleId));
+        dailyClosingCounters.recordRefund(sale);
     }
 }
@@ -0,0 +1,135 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.PaymentSalesRollupResponse;
+import com.github.maharong.smartpos.dto.SalesRollupResponse;
+import com.github.maharong.smartpos.enums.SaleStatus;
+import com.github.maharong.smartpos.enums.SalesRollupGranularity;
+import com.github.maharong.smartpos.repository.PaymentDailySalesRepository;
+import com.github.maharong.smartpos.repository.ProductDailySalesRepository;
+import com.github.maharong.smartpos.repository.ProductHourlySalesRepository;
+import com.github.maharong.smartpos.repository.SaleItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 판매 집계(롤업) 리포트 서비스.
+ * <p>
+ * 리포트는 {@link SalesRollupRecorder}가 판매/환불 시 증분 갱신한 집계 테이블만 읽으므로,
+ * 원본 판매 건수와 무관하게 조회 구간의 시간대/일 수만큼만 읽는다.
+ * 집계는 환불이 빠진 순매출 기준이다.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SalesReportService {
+
+    private final ProductHourlySalesRepository productHourlySalesRepository;
+    private final ProductDailySalesRepository productDailySalesRepository;
+    private final PaymentDailySalesRepository paymentDailySalesRepository;
+    private final SaleItemRepository saleItemRepository;
+    private final SalesRollupRecorder salesRollupRecorder;
+
+    /**
+     * 상품의 기간 판매 집계를 시간대별 또는 일별로 조회한다.
+     *
+     * @param productId 상품 ID
+     * @param from 시작일(포함)
+     * @param to 종료일(포함)
+     * @param granularity 집계 단위
+     * @return 구간 시작 오름차순 집계 목록(판매가 없는 구간은 생략)
+     * @throws IllegalArgumentException 시작일이 종료일보다 늦은 경우
+     */
+    public List<SalesRollupResponse> getProductSales(
+            Long productId,
+            LocalDate from,
+            LocalDate to,
+            SalesRollupGranularity granularity
+    ) {
+        validateRange(from, to);
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+
+        return switch (granularity) {
+            case HOURLY -> productHourlySalesRepository.findHourlySales(productId, start, end).stream()
+                    .map(SalesRollupResponse::from)
+                    .toList();
+            case DAILY -> productHourlySalesRepository.findDailySales(productId, start, end).stream()
+                    .map(SalesRollupResponse::from)
+                    .toList();
+        };
+    }
+
+    /**
+     * 기간의 일자별·결제 수단별 판매 집계를 조회한다.
+     *
+     * @param from 시작일(포함)
+     * @param to 종료일(포함)
+     * @return 일자, 결제 수단 순 집계 목록
+     * @throws IllegalArgumentException 시작일이 종료일보다 늦은 경우
+     */
+    public List<PaymentSalesRollupResponse> getPaymentSales(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return paymentDailySalesRepository.findDailySales(from, to).stream()
+                .map(PaymentSalesRollupResponse::from)
+                .toList();
+    }
+
+    /**
+     * 기간의 집계를 원본 판매에서 다시 계산한다.
+     * <p>
+     * 집계 도입 이전 판매를 채우거나, 집계가 어긋났을 때 복구하는 용도다.
+     * 기간의 집계 행을 지우고 하루씩 원본을 집계해 다시 넣는다.
+     * 재계산 중 같은 날의 판매/환불이 반영되면 어긋날 수 있으므로, 영업이 끝난 일자에 사용한다.
+     * </p>
+     *
+     * @param from 시작일(포함)
+     * @param to 종료일(포함)
+     * @throws IllegalArgumentException 시작일이 종료일보다 늦은 경우
+     */
+    @Transactional
+    public void rebuild(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        productHourlySalesRepository.deleteBySalesDateBetween(from, to);
+        productDailySalesRepository.deleteBySalesDateBetween(from, to);
+        paymentDailySalesRepository.deleteBySalesDateBetween(from, to);
+
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            LocalDateTime start = date.atStartOfDay();
+            LocalDateTime end = start.plusDays(1);
+            SalesRollupRecorder.Deltas deltas = new SalesRollupRecorder.Deltas();
+
+            for (SaleItemRepository.ProductHourRollupProjection row
+                    : saleItemRepository.aggregateByProductHour(start, end, SaleStatus.COMPLETED)) {
+                deltas.hourly
+                        .computeIfAbsent(new SalesRollupRecorder.HourlyKey(row.getProductId(), start.plusHours(row.getHour())),
+                                key -> new SalesRollupRecorder.Delta())
+                        .add(row.getQuantity(), row.getRevenue(), row.getReceiptCount());
+                // 영수증은 한 시간대에만 속하므로 시간대 합이 곧 일자 합이다.
+                deltas.productDaily
+                        .computeIfAbsent(new SalesRollupRecorder.ProductDailyKey(row.getProductId(), date),
+                                key -> new SalesRollupRecorder.Delta())
+                        .add(row.getQuantity(), row.getRevenue(), row.getReceiptCount());
+            }
+            for (SaleItemRepository.PaymentRollupProjection row
+                    : saleItemRepository.aggregateByPaymentMethod(start, end, SaleStatus.COMPLETED)) {
+                deltas.daily
+                        .computeIfAbsent(new SalesRollupRecorder.DailyKey(date, row.getPaymentMethod()),
+                                key -> new SalesRollupRecorder.Delta())
+                        .add(row.getQuantity(), row.getRevenue(), row.getReceiptCount());
+            }
+            salesRollupRecorder.write(deltas);
+        }
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("시작일이 종료일보다 늦습니다. from=" + from + ", to=" + to);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.entity.Sale;
+import com.github.maharong.smartpos.entity.SaleItem;
+import com.github.maharong.smartpos.enums.PaymentMethod;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * 판매/환불을 판매 집계(롤업) 테이블에 증분 반영한다.
+ * <p>
+ * 집계 행은 판매가 몰리는 상품·결제 수단마다 모든 트랜잭션이 갱신하는 공유 행이다.
+ * 행 락을 잡는 시간을 줄이기 위해, 트랜잭션 안에서는 증분을 메모리에 모아 두었다가
+ * 커밋 직전({@code beforeCommit})에 키 순서대로 한 번의 JDBC 배치 upsert로 반영한다.
+ * 판매와 같은 트랜잭션이므로 롤백되면 집계도 함께 롤백된다.
+ * </p>
+ * <p>
+ * 배치 수집처럼 한 트랜잭션에 영수증 여러 장을 처리하면 같은 키의 증분이 합쳐져 행당 한 번만 갱신한다.
+ * 트랜잭션이 없으면 즉시 반영한다.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class SalesRollupRecorder {
+
+    private static final String UPSERT_PRODUCT_HOURLY = """
+            insert into product_hourly_sales (product_id, sales_hour, sales_date, quantity, revenue, receipt_count)
+            values (?, ?, ?, ?, ?, ?)
+            on duplicate key update
+                quantity = quantity + values(quantity),
+                revenue = revenue + values(revenue),
+                receipt_count = receipt_count + values(receipt_count)
+            """;
+
+    private static final String UPSERT_PRODUCT_DAILY = """
+            insert into product_daily_sales (product_id, sales_date, quantity, revenue, receipt_count)
+            values (?, ?, ?, ?, ?)
+            on duplicate key update
+                quantity = quantity + values(quantity),
+                revenue = revenue + values(revenue),
+                receipt_count = receipt_count + values(receipt_count)
+            """;
+
+    private static final String UPSERT_PAYMENT_DAILY = """
+            insert into payment_daily_sales (sales_date, payment_method, quantity, revenue, receipt_count)
+            values (?, ?, ?, ?, ?)
+            on duplicate key update
+                quantity = quantity + values(quantity),
+                revenue = revenue + values(revenue),
+                receipt_count = receipt_count + values(receipt_count)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 판매 1건을 집계에 더한다.
+     *
+     * @param sale 판매
+     * @param items 판매 라인 목록
+     */
+    public void recordSale(Sale sale, List<SaleItem> items) {
+        accumulate(sale, items, 1);
+    }
+
+    /**
+     * 환불된 판매 1건을 집계에서 뺀다(판매 시각의 시간대/일자 기준).
+     *
+     * @param sale 판매
+     * @param items 판매 라인 목록
+     */
+    public void recordRefund(Sale sale, List<SaleItem> items) {
+        accumulate(sale, items, -1);
+    }
+
+    private void accumulate(Sale sale, List<SaleItem> items, int sign) {
+        Deltas deltas = currentDeltas();
+
+        LocalDateTime salesHour = sale.getSoldAt().truncatedTo(ChronoUnit.HOURS);
+        long saleQuantity = 0L;
+        Map<Long, Delta> byProduct = new HashMap<>();
+        for (SaleItem item : items) {
+            byProduct.computeIfAbsent(item.getProduct().getId(), id -> new Delta())
+                    .add(item.getQuantity(), item.getLineTotal(), 0);
+            saleQuantity += item.getQuantity();
+        }
+
+        // 같은 상품이 여러 라인이어도 영수증 수는 1장으로 센다.
+        byProduct.forEach((productId, delta) -> {
+            deltas.hourly
+                    .computeIfAbsent(new HourlyKey(productId, salesHour), key -> new Delta())
+                    .add(sign * delta.quantity, sign * delta.revenue, sign);
+            deltas.productDaily
+                    .computeIfAbsent(new ProductDailyKey(productId, salesHour.toLocalDate()), key -> new Delta())
+                    .add(sign * delta.quantity, sign * delta.revenue, sign);
+        });
+
+        deltas.daily
+                .computeIfAbsent(new DailyKey(salesHour.toLocalDate(), sale.getPaymentMethod()), key -> new Delta())
+                .add(sign * saleQuantity, sign * sale.getTotalPrice(), sign);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(deltas);
+        }
+    }
+
+    /**
+     * 모은 증분을 키 순서대로 upsert 한다.
+     * <p>
+     * 동시 트랜잭션이 같은 행들을 항상 같은 순서로 잠그므로 집계 행끼리 교착 상태가 생기지 않는다.
+     * </p>
+     */
+    void write(Deltas deltas) {
+        if (!deltas.hourly.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(deltas.hourly.size());
+            deltas.hourly.forEach((key, delta) -> rows.add(new Object[]{
+                    key.productId(), key.salesHour(), key.salesHour().toLocalDate(),
+                    delta.quantity, delta.revenue, delta.receiptCount}));
+            jdbcTemplate.batchUpdate(UPSERT_PRODUCT_HOURLY, rows);
+        }
+        if (!deltas.productDaily.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(deltas.productDaily.size());
+            deltas.productDaily.forEach((key, delta) -> rows.add(new Object[]{
+                    key.productId(), key.salesDate(),
+                    delta.quantity, delta.revenue, delta.receiptCount}));
+            jdbcTemplate.batchUpdate(UPSERT_PRODUCT_DAILY, rows);
+        }
+        if (!deltas.daily.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(deltas.daily.size());
+            deltas.daily.forEach((key, delta) -> rows.add(new Object[]{
+                    key.salesDate(), key.paymentMethod().name(),
+                    delta.quantity, delta.revenue, delta.receiptCount}));
+            jdbcTemplate.batchUpdate(UPSERT_PAYMENT_DAILY, rows);
+        }
+    }
+
+    /**
+     * 현재 트랜잭션의 증분 버퍼를 반환한다. 처음 호출되면 커밋 직전 반영을 등록한다.
+     */
+    private Deltas currentDeltas() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Deltas();
+        }
+        Deltas bound = (Deltas) TransactionSynchronizationManager.getResource(this);
+        if (bound != null) {
+            return bound;
+        }
+
+        Deltas deltas = new Deltas();
+        TransactionSynchronizationManager.bindResource(this, deltas);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(SalesRollupRecorder.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(SalesRollupRecorder.this, deltas);
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                write(deltas);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(SalesRollupRecorder.this);
+            }
+        });
+        return deltas;
+    }
+
+    record HourlyKey(Long productId, LocalDateTime salesHour) implements Comparable<HourlyKey> {
+        @Override
+        public int compareTo(HourlyKey other) {
+            int byProduct = productId.compareTo(other.productId);
+            return byProduct != 0 ? byProduct : salesHour.compareTo(other.salesHour);
+        }
+    }
+
+    record ProductDailyKey(Long productId, LocalDate salesDate) implements Comparable<ProductDailyKey> {
+        @Override
+        public int compareTo(ProductDailyKey other) {
+            int byProduct = productId.compareTo(other.productId);
+            return byProduct != 0 ? byProduct : salesDate.compareTo(other.salesDate);
+        }
+    }
+
+    record DailyKey(LocalDate salesDate, PaymentMethod paymentMethod) implements Comparable<DailyKey> {
+        @Override
+        public int compareTo(DailyKey other) {
+            int byDate = salesDate.compareTo(other.salesDate);
+            return byDate != 0 ? byDate : paymentMethod.compareTo(other.paymentMethod);
+        }
+    }
+
+    /**
+     * 키별 증분(수량/금액/영수증 수).
+     */
+    static final class Delta {
+        long quantity;
+        long revenue;
+        long receiptCount;
+
+        void add(long quantity, long revenue, long receiptCount) {
+            this.quantity += quantity;
+            this.revenue += revenue;
+            this.receiptCount += receiptCount;
+        }
+    }
+
+    /**
+     * 트랜잭션 단위로 모으는 증분 버퍼. 키 순서로 정렬해 보관한다.
+     */
+    static final class Deltas {
+        final SortedMap<HourlyKey, Delta> hourly = new TreeMap<>();
+        final SortedMap<ProductDailyKey, Delta> productDaily = new TreeMap<>();
+        final SortedMap<DailyKey, Delta> daily = new TreeMap<>();
+    }
+}
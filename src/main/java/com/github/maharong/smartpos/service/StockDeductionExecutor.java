@@ -0,0 +1,74 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.config.InventoryProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * 재고 차감이 포함된 작업을 경합에 안전하게 실행하는 실행기.
+ * <p>
+ * 작업은 다음 순서로 보호된다.
+ * </p>
+ *
+ * <ol>
+ *   <li>{@link ProductLockStripes}로 대상 상품의 JVM 내부 락을 획득한다(같은 노드 내 경합 차단).</li>
+ *   <li>락을 쥔 상태에서 새 트랜잭션을 열어 작업을 실행하고 커밋한다.
+ *       락은 커밋 이후에 해제되므로, 다음 요청은 항상 커밋된 배치 수량을 읽는다.</li>
+ *   <li>다른 노드와의 경합으로 배치 버전 충돌({@link OptimisticLockingFailureException})이 나면
+ *       설정된 횟수만큼 트랜잭션 전체를 재시도한다.</li>
+ * </ol>
+ *
+ * <p>재시도는 트랜잭션 전체를 다시 실행해야 의미가 있으므로, 작업은 항상 {@code REQUIRES_NEW}로 연 새 트랜잭션에서
+ * 실행한다. 호출자의 트랜잭션이 있더라도 합류하지 않으므로, 충돌로 롤백된 시도가 바깥 트랜잭션을
+ * rollback-only로 만들지 않고, 재시도는 매번 깨끗한 영속성 컨텍스트에서 시작한다.</p>
+ */
+@Slf4j
+@Component
+public class StockDeductionExecutor {
+
+    private final ProductLockStripes lockStripes;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxRetries;
+
+    public StockDeductionExecutor(
+            ProductLockStripes lockStripes,
+            PlatformTransactionManager transactionManager,
+            InventoryProperties properties
+    ) {
+        this.lockStripes = lockStripes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxRetries = Math.max(0, properties.optimisticRetries());
+    }
+
+    /**
+     * 상품 락과 새 트랜잭션 안에서 작업을 실행한다.
+     *
+     * @param productIds 작업이 재고를 차감할 상품 ID 목록
+     * @param work 트랜잭션 안에서 실행할 작업
+     * @return 작업 결과
+     * @throws OptimisticLockingFailureException 재시도 횟수를 모두 소진한 경우
+     */
+    public <T> T execute(Collection<Long> productIds, Supplier<T> work) {
+        return lockStripes.withLocks(productIds, () -> {
+            int attempt = 0;
+            while (true) {
+                try {
+                    return transactionTemplate.execute(status -> work.get());
+                } catch (OptimisticLockingFailureException e) {
+                    if (attempt++ >= maxRetries) {
+                        throw e;
+                    }
+                    log.debug("배치 버전 충돌로 재시도합니다. attempt={}, productIds={}", attempt, productIds);
+                }
+            }
+        });
+    }
+}
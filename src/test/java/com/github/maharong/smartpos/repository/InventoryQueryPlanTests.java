@@ -0,0 +1,229 @@
+package com.github.maharong.smartpos.repository;
+
+import com.github.maharong.smartpos.entity.Product;
+import com.github.maharong.smartpos.enums.InventoryConsumeType;
+import com.github.maharong.smartpos.enums.ProductStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 재고 배치/로그 리포지토리 쿼리의 실행 계획 회귀 테스트.
+ * <p>
+ * 대량 데이터를 적재하고 통계를 갱신한 뒤, 각 리포지토리 메서드가 실제로 생성한 SQL을 가로채
+ * {@code EXPLAIN}으로 실행 계획을 확인한다. 재고 배치/로그 테이블을 전체 스캔하는 쿼리가 있으면 실패한다.
+ * </p>
+ * <p>
+ * 인메모리 재고 엔진 기동 시 전체 배치를 적재하는 {@code findAllBatchStocks}는 전체 조회가 목적이므로 제외한다.
+ * </p>
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:query-plan;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+				+ "com.github.maharong.smartpos.repository.InventoryQueryPlanTests$CapturingStatementInspector"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Transactional
+class InventoryQueryPlanTests {
+
+	private static final int PRODUCT_COUNT = 500;
+	private static final int BATCHES_PER_PRODUCT = 40;
+	private static final int LOGS_PER_PRODUCT = 40;
+	private static final long ID_OFFSET = 1_000_000L;
+
+	private static final Pattern TABLE_SCAN =
+			Pattern.compile("PUBLIC\\.(INVENTORY_BATCH|INVENTORY_LOG)\\.tableScan", Pattern.CASE_INSENSITIVE);
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private InventoryBatchRepository inventoryBatchRepository;
+
+	@Autowired
+	private InventoryLogRepository inventoryLogRepository;
+
+	@BeforeAll
+	void seed() {
+		LocalDate today = LocalDate.now();
+		LocalDateTime now = LocalDateTime.now();
+
+		List<Object[]> products = new ArrayList<>();
+		List<Object[]> batches = new ArrayList<>();
+		List<Object[]> logs = new ArrayList<>();
+		for (int p = 0; p < PRODUCT_COUNT; p++) {
+			long productId = ID_OFFSET + p;
+			products.add(new Object[]{productId, "plan-" + p, 1000, "plan-barcode-" + p, 10, ProductStatus.ACTIVE.name()});
+			for (int b = 0; b < BATCHES_PER_PRODUCT; b++) {
+				long batchId = productId * BATCHES_PER_PRODUCT + b;
+				LocalDate expiry = today.plusDays(b - 5);
+				Timestamp checkedAt = (b % 4 == 0) ? null : Timestamp.valueOf(now.minusDays(b));
+				batches.add(new Object[]{batchId, productId, (b % 3 == 0) ? 0 : 10 + b, Date.valueOf(expiry),
+						Date.valueOf(expiry.minusDays(30)), checkedAt});
+			}
+			InventoryConsumeType[] types = InventoryConsumeType.values();
+			for (int l = 0; l < LOGS_PER_PRODUCT; l++) {
+				logs.add(new Object[]{productId * LOGS_PER_PRODUCT + l, productId, types[l % types.length].name(), 1,
+						Timestamp.valueOf(now.minusHours(l))});
+			}
+		}
+
+		jdbcTemplate.batchUpdate("""
+				insert into product (id, name, price, barcode, units_per_package, status)
+				values (?, ?, ?, ?, ?, ?)
+				""", products);
+		jdbcTemplate.batchUpdate("""
+				insert into inventory_batch (id, product_id, quantity, expiry_date, received_date, last_checked_at)
+				values (?, ?, ?, ?, ?, ?)
+				""", batches);
+		jdbcTemplate.batchUpdate("""
+				insert into inventory_log (id, product_id, type, quantity, occurred_at)
+				values (?, ?, ?, ?, ?)
+				""", logs);
+		jdbcTemplate.execute("analyze");
+	}
+
+	@BeforeEach
+	void clearCapturedSql() {
+		CapturingStatementInspector.clear();
+	}
+
+	@Test
+	void findByProductOrderByExpiryDateAsc() {
+		inventoryBatchRepository.findByProductOrderByExpiryDateAsc(product());
+		assertNoTableScan();
+	}
+
+	@Test
+	void findExpiringBatches() {
+		LocalDate today = LocalDate.now();
+		inventoryBatchRepository.findExpiringBatches(today.minusDays(3), today, today.minusDays(1), ID_OFFSET, Limit.of(101));
+		assertNoTableScan();
+	}
+
+	@Test
+	void findExpiredProductIds() {
+		inventoryBatchRepository.findExpiredProductIds(LocalDate.now().minusDays(3), ID_OFFSET, Limit.of(500));
+		assertNoTableScan();
+	}
+
+	@Test
+	void findSellableBatches() {
+		inventoryBatchRepository.findSellableBatches(List.of(ID_OFFSET, ID_OFFSET + 1), LocalDate.now());
+		assertNoTableScan();
+	}
+
+	@Test
+	void findSellableBatchesForUpdate() {
+		inventoryBatchRepository.findSellableBatchesForUpdate(List.of(ID_OFFSET, ID_OFFSET + 1), LocalDate.now());
+		assertNoTableScan();
+	}
+
+	@Test
+	void findAllInventorySummaries() {
+		inventoryBatchRepository.findAllInventorySummaries(LocalDate.now(), ProductStatus.ACTIVE);
+		assertNoTableScan();
+	}
+
+	@Test
+	void findTopAuditCandidatesByExpiry() {
+		LocalDate today = LocalDate.now();
+		inventoryBatchRepository.findTopAuditCandidatesByExpiry(today, today.minusDays(3), today.minusDays(29).atStartOfDay(),
+				100, 50, 40, 20, Limit.of(50));
+		assertNoTableScan();
+	}
+
+	@Test
+	void findTopAuditCandidatesNeverChecked() {
+		inventoryBatchRepository.findTopAuditCandidatesNeverChecked(LocalDate.now().plusDays(30), 40, Limit.of(50));
+		assertNoTableScan();
+	}
+
+	@Test
+	void findTopAuditCandidatesCheckedBefore() {
+		inventoryBatchRepository.findTopAuditCandidatesCheckedBefore(LocalDate.now().plusDays(30),
+				LocalDateTime.now().minusDays(35), 20, Limit.of(50));
+		assertNoTableScan();
+	}
+
+	@Test
+	void findByProductOrderByOccurredAtDesc() {
+		inventoryLogRepository.findByProductOrderByOccurredAtDesc(product());
+		assertNoTableScan();
+	}
+
+	@Test
+	void findByProductAndTypeOrderByOccurredAtDesc() {
+		inventoryLogRepository.findByProductAndTypeOrderByOccurredAtDesc(product(), InventoryConsumeType.WASTE);
+		assertNoTableScan();
+	}
+
+	private Product product() {
+		Product product = productRepository.findById(ID_OFFSET).orElseThrow();
+		CapturingStatementInspector.clear();
+		return product;
+	}
+
+	/**
+	 * 가로챈 SELECT 문마다 실행 계획을 확인한다.
+	 */
+	private void assertNoTableScan() {
+		List<String> selects = CapturingStatementInspector.captured().stream()
+				.filter(sql -> sql.stripLeading().toLowerCase().startsWith("select"))
+				.toList();
+		assertThat(selects).isNotEmpty();
+
+		for (String sql : selects) {
+			String plan = jdbcTemplate.query(
+					con -> con.prepareStatement("explain " + sql),
+					rs -> rs.next() ? rs.getString(1) : ""
+			);
+			assertThat(TABLE_SCAN.matcher(plan).find())
+					.as("전체 스캔 발생:%n%s", plan)
+					.isFalse();
+		}
+	}
+
+	/**
+	 * Hibernate가 실행하는 SQL을 수집하는 인스펙터.
+	 */
+	public static class CapturingStatementInspector implements StatementInspector {
+
+		private static final List<String> CAPTURED = new CopyOnWriteArrayList<>();
+
+		static void clear() {
+			CAPTURED.clear();
+		}
+
+		static List<String> captured() {
+			return List.copyOf(CAPTURED);
+		}
+
+		@Override
+		public String inspect(String sql) {
+			CAPTURED.add(sql);
+			return sql;
+		}
+	}
+}
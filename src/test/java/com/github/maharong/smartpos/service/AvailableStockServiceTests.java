@@ -0,0 +1,57 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.InventoryReceiveRequest;
+import com.github.maharong.smartpos.dto.ProductCreateRequest;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 자정 만료 반영이 여러 번(여러 노드에서) 실행되어도 판매 가능 재고를 한 번만 줄이는지 검증한다.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:available-stock;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class AvailableStockServiceTests {
+
+	@Autowired
+	private AvailableStockService availableStockService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void rollExpiredStockIsIdempotent() {
+		LocalDate today = LocalDate.now();
+		Long productId = productService.create(new ProductCreateRequest("roll", 100, "roll-1", 1)).id();
+		Long expiring = inventoryService.receive(
+				new InventoryReceiveRequest(productId, 4, today.plusDays(1), null)).batchId();
+		inventoryService.receive(new InventoryReceiveRequest(productId, 6, today.plusDays(5), null));
+		assertThat(availableStock(productId)).isEqualTo(10);
+
+		// 자정이 지나 첫 배치의 유통기한(전날)이 끝난 상태를 만든다.
+		jdbcTemplate.update("update inventory_batch set expiry_date = ? where id = ?", today.minusDays(1), expiring);
+
+		availableStockService.rollExpiredStock();
+		availableStockService.rollExpiredStock();
+
+		assertThat(availableStock(productId)).isEqualTo(6);
+	}
+
+	private int availableStock(Long productId) {
+		return productRepository.findById(productId).orElseThrow().getAvailableStock();
+	}
+}
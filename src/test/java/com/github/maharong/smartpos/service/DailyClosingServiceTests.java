@@ -0,0 +1,69 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.DailyClosingResponse;
+import com.github.maharong.smartpos.dto.InventoryReceiveRequest;
+import com.github.maharong.smartpos.dto.ProductCreateRequest;
+import com.github.maharong.smartpos.enums.PaymentMethod;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 영업일 마감이 마감 시각만 기록하는지 검증한다.
+ * <p>
+ * 마감 이후 다른 노드가 반영한 증분은 다시 마감해도 남아 있어야 하고, 마감 시각은 처음 값을 유지해야 한다.
+ * </p>
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:daily-closing;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class DailyClosingServiceTests {
+
+	@Autowired
+	private DailyClosingService dailyClosingService;
+
+	@Autowired
+	private SaleService saleService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void closeKeepsCountersAndFirstClosedAt() {
+		LocalDate today = LocalDate.now();
+		Long productId = productService.create(new ProductCreateRequest("closing", 1_000, "closing-1", 1)).id();
+		inventoryService.receive(new InventoryReceiveRequest(productId, 10, today.plusDays(10), null));
+		saleService.createSale(PaymentMethod.CASH, 2_000, 0, 0, List.of(new SaleService.CreateSaleLine(productId, 2)));
+
+		DailyClosingResponse first = dailyClosingService.close(today);
+		assertThat(first.saleCount()).isEqualTo(1);
+		assertThat(first.closedAt()).isNotNull();
+
+		// 다른 노드가 반영한 증분
+		jdbcTemplate.update("update daily_closing set sale_count = sale_count + 1 where business_date = ?", today);
+
+		DailyClosingResponse second = dailyClosingService.close(today);
+		assertThat(second.saleCount()).isEqualTo(2);
+		assertThat(second.closedAt()).isEqualTo(first.closedAt());
+	}
+
+	@Test
+	void closeWithoutSalesCreatesClosedRow() {
+		LocalDate businessDate = LocalDate.of(2030, 5, 1);
+
+		DailyClosingResponse closed = dailyClosingService.close(businessDate);
+
+		assertThat(closed.saleCount()).isZero();
+		assertThat(closed.closedAt()).isNotNull();
+	}
+}
@@ -0,0 +1,77 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.ForecastRefreshResponse;
+import com.github.maharong.smartpos.dto.ProductCreateRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 수요 예측 갱신이 과거 판매가 그대로인 상품은 상태만 전진시키고, 바뀐 상품만 다시 맞추는지 검증한다.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:forecast-refresh;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"smartpos.forecast.history-days=28"
+})
+class DemandForecastRefreshTests {
+
+	@Autowired
+	private DemandForecastService demandForecastService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void nextDayAdvancesUnchangedSeriesAndRefitsChangedOnes() {
+		LocalDate baseDate = LocalDate.of(2030, 1, 29);
+		Long steady = product("steady");
+		Long revised = product("revised");
+		for (int day = 1; day <= 28; day++) {
+			record(steady, baseDate.minusDays(day), 10 + day % 7);
+			record(revised, baseDate.minusDays(day), 5 + day % 3);
+		}
+
+		ForecastRefreshResponse first = demandForecastService.refresh(baseDate);
+		assertThat(first.productCount()).isEqualTo(2);
+		assertThat(first.refittedCount()).isEqualTo(2);
+
+		// 같은 기준일 재갱신은 모두 재사용한다.
+		ForecastRefreshResponse same = demandForecastService.refresh(baseDate);
+		assertThat(same.refittedCount()).isZero();
+		assertThat(same.advancedCount()).isZero();
+
+		// 하루가 지나 새 날짜의 판매가 쌓이고, revised는 과거 판매가 늦게 반영된다.
+		record(steady, baseDate, 12);
+		record(revised, baseDate, 6);
+		record(revised, baseDate.minusDays(3), 4);
+
+		ForecastRefreshResponse next = demandForecastService.refresh(baseDate.plusDays(1));
+		assertThat(next.productCount()).isEqualTo(2);
+		assertThat(next.advancedCount()).isEqualTo(1);
+		assertThat(next.refittedCount()).isEqualTo(1);
+
+		// 전진한 모델도 다음 날 같은 기준일로 다시 갱신하면 그대로 재사용된다.
+		ForecastRefreshResponse again = demandForecastService.refresh(baseDate.plusDays(1));
+		assertThat(again.refittedCount()).isZero();
+	}
+
+	private Long product(String name) {
+		return productService.create(new ProductCreateRequest(name, 1000, "forecast-" + name, 1)).id();
+	}
+
+	private void record(Long productId, LocalDate date, long quantity) {
+		jdbcTemplate.update("""
+				insert into product_daily_sales (product_id, sales_date, quantity, revenue, receipt_count)
+				values (?, ?, ?, ?, 1)
+				on duplicate key update quantity = quantity + values(quantity), revenue = revenue + values(revenue)
+				""", productId, date, quantity, quantity * 1000);
+	}
+}
@@ -0,0 +1,82 @@
+package com.github.maharong.smartpos.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * 주간 계절성 Holt-Winters 모델의 적합·예측·상태 전진을 검증한다.
+ * <p>
+ * 스프링 컨텍스트 없이 합성 계열만으로 확인한다.
+ * </p>
+ */
+class HoltWintersModelTests {
+
+	private static final double[] WEEK = {-4, -2, 0, 1, 2, 6, -3};
+	private static final int DAYS = 56;
+
+	@Test
+	void recoversKnownWeeklyPattern() {
+		HoltWintersModel model = HoltWintersModel.fit(weekly(DAYS, 0));
+
+		for (int h = 1; h <= 14; h++) {
+			assertThat(model.expected(h)).isCloseTo(pattern(DAYS + h - 1), within(0.5));
+		}
+	}
+
+	@Test
+	void allZeroSeriesForecastsZero() {
+		HoltWintersModel model = HoltWintersModel.fit(new double[DAYS]);
+
+		for (int h = 1; h <= 28; h++) {
+			assertThat(model.expected(h)).isZero();
+			assertThat(model.standardError(h)).isZero();
+		}
+	}
+
+	@Test
+	void intervalWidensWithHorizon() {
+		HoltWintersModel model = HoltWintersModel.fit(weekly(DAYS, 1.5));
+
+		assertThat(model.standardError(1)).isPositive();
+		for (int h = 1; h < 28; h++) {
+			assertThat(model.standardError(h + 1)).isGreaterThanOrEqualTo(model.standardError(h));
+		}
+		assertThat(model.standardError(28)).isGreaterThan(model.standardError(1));
+	}
+
+	@Test
+	void advanceFollowsPatternWithoutRefit() {
+		double[] series = weekly(DAYS + 7, 0);
+		double[] history = new double[DAYS];
+		System.arraycopy(series, 0, history, 0, DAYS);
+
+		HoltWintersModel model = HoltWintersModel.fit(history);
+		for (int day = DAYS; day < series.length; day++) {
+			model = model.advance(series[day]);
+		}
+
+		for (int h = 1; h <= 7; h++) {
+			assertThat(model.expected(h)).isCloseTo(pattern(DAYS + 7 + h - 1), within(0.5));
+		}
+	}
+
+	/**
+	 * 수준 20 + 주간 패턴에 표준편차 {@code noise}의 잡음을 더한 계열.
+	 */
+	private static double[] weekly(int length, double noise) {
+		Random random = new Random(7);
+		double[] series = new double[length];
+		for (int t = 0; t < length; t++) {
+			series[t] = pattern(t) + noise * random.nextGaussian();
+		}
+		return series;
+	}
+
+	private static double pattern(int day) {
+		return 20 + WEEK[day % WEEK.length];
+	}
+}
@@ -0,0 +1,119 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.InventoryReceiveRequest;
+import com.github.maharong.smartpos.dto.ProductCreateRequest;
+import com.github.maharong.smartpos.enums.PaymentMethod;
+import com.github.maharong.smartpos.repository.InventoryBatchRepository;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 인메모리 재고 엔진의 write-behind 반영을 검증한다.
+ * <p>
+ * 판매 트랜잭션은 저널 토큰을 같은 트랜잭션에 남기고, DB 반영 트랜잭션이 토큰을 지워야 한다.
+ * 폐기 직전에 커밋된 판매의 차감이 폐기 뒤에 반영되더라도 배치/상품 재고가 음수가 되면 안 된다.
+ * </p>
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:inventory-engine;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"smartpos.inventory.engine.enabled=true",
+		"smartpos.inventory.engine.journal-path=build/tmp/inventory-engine-tests/${random.uuid}.log",
+		"smartpos.inventory.engine.flush-interval=1h"
+})
+class InMemoryInventoryEngineTests {
+
+	@Autowired
+	private InMemoryInventoryEngine engine;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private SaleService saleService;
+
+	@Autowired
+	private InventoryBatchRepository inventoryBatchRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void committedSaleLeavesTokenUntilFlushed() {
+		Long productId = productService.create(new ProductCreateRequest("engine-sale", 100, "engine-sale", 1)).id();
+		Long batchId = inventoryService.receive(
+				new InventoryReceiveRequest(productId, 10, LocalDate.now().plusDays(3), null)).batchId();
+
+		saleService.createSale(PaymentMethod.CASH, 300, 0, 0, List.of(new SaleService.CreateSaleLine(productId, 3)));
+
+		assertThat(tokenCount()).isEqualTo(1);
+		assertThat(batchQuantity(batchId)).isEqualTo(10);
+
+		engine.flush();
+
+		assertThat(tokenCount()).isZero();
+		assertThat(batchQuantity(batchId)).isEqualTo(7);
+		assertThat(productRepository.findById(productId).orElseThrow().getAvailableStock()).isEqualTo(7);
+	}
+
+	@Test
+	void rolledBackSaleLeavesNoTokenAndRestoresMemory() {
+		Long productId = productService.create(new ProductCreateRequest("engine-rollback", 100, "engine-rollback", 1)).id();
+		inventoryService.receive(new InventoryReceiveRequest(productId, 10, LocalDate.now().plusDays(3), null));
+
+		transactionTemplate.executeWithoutResult(status -> {
+			engine.allocate(Map.of(productId, 4), LocalDate.now(), true);
+			status.setRollbackOnly();
+		});
+		engine.flush();
+
+		assertThat(tokenCount()).isZero();
+		assertThat(engine.getSummary(productId, LocalDate.now()).orElseThrow().totalQuantity()).isEqualTo(10);
+	}
+
+	@Test
+	void flushAfterDisposalDoesNotMakeBatchNegative() {
+		LocalDate today = LocalDate.now();
+		Long productId = productService.create(new ProductCreateRequest("engine-dispose", 100, "engine-dispose", 1)).id();
+		Long batchId = inventoryService.receive(new InventoryReceiveRequest(productId, 10, today, null)).batchId();
+
+		// 판매가 커밋되기 직전(차감은 아직 반영 대기열에 없음)에 폐기가 먼저 배치 수량을 0으로 만든다.
+		transactionTemplate.executeWithoutResult(status -> {
+			engine.allocate(Map.of(productId, 4), today, true);
+			inventoryService.disposeExpiredBatches(today.plusDays(1), "race");
+		});
+		assertThat(batchQuantity(batchId)).isZero();
+
+		engine.flush();
+
+		assertThat(batchQuantity(batchId)).isZero();
+		assertThat(productRepository.findById(productId).orElseThrow().getAvailableStock()).isZero();
+		assertThat(tokenCount()).isZero();
+	}
+
+	private int tokenCount() {
+		return jdbcTemplate.queryForObject("select count(*) from inventory_journal_token", Integer.class);
+	}
+
+	private int batchQuantity(Long batchId) {
+		return inventoryBatchRepository.findById(batchId).orElseThrow().getQuantity();
+	}
+}
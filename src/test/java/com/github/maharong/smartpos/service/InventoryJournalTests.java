@@ -0,0 +1,148 @@
+package com.github.maharong.smartpos.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link InventoryJournal}의 복구 규칙과 정리(compaction)를 검증한다.
+ * <p>
+ * 커밋 기록이 있는 묶음은 체크포인트 이후만, 취소된 묶음은 버리고,
+ * 커밋/취소 기록이 모두 없는 묶음은 DB에 토큰이 남아있을 때만 다시 반영해야 한다.
+ * </p>
+ */
+class InventoryJournalTests {
+
+	private static final List<InventoryJournal.Deduction> FIRST = List.of(
+			new InventoryJournal.Deduction(11, 1, 3, 20_000),
+			new InventoryJournal.Deduction(12, 1, 2, 20_001));
+	private static final List<InventoryJournal.Deduction> SECOND = List.of(
+			new InventoryJournal.Deduction(21, 2, 5, 20_000));
+
+	@TempDir
+	Path directory;
+
+	private Path path;
+	private InventoryJournal journal;
+
+	@BeforeEach
+	void open() {
+		path = directory.resolve("journal.log");
+		journal = new InventoryJournal(path);
+		journal.open();
+	}
+
+	@AfterEach
+	void close() {
+		journal.close();
+	}
+
+	@Test
+	void committedGroupsAreReplayedInSequenceOrder() {
+		journal.appendDeductions(1, FIRST);
+		journal.appendDeductions(2, SECOND);
+		journal.appendCommit(2, 1);
+		journal.sync(journal.appendCommit(1, 2));
+
+		InventoryJournal.Recovery recovery = journal.recover(0, Set.of());
+
+		assertThat(recovery.pending()).containsExactly(
+				new InventoryJournal.Group(1, 2, SECOND),
+				new InventoryJournal.Group(2, 1, FIRST));
+		assertThat(recovery.lastToken()).isEqualTo(2);
+		assertThat(recovery.lastSeq()).isEqualTo(2);
+	}
+
+	@Test
+	void canceledGroupsAreDropped() {
+		journal.appendDeductions(1, FIRST);
+		journal.sync(journal.appendCancel(1));
+
+		// 토큰이 DB에 남아있더라도 취소 기록이 있으면 반영하지 않는다.
+		InventoryJournal.Recovery recovery = journal.recover(0, Set.of(1L));
+
+		assertThat(recovery.pending()).isEmpty();
+		assertThat(recovery.discarded()).isZero();
+	}
+
+	@Test
+	void unresolvedGroupIsReplayedOnlyWhenTokenWasCommitted() {
+		journal.appendDeductions(1, FIRST);
+		journal.appendCommit(1, 5);
+		journal.appendDeductions(2, SECOND);       // 커밋 직후 중단: DB에 토큰 있음
+		journal.sync(journal.appendDeductions(3, FIRST)); // 커밋 전 중단: DB에 토큰 없음
+
+		InventoryJournal.Recovery recovery = journal.recover(0, Set.of(2L));
+
+		assertThat(recovery.pending()).containsExactly(
+				new InventoryJournal.Group(5, 1, FIRST),
+				new InventoryJournal.Group(6, 2, SECOND));
+		assertThat(recovery.unresolved()).isEqualTo(1);
+		assertThat(recovery.discarded()).isEqualTo(1);
+		assertThat(recovery.lastSeq()).isEqualTo(6);
+	}
+
+	@Test
+	void groupsAtOrBeforeCheckpointAreSkipped() {
+		journal.appendDeductions(1, FIRST);
+		journal.appendCommit(1, 7);
+		journal.appendDeductions(2, SECOND);
+		journal.sync(journal.appendCommit(2, 8));
+
+		InventoryJournal.Recovery recovery = journal.recover(7, Set.of());
+
+		assertThat(recovery.pending()).containsExactly(new InventoryJournal.Group(8, 2, SECOND));
+		assertThat(recovery.lastSeq()).isEqualTo(8);
+	}
+
+	@Test
+	void partialLastLineIsIgnored() throws Exception {
+		journal.appendDeductions(1, FIRST);
+		journal.sync(journal.appendCommit(1, 1));
+		Files.writeString(path, "D,2,21", java.nio.file.StandardOpenOption.APPEND);
+
+		InventoryJournal.Recovery recovery = journal.recover(0, Set.of(2L));
+
+		assertThat(recovery.pending()).containsExactly(new InventoryJournal.Group(1, 1, FIRST));
+	}
+
+	@Test
+	void compactionKeepsOnlyPendingRecords() {
+		for (long token = 1; token <= 100; token++) {
+			journal.appendDeductions(token, FIRST);
+			journal.appendCommit(token, token);
+		}
+		journal.appendDeductions(101, SECOND);
+		long before = journal.size();
+
+		// 1~99는 DB에 반영되었고, 100은 반영 대기, 101은 커밋 결과 대기 중이다.
+		journal.compact(Map.of(101L, SECOND), List.of(new InventoryJournal.Group(100, 100, FIRST)));
+		journal.sync(journal.appendCommit(101, 101));
+
+		assertThat(journal.size()).isLessThan(before / 10);
+		InventoryJournal.Recovery recovery = journal.recover(99, Set.of());
+		assertThat(recovery.pending()).containsExactly(
+				new InventoryJournal.Group(100, 100, FIRST),
+				new InventoryJournal.Group(101, 101, SECOND));
+	}
+
+	@Test
+	void compactionWithoutPendingRecordsEmptiesJournal() {
+		journal.appendDeductions(1, FIRST);
+		journal.sync(journal.appendCommit(1, 1));
+
+		journal.compact(Map.of(), List.of());
+
+		assertThat(journal.size()).isZero();
+		assertThat(journal.recover(1, Set.of()).pending()).isEmpty();
+	}
+}
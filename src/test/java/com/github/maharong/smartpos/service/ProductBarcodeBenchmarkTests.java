@@ -0,0 +1,108 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.ProductResponse;
+import com.github.maharong.smartpos.enums.ProductStatus;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 상품 1만 개에서 바코드 스캔 조회 지연 시간(p99)을 DB 조회와 인메모리 인덱스 조회로 비교하는 벤치마크.
+ * <p>
+ * "적용 전"은 트랜잭션 안에서 {@code findByBarcode}로 조회해 DTO로 변환하던 기존 경로를 재현한다.
+ * 실행 환경에 따라 결과가 흔들리므로 기본 테스트에서 제외하고 {@code gradle benchmark}로만 실행한다.
+ * 인덱스 조회가 SQL을 실행하지 않는지는 {@link ProductBarcodeIndexTests}에서 검증한다.
+ * </p>
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:barcode-bench;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductBarcodeBenchmarkTests {
+
+	private static final Logger log = LoggerFactory.getLogger(ProductBarcodeBenchmarkTests.class);
+
+	private static final int PRODUCT_COUNT = 10_000;
+	private static final int WARMUP_SCANS = 20_000;
+	private static final int SCANS = 50_000;
+	private static final long ID_OFFSET = 1_000_000L;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductBarcodeIndex productBarcodeIndex;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final List<String> barcodes = new ArrayList<>();
+
+	@BeforeAll
+	void seed() {
+		List<Object[]> products = new ArrayList<>();
+		for (int p = 0; p < PRODUCT_COUNT; p++) {
+			String barcode = "880" + (ID_OFFSET + p);
+			products.add(new Object[]{ID_OFFSET + p, "bench-" + p, 1000, barcode, 10, ProductStatus.ACTIVE.name()});
+			barcodes.add(barcode);
+		}
+		jdbcTemplate.batchUpdate("""
+				insert into product (id, name, price, barcode, units_per_package, status)
+				values (?, ?, ?, ?, ?, ?)
+				""", products);
+		productBarcodeIndex.rebuild();
+	}
+
+	@Test
+	void scanLatency() {
+		double before = p99Micros(barcode -> transactionTemplate.execute(status ->
+				productRepository.findByBarcode(barcode).map(ProductService::toResponse).orElseThrow()));
+
+		double after = p99Micros(productService::getByBarcode);
+
+		log.info("바코드 스캔 p99 지연(상품 {}개): DB 조회 {}us, 인덱스 조회 {}us", PRODUCT_COUNT, before, after);
+		assertThat(after).isLessThan(1_000);
+	}
+
+	/**
+	 * 임의 바코드를 {@link #SCANS}번 조회하고 호출별 지연 시간의 p99(마이크로초)를 구한다.
+	 */
+	private double p99Micros(Function<String, ProductResponse> scan) {
+		Random random = new Random(42);
+		for (int i = 0; i < WARMUP_SCANS; i++) {
+			scan.apply(barcodes.get(random.nextInt(PRODUCT_COUNT)));
+		}
+
+		long[] elapsed = new long[SCANS];
+		for (int i = 0; i < SCANS; i++) {
+			String barcode = barcodes.get(random.nextInt(PRODUCT_COUNT));
+			long start = System.nanoTime();
+			ProductResponse product = scan.apply(barcode);
+			elapsed[i] = System.nanoTime() - start;
+			assertThat(product.barcode()).isEqualTo(barcode);
+		}
+		Arrays.sort(elapsed);
+		return elapsed[(int) Math.ceil(SCANS * 0.99) - 1] / 1_000.0;
+	}
+}
@@ -0,0 +1,77 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.ProductCreateRequest;
+import com.github.maharong.smartpos.dto.ProductResponse;
+import com.github.maharong.smartpos.event.ProductChangedEvent;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 바코드 인덱스가 DB 접근 없이 조회하고, 순서가 뒤바뀐 상품 변경 이벤트를 버전으로 걸러내는지 검증한다.
+ * <p>
+ * 지연 시간 비교는 {@link ProductBarcodeBenchmarkTests}(benchmark 태그)에서 따로 측정한다.
+ * </p>
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:barcode-index;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProductBarcodeIndexTests {
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductBarcodeIndex productBarcodeIndex;
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	@Test
+	void scanDoesNotTouchDatabase() {
+		for (int p = 0; p < 10; p++) {
+			productService.create(new ProductCreateRequest("scan-" + p, 1000, "scan-" + p, 1));
+		}
+
+		Statistics statistics = sessionFactory.getStatistics();
+		statistics.clear();
+		for (int p = 0; p < 10; p++) {
+			assertThat(productService.getByBarcode("scan-" + p).name()).isEqualTo("scan-" + p);
+		}
+
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	void staleEventIsIgnored() {
+		ProductResponse created = productService.create(new ProductCreateRequest("order", 1000, "order-1", 1));
+		long version = productRepository.findById(created.id()).orElseThrow().getChangeVersion();
+
+		ProductResponse newer = rename(created, "order-newer", "order-2");
+		ProductResponse older = rename(created, "order-older", "order-3");
+		productBarcodeIndex.onProductChanged(new ProductChangedEvent(newer, version + 2));
+		productBarcodeIndex.onProductChanged(new ProductChangedEvent(older, version + 1));
+
+		assertThat(productBarcodeIndex.find("order-2")).contains(newer);
+		assertThat(productBarcodeIndex.find("order-3")).isEmpty();
+		assertThat(productBarcodeIndex.find("order-1")).isEmpty();
+
+		// 같은 버전의 재전달도 무시한다.
+		productBarcodeIndex.onProductChanged(new ProductChangedEvent(older, version + 2));
+		assertThat(productBarcodeIndex.find("order-2")).contains(newer);
+	}
+
+	private static ProductResponse rename(ProductResponse product, String name, String barcode) {
+		return new ProductResponse(product.id(), name, product.price(), barcode,
+				product.unitsPerPackage(), product.status());
+	}
+}
@@ -0,0 +1,52 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.ProductChangeResponse;
+import com.github.maharong.smartpos.dto.ProductChangesResponse;
+import com.github.maharong.smartpos.dto.ProductCreateRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 카탈로그 변경분/스냅샷이 다른 노드에서 커밋된 상품 변경을 바로 반영하는지 검증한다.
+ * <p>
+ * 다른 노드의 변경은 이 노드에 상품 변경 이벤트가 오지 않으므로, 상품 행과 카탈로그 버전을 SQL로 직접 바꿔 재현한다.
+ * </p>
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:product-catalog;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class ProductCatalogServiceTests {
+
+	@Autowired
+	private ProductCatalogService productCatalogService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void changesFromAnotherNodeAreVisible() {
+		Long productId = productService.create(new ProductCreateRequest("catalog", 1_000, "catalog-1", 1)).id();
+		ProductCatalogService.CatalogSnapshot before = productCatalogService.getSnapshot();
+		long since = before.version();
+		assertThat(productCatalogService.getChanges(since, 10).changes()).isEmpty();
+		assertThat(productCatalogService.getSnapshot()).isSameAs(before);
+
+		// 다른 노드에서 커밋된 가격 변경
+		long version = since + 1;
+		jdbcTemplate.update("update catalog_version set current_version = ? where id = 1", version);
+		jdbcTemplate.update("update product set price = 1200, change_version = ? where id = ?", version, productId);
+
+		ProductChangesResponse changes = productCatalogService.getChanges(since, 10);
+		assertThat(changes.changes()).extracting(ProductChangeResponse::id).containsExactly(productId);
+		assertThat(changes.nextSince()).isEqualTo(version);
+
+		ProductCatalogService.CatalogSnapshot after = productCatalogService.getSnapshot();
+		assertThat(after.version()).isEqualTo(version);
+		assertThat(after.etag()).isNotEqualTo(before.etag());
+	}
+}
@@ -0,0 +1,92 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.ProductCreateRequest;
+import com.github.maharong.smartpos.dto.PurchaseOrderPageResponse;
+import com.github.maharong.smartpos.dto.PurchaseOrderSummaryResponse;
+import com.github.maharong.smartpos.enums.PurchaseOrderStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 발주 목록 키셋 페이지가 발주를 먼저 고른 뒤 그 발주의 라인만 집계하는지 검증한다.
+ * <p>
+ * 같은 발주 시각이 여러 건이고 라인이 없는 발주가 섞여 있어도, 페이지를 이어 읽으면
+ * 전체 발주가 최신순으로 한 번씩 나오고 라인 수/총액이 맞아야 한다. 페이지마다 SQL은 두 문장이다.
+ * </p>
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:purchase-order-page;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class PurchaseOrderPageTests {
+
+	private static final int ORDER_COUNT = 25;
+
+	@Autowired
+	private PurchaseOrderService purchaseOrderService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	@Test
+	void keysetPagesAggregateOnlyTheirOrders() {
+		Long productId = productService.create(new ProductCreateRequest("po-page", 1000, "po-page", 10)).id();
+		LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+		long itemId = 1;
+		for (long orderId = 1; orderId <= ORDER_COUNT; orderId++) {
+			// 세 건씩 같은 발주 시각
+			jdbcTemplate.update("insert into purchase_order (id, ordered_at, status, total_price) values (?, ?, ?, 0)",
+					orderId, base.plusHours(orderId / 3), PurchaseOrderStatus.ORDERED.name());
+			// 발주 ID만큼의 라인(5의 배수 발주는 라인 없음)
+			for (int line = 0; orderId % 5 != 0 && line < orderId; line++) {
+				jdbcTemplate.update("""
+						insert into purchase_order_item (id, purchase_order_id, product_id, package_quantity, unit_price)
+						values (?, ?, ?, 2, 1000)
+						""", itemId++, orderId, productId);
+			}
+		}
+
+		Statistics statistics = sessionFactory.getStatistics();
+		List<PurchaseOrderSummaryResponse> all = new ArrayList<>();
+		LocalDateTime cursorOrderedAt = null;
+		Long cursorId = null;
+		int pages = 0;
+		while (true) {
+			statistics.clear();
+			PurchaseOrderPageResponse page = purchaseOrderService.getPurchaseOrders(
+					null, null, null, cursorOrderedAt, cursorId, 10);
+			assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+			all.addAll(page.purchaseOrders());
+			pages++;
+			if (!page.hasNext()) break;
+			cursorOrderedAt = page.nextCursorOrderedAt();
+			cursorId = page.nextCursorId();
+		}
+
+		assertThat(pages).isEqualTo(3);
+		assertThat(all).extracting(PurchaseOrderSummaryResponse::purchaseOrderId)
+				.containsExactly(25L, 24L, 23L, 22L, 21L, 20L, 19L, 18L, 17L, 16L, 15L, 14L, 13L,
+						12L, 11L, 10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L);
+		for (PurchaseOrderSummaryResponse order : all) {
+			long lines = order.purchaseOrderId() % 5 == 0 ? 0 : order.purchaseOrderId();
+			assertThat(order.lineCount()).isEqualTo(lines);
+			assertThat(order.totalPrice()).isEqualTo(lines * 2 * 1000);
+		}
+	}
+}
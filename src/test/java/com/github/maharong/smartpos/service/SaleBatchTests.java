@@ -0,0 +1,66 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.InventoryReceiveRequest;
+import com.github.maharong.smartpos.dto.ProductCreateRequest;
+import com.github.maharong.smartpos.dto.SaleBatchResultResponse;
+import com.github.maharong.smartpos.dto.SaleCreateLineRequest;
+import com.github.maharong.smartpos.dto.SaleCreateRequest;
+import com.github.maharong.smartpos.enums.PaymentMethod;
+import com.github.maharong.smartpos.enums.SaleBatchResultStatus;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 일괄 판매 등록에서 실패한 영수증이 재고를 남기지 않는지 검증한다.
+ * <p>
+ * 결제 금액 합은 맞지만 음수 금액이 섞인 영수증은 재고 차감 전에 실패해야 하며,
+ * 같은 묶음의 다른 영수증은 그대로 저장된다.
+ * </p>
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sale-batch;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class SaleBatchTests {
+
+	@Autowired
+	private SaleService saleService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void negativePaymentFailsWithoutDeductingStock() {
+		Long productId = productService.create(new ProductCreateRequest("batch-negative", 1_000, "batch-negative", 1)).id();
+		Long batchId = inventoryService.receive(
+				new InventoryReceiveRequest(productId, 10, LocalDate.now().plusDays(10), null)).batchId();
+		LocalDateTime now = LocalDateTime.now();
+
+		List<SaleBatchResultResponse> results = saleService.createSaleBatch(List.of(
+				new SaleCreateRequest(PaymentMethod.MIX, 2_000, -1_000, 0, List.of(
+						new SaleCreateLineRequest(productId, 1)), now, "batch-negative-1"),
+				new SaleCreateRequest(PaymentMethod.CASH, 2_000, 0, 0, List.of(
+						new SaleCreateLineRequest(productId, 2)), now, "batch-negative-2")));
+
+		assertThat(results).extracting(SaleBatchResultResponse::status)
+				.containsExactly(SaleBatchResultStatus.FAILED, SaleBatchResultStatus.CREATED);
+		assertThat(jdbcTemplate.queryForObject("select quantity from inventory_batch where id = ?", Integer.class, batchId))
+				.isEqualTo(8);
+		assertThat(productRepository.findById(productId).orElseThrow().getAvailableStock()).isEqualTo(8);
+	}
+}
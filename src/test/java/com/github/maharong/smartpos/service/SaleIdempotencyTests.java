@@ -0,0 +1,146 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.InventoryReceiveRequest;
+import com.github.maharong.smartpos.dto.ProductCreateRequest;
+import com.github.maharong.smartpos.dto.SaleResponse;
+import com.github.maharong.smartpos.entity.SaleIdempotencyKey;
+import com.github.maharong.smartpos.enums.PaymentMethod;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import com.github.maharong.smartpos.repository.SaleIdempotencyKeyRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 판매 생성 멱등 키의 재시도/내용 불일치/동시 중복/보관 기간 삭제를 검증한다.
+ * <p>
+ * 응답 캐시를 1개로 줄여, 다른 키를 한 번 거치면 DB의 멱등 키 기록으로 처리되게 한다.
+ * </p>
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:sale-idempotency;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"smartpos.sale.idempotency-cache-size=1",
+		"smartpos.sale.idempotency-key-retention=7d"
+})
+class SaleIdempotencyTests {
+
+	@Autowired
+	private SaleService saleService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private SaleIdempotencyKeyRepository saleIdempotencyKeyRepository;
+
+	@Test
+	void replayReturnsFirstReceiptFromCacheAndDatabase() {
+		Long productId = product("replay", 100);
+
+		SaleResponse first = sell("replay-1", productId, 2);
+		SaleResponse cached = sell("replay-1", productId, 2);
+		sell("replay-other", productId, 1); // 캐시에서 replay-1을 밀어낸다.
+		SaleResponse stored = sell("replay-1", productId, 2);
+
+		assertThat(cached.saleId()).isEqualTo(first.saleId());
+		assertThat(stored.saleId()).isEqualTo(first.saleId());
+		assertThat(availableStock(productId)).isEqualTo(100 - 2 - 1);
+	}
+
+	@Test
+	void replayWithDifferentBodyIsRejected() {
+		Long productId = product("mismatch", 100);
+		sell("mismatch-1", productId, 2);
+
+		// 캐시에 남아있는 경우
+		assertConflict(() -> sell("mismatch-1", productId, 3));
+
+		// DB 기록으로 확인하는 경우
+		sell("mismatch-other", productId, 1);
+		assertConflict(() -> saleService.createSale("mismatch-1", PaymentMethod.CARD, 0, 200, 0,
+				List.of(new SaleService.CreateSaleLine(productId, 2))));
+
+		assertThat(availableStock(productId)).isEqualTo(100 - 2 - 1);
+	}
+
+	@Test
+	void concurrentDuplicatesCreateOneSale() throws Exception {
+		Long productId = product("concurrent", 100);
+
+		List<Callable<Long>> tasks = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			tasks.add(() -> sell("concurrent-1", productId, 5).saleId());
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		Set<Long> saleIds;
+		try {
+			List<Long> ids = new ArrayList<>();
+			for (Future<Long> future : pool.invokeAll(tasks)) {
+				ids.add(future.get());
+			}
+			saleIds = ids.stream().collect(Collectors.toSet());
+		} finally {
+			pool.shutdown();
+		}
+
+		assertThat(saleIds).hasSize(1);
+		assertThat(availableStock(productId)).isEqualTo(95);
+	}
+
+	@Test
+	void purgeRemovesOnlyExpiredKeys() {
+		LocalDateTime now = LocalDateTime.now();
+		saleIdempotencyKeyRepository.save(SaleIdempotencyKey.builder()
+				.idempotencyKey("purge-old").saleId(1L).createdAt(now.minusDays(8)).build());
+		saleIdempotencyKeyRepository.save(SaleIdempotencyKey.builder()
+				.idempotencyKey("purge-recent").saleId(2L).createdAt(now.minusDays(6)).build());
+
+		saleService.purgeExpiredIdempotencyKeys();
+
+		assertThat(saleIdempotencyKeyRepository.findByIdempotencyKey("purge-old")).isEmpty();
+		assertThat(saleIdempotencyKeyRepository.findByIdempotencyKey("purge-recent")).isPresent();
+	}
+
+	private Long product(String name, int stock) {
+		Long productId = productService.create(new ProductCreateRequest(name, 100, "idem-" + name, 1)).id();
+		inventoryService.receive(new InventoryReceiveRequest(productId, stock, LocalDate.now().plusDays(10), null));
+		return productId;
+	}
+
+	private SaleResponse sell(String key, Long productId, int quantity) {
+		return saleService.createSale(key, PaymentMethod.CASH, 100L * quantity, 0, 0,
+				List.of(new SaleService.CreateSaleLine(productId, quantity)));
+	}
+
+	private int availableStock(Long productId) {
+		return productRepository.findById(productId).orElseThrow().getAvailableStock();
+	}
+
+	private static void assertConflict(Runnable call) {
+		assertThatThrownBy(call::run)
+				.isInstanceOfSatisfying(ResponseStatusException.class,
+						e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+	}
+}
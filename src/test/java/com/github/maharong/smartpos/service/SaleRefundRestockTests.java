@@ -0,0 +1,112 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.InventoryReceiveRequest;
+import com.github.maharong.smartpos.dto.ProductCreateRequest;
+import com.github.maharong.smartpos.enums.PaymentMethod;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 환불 재입고가 판매가 차감한 배치에만, 할당 수량만큼만 되돌리는지 검증한다.
+ * <p>
+ * 판매 이후 만료/폐기된 배치는 되살리지 않고 폐기(WASTE) 로그로 남아야 한다.
+ * </p>
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sale-refund-restock;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class SaleRefundRestockTests {
+
+	@Autowired
+	private SaleService saleService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void restockReturnsExactlyTheAllocatedQuantities() {
+		LocalDate today = LocalDate.now();
+		Long productId = product("exact");
+		Long first = receive(productId, today.plusDays(1));
+		Long second = receive(productId, today.plusDays(5));
+		Long untouched = receive(productId, today.plusDays(10));
+		Long otherProductId = product("exact-other");
+		Long other = receive(otherProductId, today.plusDays(1));
+
+		Long saleId = sell(productId, 7); // first 5개, second 2개
+		assertThat(quantity(first)).isZero();
+		assertThat(quantity(second)).isEqualTo(3);
+
+		saleService.refundSale(saleId, true);
+
+		assertThat(quantity(first)).isEqualTo(5);
+		assertThat(quantity(second)).isEqualTo(5);
+		assertThat(quantity(untouched)).isEqualTo(5);
+		assertThat(quantity(other)).isEqualTo(5);
+		assertThat(availableStock(productId)).isEqualTo(15);
+		assertThat(availableStock(otherProductId)).isEqualTo(5);
+		assertThat(wasteLogs(first)).isEmpty();
+	}
+
+	@Test
+	void restockSkipsExpiredBatchesAndLogsWaste() {
+		LocalDate today = LocalDate.now();
+		Long productId = product("expired");
+		Long first = receive(productId, today.plusDays(1));
+		Long second = receive(productId, today.plusDays(5));
+
+		Long saleId = sell(productId, 7); // first 5개, second 2개
+
+		// 판매 이후 first 배치가 만료되어 폐기된 상태를 만든다.
+		jdbcTemplate.update("update inventory_batch set expiry_date = ? where id = ?", today.minusDays(1), first);
+
+		saleService.refundSale(saleId, true);
+
+		assertThat(quantity(first)).isZero();
+		assertThat(quantity(second)).isEqualTo(5);
+		assertThat(availableStock(productId)).isEqualTo(3 + 2);
+		assertThat(wasteLogs(first)).containsExactly(5);
+		assertThat(wasteLogs(second)).isEmpty();
+	}
+
+	private Long product(String name) {
+		return productService.create(new ProductCreateRequest(name, 100, "restock-" + name, 1)).id();
+	}
+
+	private Long receive(Long productId, LocalDate expiryDate) {
+		return inventoryService.receive(new InventoryReceiveRequest(productId, 5, expiryDate, null)).batchId();
+	}
+
+	private Long sell(Long productId, int quantity) {
+		return saleService.createSale(PaymentMethod.CASH, 100L * quantity, 0, 0,
+				List.of(new SaleService.CreateSaleLine(productId, quantity))).saleId();
+	}
+
+	private int quantity(Long batchId) {
+		return jdbcTemplate.queryForObject("select quantity from inventory_batch where id = ?", Integer.class, batchId);
+	}
+
+	private int availableStock(Long productId) {
+		return productRepository.findById(productId).orElseThrow().getAvailableStock();
+	}
+
+	private List<Integer> wasteLogs(Long batchId) {
+		return jdbcTemplate.queryForList(
+				"select quantity from inventory_log where batch_id = ? and type = 'WASTE'", Integer.class, batchId);
+	}
+}
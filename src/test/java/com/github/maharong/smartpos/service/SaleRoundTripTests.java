@@ -0,0 +1,135 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.InventoryConsumeRequest;
+import com.github.maharong.smartpos.dto.InventoryReceiveRequest;
+import com.github.maharong.smartpos.dto.ProductCreateRequest;
+import com.github.maharong.smartpos.enums.InventoryConsumeType;
+import com.github.maharong.smartpos.enums.PaymentMethod;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 영수증 1건(판매)과 관리자 출고 1건당 DB 왕복 횟수를 JDBC 배치 적용 전후로 비교한다.
+ * <p>
+ * 왕복 횟수는 Hibernate 통계의 PreparedStatement 준비 횟수로 센다(배치는 문장 하나로 묶여 한 번 전송된다).
+ * "적용 전"은 세션 JDBC 배치 크기를 1로 낮춰, IDENTITY ID 때문에 배치가 꺼져 있던 상태를 재현한다.
+ * 판매는 {@link StockDeductionExecutor}가 여는 새 트랜잭션에서 실행되므로, 배치 크기는 트랜잭션 매니저가
+ * 새 엔티티 매니저를 만들 때마다 적용한다.
+ * </p>
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:round-trip;MODE=MySQL;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SaleRoundTripTests {
+
+	private static final Logger log = LoggerFactory.getLogger(SaleRoundTripTests.class);
+
+	private static final int LINES_PER_RECEIPT = 10;
+	private static final int RECEIPTS = 20;
+	private static final int BATCHES_PER_PRODUCT = 5;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private SaleService saleService;
+
+	@Autowired
+	private JpaTransactionManager transactionManager;
+
+	@Autowired
+	private SessionFactory sessionFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final List<Long> productIds = new ArrayList<>();
+
+	@BeforeAll
+	void seed() {
+		for (int p = 0; p < LINES_PER_RECEIPT; p++) {
+			Long productId = productService.create(new ProductCreateRequest("round-trip-" + p, 100, "round-trip-" + p, 10)).id();
+			for (int b = 0; b < BATCHES_PER_PRODUCT; b++) {
+				inventoryService.receive(new InventoryReceiveRequest(productId, 1_000, LocalDate.now().plusDays(10 + b), null));
+			}
+			productIds.add(productId);
+		}
+	}
+
+	@Test
+	void saleRoundTripsPerReceipt() {
+		List<SaleService.CreateSaleLine> lines = productIds.stream()
+				.map(id -> new SaleService.CreateSaleLine(id, 1))
+				.toList();
+		long total = 100L * LINES_PER_RECEIPT;
+
+		double before = roundTripsPerCall(1, () ->
+				saleService.createSale(PaymentMethod.CASH, total, 0, 0, lines));
+		double after = roundTripsPerCall(0, () ->
+				saleService.createSale(PaymentMethod.CASH, total, 0, 0, lines));
+
+		log.info("영수증 1건({}개 라인) 왕복 횟수: 배치 전 {}, 배치 후 {}", LINES_PER_RECEIPT, before, after);
+		assertThat(after).isLessThan(before);
+	}
+
+	@Test
+	void consumeRoundTripsPerRequest() {
+		// 배치 여러 개에 걸쳐 차감되도록 배치 수량보다 크게 출고한다.
+		Long productId = productIds.get(0);
+		InventoryConsumeRequest request = new InventoryConsumeRequest(productId, 1_500, InventoryConsumeType.ADJUSTMENT, "round-trip");
+		inventoryService.receive(new InventoryReceiveRequest(productId, 100_000, LocalDate.now().plusDays(30), null));
+
+		double before = roundTripsPerCall(1, () -> inventoryService.consume(request));
+		double after = roundTripsPerCall(0, () -> inventoryService.consume(request));
+
+		log.info("관리자 출고 1건 왕복 횟수: 배치 전 {}, 배치 후 {}", before, after);
+		assertThat(after).isLessThan(before);
+	}
+
+	/**
+	 * 작업을 매번 새 트랜잭션에서 {@link #RECEIPTS}번 실행하고, 1회당 평균 PreparedStatement 수를 구한다.
+	 * <p>
+	 * 판매는 그 안에서 {@link StockDeductionExecutor}가 여는 REQUIRES_NEW 트랜잭션에서 한 번 더 실행된다.
+	 * </p>
+	 *
+	 * @param jdbcBatchSize 세션 JDBC 배치 크기(0이면 설정값 사용)
+	 */
+	private double roundTripsPerCall(int jdbcBatchSize, Runnable work) {
+		Statistics statistics = sessionFactory.getStatistics();
+		statistics.clear();
+
+		if (jdbcBatchSize > 0) {
+			transactionManager.setEntityManagerInitializer(em -> em.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize));
+		}
+		try {
+			for (int i = 0; i < RECEIPTS; i++) {
+				transactionTemplate.executeWithoutResult(status -> work.run());
+			}
+		} finally {
+			transactionManager.setEntityManagerInitializer(em -> {
+			});
+		}
+		return (double) statistics.getPrepareStatementCount() / RECEIPTS;
+	}
+}
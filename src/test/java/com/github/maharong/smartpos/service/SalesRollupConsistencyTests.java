@@ -0,0 +1,144 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.InventoryReceiveRequest;
+import com.github.maharong.smartpos.dto.ProductCreateRequest;
+import com.github.maharong.smartpos.dto.SaleBatchResultResponse;
+import com.github.maharong.smartpos.dto.SaleCreateLineRequest;
+import com.github.maharong.smartpos.dto.SaleCreateRequest;
+import com.github.maharong.smartpos.dto.SaleResponse;
+import com.github.maharong.smartpos.enums.PaymentMethod;
+import com.github.maharong.smartpos.enums.SaleBatchResultStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 판매/환불/일괄 수집으로 증분 반영한 판매 집계가 원본에서 다시 계산한 집계({@link SalesReportService#rebuild})와
+ * 같은지 검증한다.
+ * <p>
+ * 증분 반영은 결제 수단별 매출에 판매 총액({@code Sale.totalPrice})을, 재계산은 라인별 {@code quantity * unitPrice} 합을
+ * 쓰므로 두 값이 같아야 한다. 전부 환불된 키는 증분 쪽에 0인 행으로 남고 재계산 쪽에는 행이 없으므로,
+ * 수량/매출/영수증 수가 모두 0인 행은 비교에서 뺀다.
+ * </p>
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sales-rollup;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class SalesRollupConsistencyTests {
+
+	@Autowired
+	private SaleService saleService;
+
+	@Autowired
+	private SalesReportService salesReportService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void incrementalRollupsMatchRebuild() {
+		Long milk = product("rollup-milk", 1_500);
+		Long bread = product("rollup-bread", 2_300);
+		Long egg = product("rollup-egg", 700);
+		LocalDateTime now = LocalDateTime.now();
+
+		// 단건 판매(같은 상품 여러 라인, 혼합 결제 포함)
+		SaleResponse cash = saleService.createSale(PaymentMethod.CASH, 1_500 * 2 + 700, 0, 0, List.of(
+				new SaleService.CreateSaleLine(milk, 2), new SaleService.CreateSaleLine(egg, 1)));
+		saleService.createSale(PaymentMethod.MIX, 1_000, 2_300 * 3 + 1_500 - 1_000, 0, List.of(
+				new SaleService.CreateSaleLine(bread, 2), new SaleService.CreateSaleLine(milk, 1),
+				new SaleService.CreateSaleLine(bread, 1)));
+		SaleResponse card = saleService.createSale(PaymentMethod.CARD, 0, 700 * 4, 0, List.of(
+				new SaleService.CreateSaleLine(egg, 4)));
+
+		// 환불(재입고 여부와 관계없이 판매 시각 기준으로 빠져야 한다)
+		saleService.refundSale(cash.saleId(), true);
+		saleService.refundSale(card.saleId(), false);
+
+		// 일괄 수집(원래 판매 시각, 같은 내용의 다른 키, 결제 금액 불일치 실패 건 포함), 이어서 재전송 중복
+		List<SaleBatchResultResponse> results = saleService.createSaleBatch(List.of(
+				new SaleCreateRequest(PaymentMethod.CARD, 0, 2_300 + 700 * 2, 0, List.of(
+						new SaleCreateLineRequest(bread, 1), new SaleCreateLineRequest(egg, 2)),
+						now.minusHours(1), "rollup-batch-1"),
+				new SaleCreateRequest(PaymentMethod.POINT, 0, 0, 1_500, List.of(
+						new SaleCreateLineRequest(milk, 1)), now.minusMinutes(5), "rollup-batch-2"),
+				new SaleCreateRequest(PaymentMethod.CARD, 0, 2_300 + 700 * 2, 0, List.of(
+						new SaleCreateLineRequest(bread, 1), new SaleCreateLineRequest(egg, 2)),
+						now.minusHours(1), "rollup-batch-1-retry"),
+				new SaleCreateRequest(PaymentMethod.CASH, 1, 0, 0, List.of(
+						new SaleCreateLineRequest(milk, 1)), now, "rollup-batch-wrong-amount")));
+		assertThat(results).extracting(SaleBatchResultResponse::status).containsExactly(
+				SaleBatchResultStatus.CREATED, SaleBatchResultStatus.CREATED,
+				SaleBatchResultStatus.CREATED, SaleBatchResultStatus.FAILED);
+		assertThat(saleService.createSaleBatch(List.of(new SaleCreateRequest(PaymentMethod.POINT, 0, 0, 1_500, List.of(
+				new SaleCreateLineRequest(milk, 1)), now.minusMinutes(5), "rollup-batch-2"))))
+				.extracting(SaleBatchResultResponse::status).containsExactly(SaleBatchResultStatus.DUPLICATE);
+
+		LocalDate from = now.toLocalDate().minusDays(1);
+		LocalDate to = now.toLocalDate().plusDays(1);
+		Rollups incremental = snapshot(from, to);
+		assertThat(incremental.paymentDaily()).isNotEmpty();
+
+		salesReportService.rebuild(from, to);
+		Rollups rebuilt = snapshot(from, to);
+
+		assertThat(incremental.hourly()).isEqualTo(rebuilt.hourly());
+		assertThat(incremental.productDaily()).isEqualTo(rebuilt.productDaily());
+		assertThat(incremental.paymentDaily()).isEqualTo(rebuilt.paymentDaily());
+		// 결제 수단별 매출(판매 총액 합)이 라인 금액 합과 같다.
+		assertThat(sum(incremental.paymentDaily(), "REVENUE")).isEqualTo(sum(incremental.productDaily(), "REVENUE"));
+	}
+
+	private Long product(String name, int price) {
+		Long productId = productService.create(new ProductCreateRequest(name, price, name, 1)).id();
+		inventoryService.receive(new InventoryReceiveRequest(productId, 100, LocalDate.now().plusDays(10), null));
+		return productId;
+	}
+
+	private Rollups snapshot(LocalDate from, LocalDate to) {
+		return new Rollups(
+				jdbcTemplate.queryForList("""
+						select product_id, sales_hour, sales_date, quantity, revenue, receipt_count
+						from product_hourly_sales
+						where sales_date between ? and ?
+						  and (quantity <> 0 or revenue <> 0 or receipt_count <> 0)
+						order by product_id, sales_hour
+						""", from, to),
+				jdbcTemplate.queryForList("""
+						select product_id, sales_date, quantity, revenue, receipt_count
+						from product_daily_sales
+						where sales_date between ? and ?
+						  and (quantity <> 0 or revenue <> 0 or receipt_count <> 0)
+						order by product_id, sales_date
+						""", from, to),
+				jdbcTemplate.queryForList("""
+						select sales_date, payment_method, quantity, revenue, receipt_count
+						from payment_daily_sales
+						where sales_date between ? and ?
+						  and (quantity <> 0 or revenue <> 0 or receipt_count <> 0)
+						order by sales_date, payment_method
+						""", from, to));
+	}
+
+	private static long sum(List<Map<String, Object>> rows, String column) {
+		return rows.stream().mapToLong(row -> ((Number) row.get(column)).longValue()).sum();
+	}
+
+	private record Rollups(
+			List<Map<String, Object>> hourly,
+			List<Map<String, Object>> productDaily,
+			List<Map<String, Object>> paymentDaily
+	) {}
+}
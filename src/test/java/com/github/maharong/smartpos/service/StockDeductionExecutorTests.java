@@ -0,0 +1,169 @@
+package com.github.maharong.smartpos.service;
+
+import com.github.maharong.smartpos.dto.InventoryReceiveRequest;
+import com.github.maharong.smartpos.dto.ProductCreateRequest;
+import com.github.maharong.smartpos.enums.PaymentMethod;
+import com.github.maharong.smartpos.repository.InventoryBatchRepository;
+import com.github.maharong.smartpos.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link StockDeductionExecutor}의 상품 락 직렬화와 낙관적 락 재시도를 검증한다.
+ * <p>
+ * 재시도는 매번 새 트랜잭션({@code REQUIRES_NEW})에서 실행되어야 하므로, 바깥 트랜잭션 안에서 호출해도
+ * 충돌로 롤백된 시도가 바깥 트랜잭션을 rollback-only로 만들지 않는지 함께 확인한다.
+ * </p>
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:stock-deduction;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class StockDeductionExecutorTests {
+
+	private static final int THREADS = 8;
+
+	@Autowired
+	private StockDeductionExecutor stockDeductionExecutor;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private SaleService saleService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private InventoryBatchRepository inventoryBatchRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void sameProductWorkIsSerialized() throws Exception {
+		// 읽고-쉬고-쓰는 작업은 락이 없으면 갱신이 유실된다.
+		int[] counter = {0};
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < THREADS * 25; i++) {
+			tasks.add(() -> stockDeductionExecutor.execute(Set.of(1L), () -> {
+				int read = counter[0];
+				Thread.yield();
+				counter[0] = read + 1;
+				return null;
+			}));
+		}
+
+		runConcurrently(tasks);
+
+		assertThat(counter[0]).isEqualTo(THREADS * 25);
+	}
+
+	@Test
+	void concurrentSalesNeverOversell() throws Exception {
+		Long productId = productService.create(new ProductCreateRequest("stripe", 100, "stripe-0001", 1)).id();
+		for (int b = 0; b < 3; b++) {
+			inventoryService.receive(new InventoryReceiveRequest(productId, 20, LocalDate.now().plusDays(5 + b), null));
+		}
+
+		AtomicInteger sold = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < 80; i++) {
+			tasks.add(() -> {
+				try {
+					saleService.createSale(PaymentMethod.CASH, 100, 0, 0, List.of(new SaleService.CreateSaleLine(productId, 1)));
+					sold.incrementAndGet();
+				} catch (IllegalStateException e) {
+					rejected.incrementAndGet();
+				}
+				return null;
+			});
+		}
+
+		runConcurrently(tasks);
+
+		assertThat(sold.get()).isEqualTo(60);
+		assertThat(rejected.get()).isEqualTo(20);
+		assertThat(inventoryBatchRepository.findAll())
+				.filteredOn(batch -> batch.getProduct().getId().equals(productId))
+				.allSatisfy(batch -> assertThat(batch.getQuantity()).isZero());
+		assertThat(productRepository.findById(productId).orElseThrow().getAvailableStock()).isZero();
+	}
+
+	@Test
+	void retryRunsInNewTransactionInsideOuterTransaction() {
+		List<EntityManager> attempts = new ArrayList<>();
+
+		String result = transactionTemplate.execute(status -> {
+			EntityManager outer = currentEntityManager();
+			String value = stockDeductionExecutor.execute(Set.of(2L), () -> {
+				attempts.add(currentEntityManager());
+				if (attempts.size() == 1) {
+					throw new OptimisticLockingFailureException("first attempt");
+				}
+				return "committed";
+			});
+			assertThat(attempts).doesNotContain(outer);
+			assertThat(status.isRollbackOnly()).isFalse();
+			return value;
+		});
+
+		assertThat(result).isEqualTo("committed");
+		assertThat(attempts).hasSize(2);
+		assertThat(attempts.get(0)).isNotSameAs(attempts.get(1));
+	}
+
+	@Test
+	void givesUpAfterConfiguredRetries() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThatThrownBy(() -> stockDeductionExecutor.execute(Set.of(3L), () -> {
+			attempts.incrementAndGet();
+			throw new OptimisticLockingFailureException("always");
+		})).isInstanceOf(OptimisticLockingFailureException.class);
+
+		// 기본 재시도 3회 + 최초 시도 1회
+		assertThat(attempts.get()).isEqualTo(4);
+	}
+
+	private EntityManager currentEntityManager() {
+		EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(entityManagerFactory);
+		return holder.getEntityManager();
+	}
+
+	private void runConcurrently(List<Callable<Void>> tasks) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try {
+			for (Future<Void> future : pool.invokeAll(tasks)) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}